@@ -1,7 +1,9 @@
 package exceptions;
 
 /**
- * Exception thrown when an error is thrown while parsing the file using MenuLoader
+ * Exception thrown when an error is thrown while parsing the file using MenuLoader.
+ * <p>
+ * It only captures a stack trace if {@link StackTraces#isEnabled()}.
  */
 public class PizzaFormatException extends Exception {
 
@@ -17,7 +19,7 @@ public class PizzaFormatException extends Exception {
      * @param lineNum line number of the error
      */
     public PizzaFormatException(String message, int lineNum) {
-        super(String.format("%s at %s", message, lineNum));
+        super(message + " at " + lineNum, null, true, StackTraces.isEnabled());
     }
 
     /**
@@ -33,7 +35,7 @@ public class PizzaFormatException extends Exception {
      * @param cause throwable that caused this exception
      */
     public PizzaFormatException(String message, int lineNum, Throwable cause) {
-        super(String.format("%s at %s", message, lineNum), cause);
+        super(message + " at " + lineNum, cause, true, StackTraces.isEnabled());
     }
 
 }
\ No newline at end of file
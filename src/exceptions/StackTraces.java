@@ -0,0 +1,49 @@
+package exceptions;
+
+/**
+ * Controls whether {@link PizzaFormatException} and {@link TooManyToppingsException} capture
+ * a stack trace when they are created.
+ * <p>
+ * Capturing the stack trace is most of the cost of creating an exception. When large
+ * untrusted menus or bulk imports are validated and many of them are invalid, turning stack
+ * traces off lets existing callers keep catching the same exceptions, with the same
+ * messages, at a fraction of the cost. Callers that don't need exceptions at all can use the
+ * {@link ValidationResult} methods instead.
+ * <p>
+ * Stack traces are on unless the {@value #PROPERTY} system property is set to false.
+ */
+public final class StackTraces {
+
+    /**
+     * System property that turns stack traces off when set to false
+     */
+    public static final String PROPERTY = "pizza.exceptions.stacktraces";
+
+    /**
+     * Whether exceptions created from now on capture a stack trace
+     */
+    private static volatile boolean enabled =
+            !"false".equalsIgnoreCase(System.getProperty(PROPERTY));
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private StackTraces() {
+    }
+
+    /**
+     * Returns whether pizza exceptions capture a stack trace when they are created
+     * @return true if stack traces are captured
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether pizza exceptions capture a stack trace when they are created
+     * @param enabled true to capture stack traces, false to create stackless exceptions
+     */
+    public static void setEnabled(boolean enabled) {
+        StackTraces.enabled = enabled;
+    }
+}
@@ -1,7 +1,9 @@
 package exceptions;
 
 /**
- * Exception thrown when too many toppings are attempted to be added to a pizza
+ * Exception thrown when too many toppings are attempted to be added to a pizza.
+ * <p>
+ * It only captures a stack trace if {@link StackTraces#isEnabled()}.
  */
 public class TooManyToppingsException extends Exception {
 
@@ -10,7 +12,7 @@ public class TooManyToppingsException extends Exception {
      * @param message detail message
      */
     public TooManyToppingsException(String message) {
-        super(message);
+        super(message, null, true, StackTraces.isEnabled());
     }
 
     /**
@@ -25,7 +27,7 @@ public class TooManyToppingsException extends Exception {
      * @param lineNum line number of the error
      */
     public TooManyToppingsException(String message, int lineNum) {
-        super(String.format("%s at %s", message, lineNum));
+        super(message + " at " + lineNum, null, true, StackTraces.isEnabled());
     }
 
     /**
@@ -33,7 +35,7 @@ public class TooManyToppingsException extends Exception {
      * @param cause throwable that caused this exception
      */
     public TooManyToppingsException(Throwable cause) {
-        super(cause);
+        super(cause == null ? null : cause.toString(), cause, true, StackTraces.isEnabled());
     }
 
     /**
@@ -42,7 +44,7 @@ public class TooManyToppingsException extends Exception {
      * @param cause throwable that caused this exception
      */
     public TooManyToppingsException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true, StackTraces.isEnabled());
     }
 
 }
\ No newline at end of file
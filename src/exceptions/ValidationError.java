@@ -0,0 +1,156 @@
+package exceptions;
+
+/**
+ * Reasons a pizza or pizza menu is invalid, each with the message of the exception thrown
+ * for it
+ */
+public enum ValidationError {
+
+    /**
+     * The menu is empty or couldn't be read
+     */
+    NOT_READY("Reader is null or not ready", Kind.FORMAT),
+
+    /**
+     * The menu has no lines
+     */
+    NO_LINES("No lines in file", Kind.FORMAT),
+
+    /**
+     * A line that should be empty isn't
+     */
+    LINE_NOT_EMPTY("Line should be empty", Kind.FORMAT),
+
+    /**
+     * The first line doesn't start with "PizzaMenu"
+     */
+    MISSING_KEYWORD("File does not start with PizzaMenu", Kind.FORMAT),
+
+    /**
+     * The first line has no space before the number of pizzas
+     */
+    MISSING_SPACE("Missing Space", Kind.FORMAT),
+
+    /**
+     * The first line has more than "PizzaMenu" before the space
+     */
+    INCORRECT_KEYWORD("Initial Keyword is incorrect", Kind.FORMAT),
+
+    /**
+     * The number of pizzas on the first line is missing or negative
+     */
+    MISSING_NUMBER_OF_PIZZAS("Missing number of Pizzas", Kind.FORMAT),
+
+    /**
+     * A topping line is missing, or has a blank or duplicate topping name
+     */
+    INVALID_TOPPING_LINE("Null or duplicate topping name", Kind.FORMAT),
+
+    /**
+     * A pizza line has no space and bracket before its toppings
+     */
+    INCORRECT_SPACING("Incorrect spacing", Kind.FORMAT),
+
+    /**
+     * A pizza line doesn't end with a square bracket
+     */
+    MISSING_BRACKET("Toppings list doesn't end with a square bracket", Kind.FORMAT),
+
+    /**
+     * A pizza line has a topping that doesn't exist or a blank name
+     */
+    INVALID_TOPPING_NAME("Invalid topping name", Kind.FORMAT),
+
+    /**
+     * A pizza has more than the maximum number of toppings
+     */
+    TOO_MANY_TOPPINGS("Too many toppings to add", Kind.TOO_MANY_TOPPINGS),
+
+    /**
+     * Adding a topping would give a pizza more than the maximum number of toppings
+     */
+    TOPPING_LIMIT_REACHED("Adding topping exceeds 5 total toppings", Kind.TOO_MANY_TOPPINGS),
+
+    /**
+     * The menu has fewer pizza lines than the number of pizzas given
+     */
+    TOO_FEW_PIZZAS("Incorrect number of pizzas specified", Kind.PIZZA_COUNT),
+
+    /**
+     * The menu has more pizza lines than the number of pizzas given
+     */
+    TOO_MANY_PIZZAS("Listed number of pizzas doesn't match pizza list", Kind.PIZZA_COUNT),
+
+    /**
+     * A pizza's size, sauce or cheese is null
+     */
+    NULL_OPTION("Size, cheese or sauce was null", Kind.ARGUMENT),
+
+    /**
+     * A pizza's list of toppings is null
+     */
+    NULL_TOPPINGS("Toppings was null", Kind.ARGUMENT),
+
+    /**
+     * A topping is null
+     */
+    NULL_TOPPING("Topping is null", Kind.ARGUMENT);
+
+    /**
+     * Exception thrown for an error, see {@link ValidationResult#throwIfInvalid()}
+     */
+    public enum Kind {
+        /**
+         * Thrown as a {@link PizzaFormatException} with the line number
+         */
+        FORMAT,
+        /**
+         * Thrown as a {@link TooManyToppingsException}
+         */
+        TOO_MANY_TOPPINGS,
+        /**
+         * Thrown as an {@link IndexOutOfBoundsException}
+         */
+        PIZZA_COUNT,
+        /**
+         * Thrown as an {@link IllegalArgumentException}
+         */
+        ARGUMENT
+    }
+
+    /**
+     * Message of the exception thrown for the error
+     */
+    private final String message;
+
+    /**
+     * Exception thrown for the error
+     */
+    private final Kind kind;
+
+    /**
+     * Creates an error
+     * @param message message of the exception thrown for the error
+     * @param kind exception thrown for the error
+     */
+    ValidationError(String message, Kind kind) {
+        this.message = message;
+        this.kind = kind;
+    }
+
+    /**
+     * Returns the message of the exception thrown for the error
+     * @return detail message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns which exception is thrown for the error
+     * @return kind of exception
+     */
+    public Kind getKind() {
+        return kind;
+    }
+}
@@ -0,0 +1,200 @@
+package exceptions;
+
+/**
+ * Outcome of validating a pizza or pizza menu, returned instead of throwing an exception so
+ * that invalid input costs no more to reject than valid input costs to accept.
+ * <p>
+ * Results without a line number are shared, so rejecting a pizza creates no objects.
+ */
+public final class ValidationResult {
+
+    /**
+     * Line number of results that aren't about a line
+     */
+    public static final int NO_LINE = -1;
+
+    /**
+     * Column of results that aren't about a column
+     */
+    public static final int NO_COLUMN = -1;
+
+    /**
+     * Result of anything valid
+     */
+    public static final ValidationResult VALID = new ValidationResult(null, NO_LINE, NO_COLUMN);
+
+    /**
+     * Shared result for each error without a line number, indexed by the error ordinal
+     */
+    private static final ValidationResult[] WITHOUT_LINE;
+
+    static {
+        ValidationError[] errors = ValidationError.values();
+        WITHOUT_LINE = new ValidationResult[errors.length];
+        for (ValidationError error : errors) {
+            WITHOUT_LINE[error.ordinal()] = new ValidationResult(error, NO_LINE, NO_COLUMN);
+        }
+    }
+
+    /**
+     * Why the input is invalid, or null if it is valid
+     */
+    private final ValidationError error;
+
+    /**
+     * Line number of the error, or {@link #NO_LINE}
+     */
+    private final int lineNum;
+
+    /**
+     * Column of the error, starting at 1, or {@link #NO_COLUMN}
+     */
+    private final int column;
+
+    /**
+     * Creates a result
+     * @param error why the input is invalid, or null if it is valid
+     * @param lineNum line number of the error, or {@link #NO_LINE}
+     * @param column column of the error, starting at 1, or {@link #NO_COLUMN}
+     */
+    private ValidationResult(ValidationError error, int lineNum, int column) {
+        this.error = error;
+        this.lineNum = lineNum;
+        this.column = column;
+    }
+
+    /**
+     * Returns the result of an error that isn't about a line
+     * @param error why the input is invalid
+     * @return shared result for the error
+     * @throws IllegalArgumentException if the error is null
+     */
+    public static ValidationResult of(ValidationError error) throws IllegalArgumentException {
+        if (error == null) {
+            throw new IllegalArgumentException("Error was null");
+        }
+        return WITHOUT_LINE[error.ordinal()];
+    }
+
+    /**
+     * Returns the result of an error on a line of a menu
+     * @param error why the menu is invalid
+     * @param lineNum line number of the error
+     * @return the result
+     * @throws IllegalArgumentException if the error is null
+     */
+    public static ValidationResult of(ValidationError error, int lineNum)
+            throws IllegalArgumentException {
+        if (error == null) {
+            throw new IllegalArgumentException("Error was null");
+        }
+        return of(error, lineNum, NO_COLUMN);
+    }
+
+    /**
+     * Returns the result of an error at a column of a line of a menu
+     * @param error why the menu is invalid
+     * @param lineNum line number of the error
+     * @param column column of the error, starting at 1, or {@link #NO_COLUMN}
+     * @return the result
+     * @throws IllegalArgumentException if the error is null
+     */
+    public static ValidationResult of(ValidationError error, int lineNum, int column)
+            throws IllegalArgumentException {
+        if (error == null) {
+            throw new IllegalArgumentException("Error was null");
+        }
+        return lineNum == NO_LINE && column == NO_COLUMN ? WITHOUT_LINE[error.ordinal()]
+                : new ValidationResult(error, lineNum, column);
+    }
+
+    /**
+     * Returns whether the input is valid
+     * @return true if there is no error
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Returns why the input is invalid
+     * @return the error, or null if the input is valid
+     */
+    public ValidationError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the line number of the error
+     * @return line number, or {@link #NO_LINE} if the error isn't about a line
+     */
+    public int getLineNum() {
+        return lineNum;
+    }
+
+    /**
+     * Returns the column of the error
+     * @return column starting at 1, or {@link #NO_COLUMN} if the error isn't about a column
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the message of the exception that {@link #throwIfInvalid()} throws
+     * @return detail message, or null if the input is valid
+     */
+    public String getMessage() {
+        if (error == null) {
+            return null;
+        } else if (error.getKind() == ValidationError.Kind.FORMAT) {
+            return error.getMessage() + " at " + Math.max(lineNum, 0);
+        }
+        return error.getMessage();
+    }
+
+    /**
+     * Throws the exception the error has always been reported with, for callers of the
+     * methods that throw
+     * @throws PizzaFormatException if a menu is formatted incorrectly
+     * @throws TooManyToppingsException if a pizza has too many toppings
+     * @throws IndexOutOfBoundsException if a menu has the wrong number of pizza lines
+     * @throws IllegalArgumentException if a pizza has a null argument
+     */
+    public void throwIfInvalid() throws PizzaFormatException, TooManyToppingsException,
+            IndexOutOfBoundsException, IllegalArgumentException {
+        if (error == null) {
+            return;
+        }
+        switch (error.getKind()) {
+            case FORMAT:
+                throw new PizzaFormatException(error.getMessage(), Math.max(lineNum, 0));
+            case TOO_MANY_TOPPINGS:
+                throw new TooManyToppingsException(error.getMessage());
+            case PIZZA_COUNT:
+                throw new IndexOutOfBoundsException(error.getMessage());
+            default:
+                throw new IllegalArgumentException(error.getMessage());
+        }
+    }
+
+    /**
+     * Returns a description of the result for reporting, with the line and column of the
+     * error when it has them
+     * @return "Valid", or the message of the error followed by where it is
+     */
+    @Override
+    public String toString() {
+        if (error == null) {
+            return "Valid";
+        }
+        StringBuilder description = new StringBuilder(error.getMessage());
+        if (lineNum != NO_LINE) {
+            description.append(" at ").append(lineNum);
+        }
+        if (column != NO_COLUMN) {
+            description.append(", column ").append(column);
+        }
+        return description.toString();
+    }
+}
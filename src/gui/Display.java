@@ -2,9 +2,13 @@ package gui;
 
 import exceptions.TooManyToppingsException;
 import io.MenuLoader;
-import menu.MenuItem;
+import io.MenuReloader;
+import io.OrderJournal;
+import menu.Menu;
+import menu.MenuItemView;
 import menu.Order;
-import pizza.CustomPizza;
+import menu.OrderService;
+import pizza.MenuPizza;
 import pizza.Pizza;
 import pizza.ingredients.Bases;
 import pizza.ingredients.Cheeses;
@@ -14,9 +18,12 @@ import pizza.ingredients.Topping;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This class will <b>NOT</b> be tested and does <b>NOT</b> show great programming practices.
@@ -25,22 +32,205 @@ import java.util.*;
  */
 public class Display extends javax.swing.JPanel {
 
-    /* loads the menu from text file */
-    private final menu.Menu menu = MenuLoader.load("PizzaMenu.txt");
+    /* time between adding the pizzas loaded so far to the menu list */
+    private static final int MENU_REFRESH_MILLIS = 100;
 
-    /* creates a new customer order string */
-    private final StringBuilder currentOrderPanelString = new StringBuilder();
+    /* the menu, which is loaded in the background once the window is showing */
+    private final Menu menu = Menu.getInstance();
+
+    /* pizzas on the menu, added while the menu is loading */
+    private final javax.swing.DefaultComboBoxModel<MenuItemView> menuItems =
+            new javax.swing.DefaultComboBoxModel<>();
+
+    /* names of the toppings, filled once the menu has loaded */
+    private final javax.swing.DefaultComboBoxModel<String> toppingItems =
+            new javax.swing.DefaultComboBoxModel<>();
+
+    /* pizzas in the current order, newest first */
+    private final NewestFirstListModel<Pizza> currentOrder = new NewestFirstListModel<>();
+
+    /* receipts of the placed orders, one row per line */
+    private final ReceiptListModel placedOrders = new ReceiptListModel();
+
+    /* renders receipts off the event dispatch thread, one at a time so they stay in order */
+    private final ExecutorService receiptRenderer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "receipt-renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /* changed whenever the placed orders are cleared, so older receipts are dropped */
+    private int placedGeneration;
+
+    /* confirmed orders kept between runs, or null if the journal couldn't be opened */
+    private OrderJournal journal;
+
+    /* set once the journal has been opened, or has failed to open */
+    private boolean journalOpened;
+
+    /* orders confirmed before the journal was opened, journalled once it is */
+    private final List<Order> unjournalled = new ArrayList<>();
+
+    /* set if the orders were cancelled before the journal was opened */
+    private boolean clearedBeforeOpen;
+
+    /* takes the orders, journalling each one confirmed */
+    private final OrderService orderService = new OrderService(this::journal);
+
+    /* UUID of the order being made */
+    private UUID order = orderService.create(null);
 
     /**
      * Launch the GUI
      * @param args Ignored
      */
     public static void main(String[] args) {
-        new Display();
+        SwingUtilities.invokeLater(Display::new);
     }
 
     public Display() {
         initComponents();
+        loadMenu();
+    }
+
+    /**
+     * Loads the menu on a background thread. The menu list is topped up with the pizzas
+     * loaded so far every {@link #MENU_REFRESH_MILLIS}, and the toppings are filled in once
+     * the whole menu has loaded.
+     */
+    private void loadMenu() {
+        javax.swing.Timer refresh = new javax.swing.Timer(MENU_REFRESH_MILLIS, e -> addLoadedMenuItems());
+        refresh.start();
+        new SwingWorker<OrderJournal, Void>() {
+            @Override
+            protected OrderJournal doInBackground() {
+                MenuLoader.loadCompiled("PizzaMenu.txt");
+                // the orders are replayed after the menu so their pizzas can share the menu's
+                return openJournal();
+            }
+
+            @Override
+            protected void done() {
+                refresh.stop();
+                addLoadedMenuItems();
+                fillToppings();
+                try {
+                    journal = get();
+                } catch (Exception e) {
+                    journal = null;
+                }
+                journalOpened = true;
+                if (journal != null) {
+                    if (clearedBeforeOpen) {
+                        clearJournal();
+                    } else {
+                        orderService.restore(journal.recoveredOrders());
+                        for (Order recovered : journal.recoveredOrders()) {
+                            showPlaced(recovered);
+                        }
+                    }
+                    for (Order confirmed : unjournalled) {
+                        journal(confirmed);
+                    }
+                }
+                unjournalled.clear();
+                StartupTimer.interactive();
+                watchMenu();
+            }
+        }.execute();
+    }
+
+    /* journals a confirmed order, without waiting for it to be written. Orders confirmed
+       while the journal is still opening are held until it opens */
+    private void journal(Order confirmed) {
+        if (!journalOpened) {
+            unjournalled.add(confirmed);
+        } else if (journal != null) {
+            journal.append(confirmed).exceptionally(error -> {
+                System.out.println("Order could not be saved");
+                return null;
+            });
+        }
+    }
+
+    /* forgets the journalled orders, so they are not restored on the next start. Orders
+       cancelled while the journal is still opening are cleared once it opens */
+    private void cancelJournalledOrders() {
+        if (!journalOpened) {
+            unjournalled.clear();
+            clearedBeforeOpen = true;
+        } else if (journal != null) {
+            clearJournal();
+        }
+    }
+
+    /* writes a clear record to the journal, without waiting for it to be written */
+    private void clearJournal() {
+        journal.clear().exceptionally(error -> {
+            System.out.println("Cancelled orders could not be removed from the saved orders");
+            return null;
+        });
+    }
+
+    /* opens the order journal, which is synced when the application exits */
+    private static OrderJournal openJournal() {
+        try {
+            Path path = OrderJournal.getDefaultPath();
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            OrderJournal opened = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    opened.close();
+                } catch (IOException e) {
+                    System.out.println("Some orders could not be saved");
+                }
+            }));
+            return opened;
+        } catch (IOException e) {
+            System.out.println("Orders will not be saved");
+            return null;
+        }
+    }
+
+    /* adds any pizzas that have loaded since the last call to the menu list */
+    private void addLoadedMenuItems() {
+        List<MenuItemView> views = menu.getViews();
+        for (int i = menuItems.getSize(); i < views.size(); i++) {
+            menuItems.addElement(views.get(i));
+        }
+    }
+
+    /* refills the topping names */
+    private void fillToppings() {
+        toppingItems.removeAllElements();
+        for (Topping topping : Topping.values()) {
+            toppingItems.addElement(topping.toString());
+        }
+    }
+
+    /* shows menu file changes without a restart */
+    private void watchMenu() {
+        try {
+            MenuReloader.watch(Path.of(MenuLoader.PATH, "PizzaMenu.txt"),
+                    () -> SwingUtilities.invokeLater(this::menuReloaded));
+        } catch (IOException e) {
+            System.out.println("Menu changes will not be shown until restarted");
+        }
+    }
+
+    /* refills the menu and topping lists after the menu file has been reloaded */
+    private void menuReloaded() {
+        fillToppings();
+        menuItems.removeAllElements();
+        addLoadedMenuItems();
+    }
+
+    @Override
+    protected void paintComponent(java.awt.Graphics g) {
+        super.paintComponent(g);
+        StartupTimer.firstFrame();
     }
 
     /**
@@ -55,7 +245,6 @@ public class Display extends javax.swing.JPanel {
         JFrame frame = new JFrame("Display");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(1440, 900);
-        frame.setVisible(true);
 
         buttonGroup1 = new javax.swing.ButtonGroup();
         buttonGroup2 = new javax.swing.ButtonGroup();
@@ -67,7 +256,7 @@ public class Display extends javax.swing.JPanel {
         jButton3 = new javax.swing.JButton();
         jButton4 = new javax.swing.JButton();
         jScrollPane2 = new javax.swing.JScrollPane();
-        jTextArea2 = new javax.swing.JTextArea();
+        jList2 = new javax.swing.JList<>(currentOrder);
         jTabbedPane1 = new javax.swing.JTabbedPane();
         jPanel23 = new javax.swing.JPanel();
         selectToppingsPanel = new javax.swing.JPanel();
@@ -120,48 +309,7 @@ public class Display extends javax.swing.JPanel {
         createSizePrice = new javax.swing.JLabel();
         jLabel14 = new javax.swing.JLabel();
         jPanel25 = new javax.swing.JPanel();
-        jPanel26 = new javax.swing.JPanel();
-        jComboBox3 = new javax.swing.JComboBox<>();
-        button5 = new java.awt.Button();
-        button6 = new java.awt.Button();
-        jLabel33 = new javax.swing.JLabel();
-        selectPrice = new javax.swing.JLabel();
-        jPanel27 = new javax.swing.JPanel();
-        jPanel28 = new javax.swing.JPanel();
-        jPanel29 = new javax.swing.JPanel();
-        selectMozzerallaRadioButton = new javax.swing.JRadioButton();
-        selectMozzerallaRadioButton.setSelected(true);
-        selectVeganRadioButton = new javax.swing.JRadioButton();
-        selectNoneCheeseRadioButton = new javax.swing.JRadioButton();
-        jLabel35 = new javax.swing.JLabel();
-        jLabel36 = new javax.swing.JLabel();
-        jLabel37 = new javax.swing.JLabel();
-        jPanel30 = new javax.swing.JPanel();
-        jPanel31 = new javax.swing.JPanel();
-        selectTomatoRadioButton = new javax.swing.JRadioButton();
-        selectTomatoRadioButton.setSelected(true);
-        selectBBQRadioButton = new javax.swing.JRadioButton();
-        selectGarlicRadioButton = new javax.swing.JRadioButton();
-        selectNoneSauceRadioButton = new javax.swing.JRadioButton();
-        jLabel38 = new javax.swing.JLabel();
-        jLabel39 = new javax.swing.JLabel();
-        jLabel40 = new javax.swing.JLabel();
-        jLabel41 = new javax.swing.JLabel();
-        jPanel32 = new javax.swing.JPanel();
-        jPanel33 = new javax.swing.JPanel();
-        jLabel42 = new javax.swing.JLabel();
-        jLabel43 = new javax.swing.JLabel();
-        jLabel44 = new javax.swing.JLabel();
-        selectSmallRadioButton = new javax.swing.JRadioButton();
-        selectMediumRadioButton = new javax.swing.JRadioButton();
-        selectMediumRadioButton.setSelected(true);
-        selectLargeRadioButton = new javax.swing.JRadioButton();
-        selectSizePrice = new javax.swing.JLabel();
-        jLabel46 = new javax.swing.JLabel();
         jPanel22 = new javax.swing.JPanel();
-        jPanel2 = new javax.swing.JPanel();
-        jScrollPane1 = new javax.swing.JScrollPane();
-        jTextArea1 = new javax.swing.JTextArea();
 
         setBackground(new java.awt.Color(204, 255, 255));
 
@@ -175,10 +323,14 @@ public class Display extends javax.swing.JPanel {
         jButton3.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                jTextArea1.setText("");
-                jTextArea2.setText("");
-                order = new Order();
-                orders.clear();
+                placedOrders.clear();
+                currentOrder.clear();
+                orderService.cancel(order);
+                order = orderService.create(null);
+                orderService.clearConfirmed();
+                cancelJournalledOrders();
+                // drop any receipts still being rendered
+                placedGeneration++;
             }
         });
 
@@ -189,29 +341,20 @@ public class Display extends javax.swing.JPanel {
         jButton4.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                order.setTime(LocalTime.now());
-                order.setDate(LocalDate.now());
-                orders.add(order);
-                order = new Order();
-                jTextArea2.setText("");
-                StringJoiner joiner =
-                        new StringJoiner(System.lineSeparator() + System.lineSeparator());
-                for (Order o : orders) {
-                    joiner.add(o.toString());
-                }
-                jTextArea1.setText(joiner.toString());
+                showPlaced(orderService.confirm(order));
+                order = orderService.create(null);
+                currentOrder.clear();
             }
         });
 
-        jTextArea2.setBackground(new java.awt.Color(255, 204, 204));
-        jTextArea2.setForeground(new java.awt.Color(0, 0, 0));
+        jList2.setBackground(new java.awt.Color(255, 204, 204));
+        jList2.setForeground(new java.awt.Color(0, 0, 0));
 
-        jTextArea1.setText("Your placed orders will appear here.");
-        jTextArea2.setColumns(100);
-        jTextArea2.setRows(500);
+        placedOrders.add(null, new String[] {"Your placed orders will appear here."});
+        setFixedCellSize(jList2);
 
-        jScrollPane2.setViewportView(jTextArea2);
-        jTextArea2.getAccessibleContext().setAccessibleParent(jTextArea2);
+        jScrollPane2.setViewportView(jList2);
+        jList2.getAccessibleContext().setAccessibleParent(jList2);
 
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
         jPanel1.setLayout(jPanel1Layout);
@@ -250,9 +393,8 @@ public class Display extends javax.swing.JPanel {
 
 
         // Sets the combo list to be the list of toppings
-        toppingsComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(
-                // get array of string which are the names from Topping values()
-                Arrays.stream(Topping.values()).map(Topping::toString).toArray(String[]::new)));
+        // filled once the menu has loaded
+        toppingsComboBox.setModel(toppingItems);
 
         clearToppingButton.setActionCommand("cancelMenuItemButton");
         clearToppingButton.setBackground(new java.awt.Color(255, 102, 102));
@@ -759,6 +901,84 @@ public class Display extends javax.swing.JPanel {
 
         jTabbedPane1.addTab("Create Pizza", jPanel23);
 
+        jTabbedPane1.addTab("Select Pizza", jPanel25);
+
+        jTabbedPane1.addTab("Orders Placed", jPanel22);
+        // the other tabs are only built the first time they are selected
+        jTabbedPane1.addChangeListener(e -> buildSelectedTab());
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
+        this.setLayout(layout);
+        layout.setHorizontalGroup(
+                layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                        .addGroup(layout.createSequentialGroup()
+                                .addContainerGap()
+                                .addComponent(jTabbedPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 564, javax.swing.GroupLayout.PREFERRED_SIZE)
+                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                                .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                                .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+        );
+        layout.setVerticalGroup(
+                layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                        .addGroup(layout.createSequentialGroup()
+                                .addContainerGap()
+                                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
+                                        .addComponent(jTabbedPane1)
+                                        .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, 0, Short.MAX_VALUE))
+                                .addContainerGap(8, Short.MAX_VALUE))
+        );
+        frame.add(this);
+        toppingLabels = new JLabel[] {
+                toppingLabel1, toppingLabel2, toppingLabel3, toppingLabel4, toppingLabel5
+        };
+        toppingButtons = new JButton[] {
+                toppingXButton1, toppingXButton2, toppingXButton3, toppingXButton4, toppingXButton5
+        };
+        updateToppingsLabelAndButton();
+        frame.setVisible(true);
+    }// </editor-fold>
+
+    /* builds the Select Pizza tab, which holds the menu */
+    private void initSelectTab() {
+        jPanel26 = new javax.swing.JPanel();
+        jComboBox3 = new javax.swing.JComboBox<>();
+        button5 = new java.awt.Button();
+        button6 = new java.awt.Button();
+        jLabel33 = new javax.swing.JLabel();
+        selectPrice = new javax.swing.JLabel();
+        jPanel27 = new javax.swing.JPanel();
+        jPanel28 = new javax.swing.JPanel();
+        jPanel29 = new javax.swing.JPanel();
+        selectMozzerallaRadioButton = new javax.swing.JRadioButton();
+        selectMozzerallaRadioButton.setSelected(true);
+        selectVeganRadioButton = new javax.swing.JRadioButton();
+        selectNoneCheeseRadioButton = new javax.swing.JRadioButton();
+        jLabel35 = new javax.swing.JLabel();
+        jLabel36 = new javax.swing.JLabel();
+        jLabel37 = new javax.swing.JLabel();
+        jPanel30 = new javax.swing.JPanel();
+        jPanel31 = new javax.swing.JPanel();
+        selectTomatoRadioButton = new javax.swing.JRadioButton();
+        selectTomatoRadioButton.setSelected(true);
+        selectBBQRadioButton = new javax.swing.JRadioButton();
+        selectGarlicRadioButton = new javax.swing.JRadioButton();
+        selectNoneSauceRadioButton = new javax.swing.JRadioButton();
+        jLabel38 = new javax.swing.JLabel();
+        jLabel39 = new javax.swing.JLabel();
+        jLabel40 = new javax.swing.JLabel();
+        jLabel41 = new javax.swing.JLabel();
+        jPanel32 = new javax.swing.JPanel();
+        jPanel33 = new javax.swing.JPanel();
+        jLabel42 = new javax.swing.JLabel();
+        jLabel43 = new javax.swing.JLabel();
+        jLabel44 = new javax.swing.JLabel();
+        selectSmallRadioButton = new javax.swing.JRadioButton();
+        selectMediumRadioButton = new javax.swing.JRadioButton();
+        selectMediumRadioButton.setSelected(true);
+        selectLargeRadioButton = new javax.swing.JRadioButton();
+        selectSizePrice = new javax.swing.JLabel();
+        jLabel46 = new javax.swing.JLabel();
+
         jPanel25.setBackground(new java.awt.Color(255, 255, 102));
         jPanel25.setBorder(javax.swing.BorderFactory.createTitledBorder(null, "Choose a Pizza from the menu", javax.swing.border.TitledBorder.LEFT, javax.swing.border.TitledBorder.DEFAULT_POSITION, new java.awt.Font("Helvetica Neue", 0, 13), new java.awt.Color(0, 0, 0))); // NOI18N
 
@@ -767,16 +987,11 @@ public class Display extends javax.swing.JPanel {
 
         jComboBox3.setBackground(new java.awt.Color(153, 255, 153));
 
-        jComboBox3.setModel(new javax.swing.DefaultComboBoxModel<>(
-                menu.getItems().stream().map(MenuItem::getName).toArray(String[]::new)));
+        jComboBox3.setModel(menuItems);
 
         jComboBox3.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
 
-                String selected = (String) jComboBox3.getSelectedItem(); // get the selected item
-                //  gets the selected menUItem from the list of Menu Items in the menu
-                MenuItem mu = menu.getItems().stream().filter((menu.MenuItem t)
-                        -> t.getName().equals(selected)).findFirst().get();
                 Bases.BaseSize size = Bases.BaseSize.MEDIUM;
                 if (selectMediumRadioButton.isSelected()) {
                     size = Bases.BaseSize.MEDIUM;
@@ -785,10 +1000,7 @@ public class Display extends javax.swing.JPanel {
                 } else if (selectLargeRadioButton.isSelected()) {
                     size = Bases.BaseSize.LARGE;
                 }
-                ((Pizza)mu).set(size);
-                String sel = mu.toString(); // get the first item that matches the selected item
-                selectPrice.setText(String.format("$%.2f",mu.getTotalPrice()));
-                jComboBox3ActionPerformed(sel);
+                jComboBox3ActionPerformed((MenuItemView) jComboBox3.getSelectedItem(), size);
             }
         });
 
@@ -858,40 +1070,30 @@ public class Display extends javax.swing.JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 selectSizePrice.setText(String.format("$%.2f", Bases.BaseSize.SMALL.getPrice()));
-                String selected = (String) jComboBox3.getSelectedItem();
-
-                //  gets the selected menUItem from the list of Menu Items in the menu
-                MenuItem mu = menu.getItems().stream().filter((menu.MenuItem t)
-                        -> t.getName().equals(selected)).findFirst().get();
-                ((Pizza)mu).set(Bases.BaseSize.SMALL);
-                selectPrice.setText(String.format("$%.2f",mu.getTotalPrice()));
-
+                MenuItemView selected = (MenuItemView) jComboBox3.getSelectedItem();
+                if (selected != null) {
+                    selectPrice.setText(selected.getPriceLabel(Bases.BaseSize.SMALL));
+                }
             }
         });
         selectMediumRadioButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
                 selectSizePrice.setText(String.format("$%.2f", Bases.BaseSize.MEDIUM.getPrice()));
-                String selected = (String) jComboBox3.getSelectedItem();
-
-                //  gets the selected menUItem from the list of Menu Items in the menu
-                MenuItem mu = menu.getItems().stream().filter((menu.MenuItem t)
-                        -> t.getName().equals(selected)).findFirst().get();
-                ((Pizza)mu).set(Bases.BaseSize.MEDIUM);
-                selectPrice.setText(String.format("$%.2f",mu.getTotalPrice()));
+                MenuItemView selected = (MenuItemView) jComboBox3.getSelectedItem();
+                if (selected != null) {
+                    selectPrice.setText(selected.getPriceLabel(Bases.BaseSize.MEDIUM));
+                }
             }
         });
         selectLargeRadioButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
                 selectSizePrice.setText(String.format("$%.2f", Bases.BaseSize.LARGE.getPrice()));
-                String selected = (String) jComboBox3.getSelectedItem();
-
-                //  gets the selected menUItem from the list of Menu Items in the menu
-                MenuItem mu = menu.getItems().stream().filter((menu.MenuItem t)
-                        -> t.getName().equals(selected)).findFirst().get();
-                ((Pizza)mu).set(Bases.BaseSize.LARGE);
-                selectPrice.setText(String.format("$%.2f",mu.getTotalPrice()));
+                MenuItemView selected = (MenuItemView) jComboBox3.getSelectedItem();
+                if (selected != null) {
+                    selectPrice.setText(selected.getPriceLabel(Bases.BaseSize.LARGE));
+                }
             }
         });
 
@@ -1219,16 +1421,21 @@ public class Display extends javax.swing.JPanel {
                                 .addComponent(jPanel26, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                                 .addContainerGap(213, Short.MAX_VALUE))
         );
+        jPanel25.revalidate();
+    }
 
-        jTabbedPane1.addTab("Select Pizza", jPanel25);
+    /* builds the Orders Placed tab */
+    private void initPlacedTab() {
+        jPanel2 = new javax.swing.JPanel();
+        jScrollPane1 = new javax.swing.JScrollPane();
+        jList1 = new javax.swing.JList<>(placedOrders);
 
         jPanel2.setBackground(new java.awt.Color(255, 255, 255));
         jPanel2.setBorder(javax.swing.BorderFactory.createTitledBorder(javax.swing.BorderFactory.createTitledBorder(""), "Orders Placed"));
 
-        jTextArea1.setBackground(new java.awt.Color(153, 255, 204));
-        jTextArea1.setColumns(20);
-        jTextArea1.setRows(5);
-        jScrollPane1.setViewportView(jTextArea1);
+        jList1.setBackground(new java.awt.Color(153, 255, 204));
+        setFixedCellSize(jList1);
+        jScrollPane1.setViewportView(jList1);
 
         javax.swing.GroupLayout jPanel2Layout = new javax.swing.GroupLayout(jPanel2);
         jPanel2.setLayout(jPanel2Layout);
@@ -1257,38 +1464,18 @@ public class Display extends javax.swing.JPanel {
                                 .addComponent(jPanel2, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                                 .addContainerGap())
         );
+        jPanel22.revalidate();
+    }
 
-        jTabbedPane1.addTab("Orders Placed", jPanel22);
-
-        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
-        this.setLayout(layout);
-        layout.setHorizontalGroup(
-                layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
-                        .addGroup(layout.createSequentialGroup()
-                                .addContainerGap()
-                                .addComponent(jTabbedPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 564, javax.swing.GroupLayout.PREFERRED_SIZE)
-                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
-                                .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
-                                .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
-        );
-        layout.setVerticalGroup(
-                layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
-                        .addGroup(layout.createSequentialGroup()
-                                .addContainerGap()
-                                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
-                                        .addComponent(jTabbedPane1)
-                                        .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, 0, Short.MAX_VALUE))
-                                .addContainerGap(8, Short.MAX_VALUE))
-        );
-        frame.add(this);
-        toppingLabels = new JLabel[] {
-                toppingLabel1, toppingLabel2, toppingLabel3, toppingLabel4, toppingLabel5
-        };
-        toppingButtons = new JButton[] {
-                toppingXButton1, toppingXButton2, toppingXButton3, toppingXButton4, toppingXButton5
-        };
-        updateToppingsLabelAndButton();
-    }// </editor-fold>
+    /* builds the selected tab if this is the first time it has been selected */
+    private void buildSelectedTab() {
+        java.awt.Component selected = jTabbedPane1.getSelectedComponent();
+        if (selected == jPanel25 && jComboBox3 == null) {
+            initSelectTab();
+        } else if (selected == jPanel22 && jList1 == null) {
+            initPlacedTab();
+        }
+    }
 
     private void clearToppingActionPerformed(java.awt.event.ActionEvent evt) {
         toppings.clear();
@@ -1322,14 +1509,14 @@ public class Display extends javax.swing.JPanel {
         } else if (createNoneSauceRadioButton.isSelected()) {
             sauce = Sauces.Sauce.NONE;
         }
-        CustomPizza pizza = new CustomPizza(size, sauce, cheese);
+        Pizza pizza;
         try {
-            pizza.add(toppings);
+            pizza = orderService.addCustomPizza(order, size, sauce, cheese, toppings);
         } catch (TooManyToppingsException e) {
             e.printStackTrace();
+            return;
         }
-        order.add(pizza);
-        updateCurrentOrder(pizza.toString()+"\n");
+        currentOrder.add(pizza);
         toppings.clear();
         updateToppingsLabelAndButton();
     }
@@ -1366,6 +1553,10 @@ public class Display extends javax.swing.JPanel {
             return;
         }
         String toppingName = (String) toppingsComboBox.getSelectedItem();
+        if (toppingName == null) {
+            // the toppings haven't loaded yet
+            return;
+        }
         try {
             toppings.add(Topping.valueOf(toppingName));
         } catch (Exception e) {
@@ -1376,43 +1567,31 @@ public class Display extends javax.swing.JPanel {
     }
 
     /**
-     * Action method for comboBox3, takes a String for the text to be changed
+     * Action method for comboBox3, shows the selected menu item
      *
-     * @param text String
+     * @param selected view of the selected menu item, or null if nothing is selected
+     * @param size selected base size
      *
      */
-    private void jComboBox3ActionPerformed(String text) {
-        menuItemSelection = text; // set the global variable for use when button is clicked
-
-        text = text.replace("[MenuPizza]", "");
-
-        String name = text.substring(0, text.indexOf(":"));
-        String price = text.substring(text.indexOf("$") - 1);
-        String toppings = "";
-        try {
-            toppings = text.substring(text.indexOf("[") + 1, text.indexOf("]"));
-        }catch (StringIndexOutOfBoundsException ignored) {
-            // no toppings
+    private void jComboBox3ActionPerformed(MenuItemView selected, Bases.BaseSize size) {
+        if (selected == null) {
+            return;
         }
-        selectPrice.setText(price);
-        jLabel33.setText(String.format("%s : %s", name, toppings));
+        selectPrice.setText(selected.getPriceLabel(size));
+        jLabel33.setText(selected.getName() + " : " + selected.getToppingsLabel());
     }
 
     private void button5ActionPerformed(java.awt.event.ActionEvent evt) {
-        jTextArea2.setText("");
-        order = new Order();
+        currentOrder.clear();
+        orderService.cancel(order);
+        order = orderService.create(null);
     }
 
-    private String menuItemSelection = null;
-
-    Order order = new Order();
-    List<Order> orders = new ArrayList<>();
     private void selectAddPizzaButtonActionListener(java.awt.event.ActionEvent evt) {
-        String selected = (String) jComboBox3.getSelectedItem();
-
-        //  gets the selected menUItem from the list of Menu Items in the menu
-        MenuItem mu = menu.getItems().stream().filter((menu.MenuItem t)
-                -> t.getName().equals(selected)).findFirst().get();
+        MenuItemView selected = (MenuItemView) jComboBox3.getSelectedItem();
+        if (selected == null) {
+            return;
+        }
         Bases.BaseSize size = Bases.BaseSize.MEDIUM;
         if (selectMediumRadioButton.isSelected()) {
             size = Bases.BaseSize.MEDIUM;
@@ -1439,13 +1618,10 @@ public class Display extends javax.swing.JPanel {
         } else if (selectNoneSauceRadioButton.isSelected()) {
             sauce = Sauces.Sauce.NONE;
         }
-        // add mu to order
-        Pizza pizza = (Pizza) mu;
-        pizza.set(size);
-        pizza.set(sauce);
-        pizza.set(cheese);
-        order.add(pizza);
-        updateCurrentOrder(pizza.toString()+"\n");
+        // adds a copy of the menu pizza with the selected options, leaving the menu pizza unchanged
+        Pizza pizza = orderService.addMenuPizza(order, (MenuPizza) selected.getItem(), size,
+                sauce, cheese);
+        currentOrder.add(pizza);
     }
 
     private void toppingXButton1ActionPerformed(java.awt.event.ActionEvent evt) {
@@ -1470,11 +1646,34 @@ public class Display extends javax.swing.JPanel {
     }
 
     /**
-     * adds the order String (representing the entire order)
-     * to the Text area (Current Order)
+     * renders the receipt of a placed order on the receipt thread, then adds it to the end
+     * of the placed orders list (Orders Placed)
+     */
+    private void showPlaced(Order placed) {
+        int generation = placedGeneration;
+        receiptRenderer.execute(() -> {
+            String[] lines = ReceiptListModel.render(placed);
+            SwingUtilities.invokeLater(() -> {
+                if (generation != placedGeneration) {
+                    return;
+                }
+                if (placedOrders.getOrderCount() > 0 && placedOrders.getOrderAt(0) == null) {
+                    // remove the placeholder
+                    placedOrders.clear();
+                }
+                placedOrders.add(placed, lines);
+            });
+        });
+    }
+
+    /**
+     * gives every row of an order list the same size, about 100 characters wide and one
+     * line high, so the list never has to measure rows that can't be seen
      */
-    private void updateCurrentOrder(String order) {
-        jTextArea2.insert(order.toString(), 0);
+    private static void setFixedCellSize(javax.swing.JList<?> list) {
+        java.awt.FontMetrics metrics = list.getFontMetrics(list.getFont());
+        list.setFixedCellWidth(metrics.charWidth('m') * 100);
+        list.setFixedCellHeight(metrics.getHeight());
     }
 
     // Variables declaration - do not modify
@@ -1497,7 +1696,7 @@ public class Display extends javax.swing.JPanel {
     private javax.swing.JButton toppingXButton4;
     private javax.swing.JButton toppingXButton5;
     private javax.swing.JComboBox<String> toppingsComboBox;
-    private javax.swing.JComboBox<String> jComboBox3;
+    private javax.swing.JComboBox<MenuItemView> jComboBox3;
     private javax.swing.JLabel toppingLabel1;
     private javax.swing.JLabel createSizePrice;
     private javax.swing.JLabel jLabel11;
@@ -1575,8 +1774,8 @@ public class Display extends javax.swing.JPanel {
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JScrollPane jScrollPane2;
     private javax.swing.JTabbedPane jTabbedPane1;
-    private javax.swing.JTextArea jTextArea1;
-    private javax.swing.JTextArea jTextArea2;
+    private javax.swing.JList<String> jList1;
+    private javax.swing.JList<Pizza> jList2;
 
     private JLabel[] toppingLabels;
     private JButton[] toppingButtons;
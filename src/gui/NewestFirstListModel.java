@@ -0,0 +1,61 @@
+package gui;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List model that shows the most recently added element first. Elements are stored in the
+ * order they were added, so adding one never has to move the others. Like other Swing models
+ * it must only be changed on the event dispatch thread.
+ * @param <E> type of the elements
+ */
+public class NewestFirstListModel<E> extends AbstractListModel<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Elements in the order they were added
+     */
+    private final List<E> elements = new ArrayList<>();
+
+    /**
+     * Adds an element to the top of the list
+     * @param element element to be added
+     */
+    public void add(E element) {
+        elements.add(element);
+        fireIntervalAdded(this, 0, 0);
+    }
+
+    /**
+     * Removes every element from the list
+     */
+    public void clear() {
+        int removed = elements.size();
+        elements.clear();
+        if (removed > 0) {
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+    }
+
+    /**
+     * Returns the number of elements
+     * @return number of elements
+     */
+    @Override
+    public int getSize() {
+        return elements.size();
+    }
+
+    /**
+     * Returns an element, counting from the most recently added
+     * @param index index of the element, where 0 is the newest
+     * @return the element
+     * @throws IndexOutOfBoundsException if the index doesn't exist
+     */
+    @Override
+    public E getElementAt(int index) throws IndexOutOfBoundsException {
+        return elements.get(elements.size() - 1 - index);
+    }
+}
@@ -0,0 +1,149 @@
+package gui;
+
+import menu.Order;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * List model with one row for each line of a list of order receipts, so that a JList with a
+ * fixed cell size only has to render the lines that can be seen.
+ * <p>
+ * Receipts are rendered into lines before they are added, which can be done off the event
+ * dispatch thread, and adding an order only notifies the list of the new rows. Like other
+ * Swing models it must only be changed on the event dispatch thread.
+ */
+public class ReceiptListModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of blank lines after each receipt
+     */
+    private static final int BLANK_LINES = 2;
+
+    /**
+     * Orders in the order they were added
+     */
+    private final List<Order> orders = new ArrayList<>();
+
+    /**
+     * Lines of each order's receipt
+     */
+    private final List<String[]> receipts = new ArrayList<>();
+
+    /**
+     * Row of the first line of each receipt
+     */
+    private int[] firstRows = new int[16];
+
+    /**
+     * Total number of rows
+     */
+    private int rows;
+
+    /**
+     * Renders an order into the lines of its receipt, which can be called from any thread
+     * as long as the order is no longer being changed
+     * @param order order to be rendered
+     * @return lines of the receipt
+     */
+    public static String[] render(Order order) {
+        String receipt = order.toString();
+        String lineSeparator = System.lineSeparator();
+        if (receipt.endsWith(lineSeparator)) {
+            receipt = receipt.substring(0, receipt.length() - lineSeparator.length());
+        }
+        return receipt.split(Pattern.quote(lineSeparator), -1);
+    }
+
+    /**
+     * Adds an order to the end of the list
+     * @param order order being added, or null for lines that aren't a receipt, such as a
+     * placeholder
+     * @param lines lines of the order's receipt, from {@link #render(Order)}
+     */
+    public void add(Order order, String[] lines) {
+        int count = orders.size();
+        if (count == firstRows.length) {
+            firstRows = Arrays.copyOf(firstRows, count * 2);
+        }
+        orders.add(order);
+        receipts.add(lines);
+        firstRows[count] = rows;
+        int first = rows;
+        rows += lines.length + BLANK_LINES;
+        fireIntervalAdded(this, first, rows - 1);
+    }
+
+    /**
+     * Removes every order from the list
+     */
+    public void clear() {
+        int removed = rows;
+        orders.clear();
+        receipts.clear();
+        rows = 0;
+        if (removed > 0) {
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+    }
+
+    /**
+     * Returns the number of orders in the list
+     * @return number of orders
+     */
+    public int getOrderCount() {
+        return orders.size();
+    }
+
+    /**
+     * Returns the order that a row is part of
+     * @param row index of the row
+     * @return the order shown on that row, which is null if the lines aren't a receipt
+     * @throws IndexOutOfBoundsException if the row doesn't exist
+     */
+    public Order getOrderAt(int row) throws IndexOutOfBoundsException {
+        return orders.get(receiptAt(row));
+    }
+
+    /**
+     * Returns the number of rows
+     * @return number of rows
+     */
+    @Override
+    public int getSize() {
+        return rows;
+    }
+
+    /**
+     * Returns the text of a row
+     * @param row index of the row
+     * @return line of a receipt, or an empty string for the gap between receipts
+     * @throws IndexOutOfBoundsException if the row doesn't exist
+     */
+    @Override
+    public String getElementAt(int row) throws IndexOutOfBoundsException {
+        int receipt = receiptAt(row);
+        String[] lines = receipts.get(receipt);
+        int line = row - firstRows[receipt];
+        return line < lines.length ? lines[line] : "";
+    }
+
+    /**
+     * Returns the index of the receipt that a row is part of
+     * @param row index of the row
+     * @return index of the receipt
+     * @throws IndexOutOfBoundsException if the row doesn't exist
+     */
+    private int receiptAt(int row) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds");
+        }
+        int index = Arrays.binarySearch(firstRows, 0, orders.size(), row);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,107 @@
+package gui;
+
+import javax.swing.SwingUtilities;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how long the application takes to start, from when the JVM started until the
+ * first frame is painted and until the menu has loaded and can be used.
+ * <p>
+ * The times are only printed when the {@value #PROPERTY} system property is set, for
+ * example with {@code java -Dpizza.startup.timing=true gui.StartupTimer}. Setting it to
+ * {@code exit} also closes the application once it is interactive, so startup can be timed
+ * repeatedly from a script.
+ */
+public final class StartupTimer {
+
+    /**
+     * System property that turns on the startup timing
+     */
+    public static final String PROPERTY = "pizza.startup.timing";
+
+    /**
+     * Milliseconds after the JVM started that the first frame was painted, or -1
+     */
+    private static volatile long firstFrameMillis = -1;
+
+    /**
+     * Milliseconds after the JVM started that the application became interactive, or -1
+     */
+    private static volatile long interactiveMillis = -1;
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private StartupTimer() {
+    }
+
+    /**
+     * Starts the application with startup timing turned on if it hasn't been set
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        if (System.getProperty(PROPERTY) == null) {
+            System.setProperty(PROPERTY, "true");
+        }
+        SwingUtilities.invokeLater(Display::new);
+    }
+
+    /**
+     * Records that the first frame has been painted, only the first call has any effect
+     */
+    static void firstFrame() {
+        if (firstFrameMillis < 0) {
+            firstFrameMillis = uptime();
+            report("time-to-first-frame", firstFrameMillis);
+        }
+    }
+
+    /**
+     * Records that the menu has loaded and the application can be used, only the first call
+     * has any effect
+     */
+    static void interactive() {
+        if (interactiveMillis < 0) {
+            interactiveMillis = uptime();
+            report("time-to-interactive", interactiveMillis);
+            if ("exit".equals(System.getProperty(PROPERTY))) {
+                System.exit(0);
+            }
+        }
+    }
+
+    /**
+     * Returns the milliseconds after the JVM started that the first frame was painted
+     * @return time to the first frame, or -1 if it hasn't been painted
+     */
+    public static long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /**
+     * Returns the milliseconds after the JVM started that the application became interactive
+     * @return time to interactive, or -1 if it isn't interactive yet
+     */
+    public static long getInteractiveMillis() {
+        return interactiveMillis;
+    }
+
+    /**
+     * Prints a startup time if timing is turned on
+     * @param name name of the time
+     * @param millis milliseconds after the JVM started
+     */
+    private static void report(String name, long millis) {
+        if (System.getProperty(PROPERTY) != null) {
+            System.out.println(name + ": " + millis + " ms");
+        }
+    }
+
+    /**
+     * Returns the milliseconds since the JVM started
+     * @return JVM uptime
+     */
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
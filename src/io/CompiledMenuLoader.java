@@ -0,0 +1,130 @@
+package io;
+
+import exceptions.PizzaFormatException;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Loads menus written by {@link MenuCompiler}, which only requires the toppings and pizzas
+ * to be created as no text has to be parsed or validated.
+ */
+final class CompiledMenuLoader {
+
+    private CompiledMenuLoader() {
+
+    }
+
+    /**
+     * Loads a compiled menu into the Menu if it is up to date with its text file. Nothing is
+     * added to the menu if the compiled menu is missing, out of date or damaged.
+     * @param source menu text file the compiled menu was created from
+     * @param compiled compiled menu
+     * @return Menu that has all of the pizzas loaded from the compiled menu, or null if it
+     * could not be used
+     * @throws PizzaFormatException if a topping in the compiled menu already exists
+     * @throws TooManyToppingsException if a pizza in the compiled menu has too many toppings
+     * @throws IOException if an error occurs when trying to read either file
+     */
+    static Menu load(Path source, Path compiled)
+            throws PizzaFormatException, TooManyToppingsException, IOException {
+        ByteBuffer buffer;
+        try {
+            buffer = MenuLoader.map(compiled);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        if (!isCurrent(buffer, attributes.size(), attributes.lastModifiedTime().toMillis())) {
+            return null;
+        }
+        try {
+            return getMenu(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                | NegativeArraySizeException e) {
+            // Only possible if the file was written incorrectly, as the checksum matched
+            throw new IOException("Compiled menu is damaged: " + compiled);
+        }
+    }
+
+    /**
+     * Returns whether a compiled menu is complete and was compiled from a text file with the
+     * given size and modification time
+     * @param buffer contents of the compiled menu
+     * @param sourceSize size of the text file
+     * @param sourceModified last modified time of the text file in milliseconds
+     * @return true if the compiled menu can be loaded in place of the text file
+     */
+    static boolean isCurrent(ByteBuffer buffer, long sourceSize, long sourceModified) {
+        int length = buffer.limit() - MenuCompiler.CHECKSUM_SIZE;
+        if (length < MenuCompiler.HEADER_SIZE
+                || buffer.getInt(0) != MenuCompiler.MAGIC
+                || buffer.getInt(4) != MenuCompiler.VERSION
+                || buffer.getLong(8) != sourceSize
+                || buffer.getLong(16) != sourceModified) {
+            return false;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(0).limit(length));
+        return (int) checksum.getValue() == buffer.getInt(length);
+    }
+
+    /**
+     * Creates the toppings and pizzas in a compiled menu, which must be current
+     * @param buffer contents of the compiled menu
+     * @return Menu that has all of the pizzas loaded from the compiled menu
+     * @throws PizzaFormatException if a topping already exists
+     * @throws TooManyToppingsException if a pizza has too many toppings
+     */
+    private static Menu getMenu(ByteBuffer buffer)
+            throws PizzaFormatException, TooManyToppingsException {
+        buffer.position(MenuCompiler.HEADER_SIZE);
+
+        Topping[] toppings = new Topping[buffer.getInt()];
+        for (int i = 0; i < toppings.length; i++) {
+            boolean isVegan = buffer.get() != 0;
+            int lineNum = buffer.getInt();
+            String name = getName(buffer);
+            if (!Topping.tryCreateTopping(name, isVegan)) {
+                // Report it on the line it was listed on in the text file
+                throw new PizzaFormatException("Null or duplicate topping name", lineNum);
+            }
+            toppings[i] = Topping.valueOf(name);
+        }
+
+        int numPizzas = buffer.getInt();
+        for (int i = 0; i < numPizzas; i++) {
+            String name = getName(buffer);
+            int count = buffer.getShort();
+            List<Topping> pizzaToppings = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                pizzaToppings.add(toppings[buffer.getInt()]);
+            }
+            MenuLoader.createPizza(name, pizzaToppings);
+        }
+        return Menu.getInstance();
+    }
+
+    /**
+     * Reads a name written as its UTF-8 byte length followed by its bytes
+     * @param buffer buffer positioned at the name
+     * @return the name
+     */
+    private static String getName(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
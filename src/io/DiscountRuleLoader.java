@@ -0,0 +1,228 @@
+package io;
+
+import exceptions.PizzaFormatException;
+import menu.DiscountRule;
+import menu.DiscountRules;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Topping;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Loads discount rules from a text file and compiles them, see {@link DiscountRules}.
+ * <p>
+ * Each line is one rule: its name, then fields separated by {@code |}, each a key and a
+ * value separated by {@code =}. Blank lines and lines starting with {@code #} are skipped.
+ * <pre>
+ * Multi item discount | pizzas=3 | percent=10
+ * Large pair | pizzas=2 | size=LARGE | cents=500
+ * Hawaiian bundle | toppings=ham, pineapple | percent=5
+ * Happy hour | pizzas=1 | times=16:00-18:00 | percent=20 | cents=100
+ * </pre>
+ * The fields are:
+ * <ul>
+ *     <li>{@code pizzas}: minimum number of pizzas in the order, 0 if not given</li>
+ *     <li>{@code size}: size of the pizzas counted towards the minimum</li>
+ *     <li>{@code toppings}: toppings separated by commas that must all be in the order,
+ *     which must already have been created</li>
+ *     <li>{@code times}: start and end of the time of day the rule applies</li>
+ *     <li>{@code percent}: percentage taken off the order total</li>
+ *     <li>{@code cents}: amount taken off the order total in cents</li>
+ * </ul>
+ * Each field can be given at most once.
+ */
+public final class DiscountRuleLoader {
+
+    /**
+     * Separates the name and fields of a rule
+     */
+    private static final String FIELD_SEPARATOR = "\\|";
+
+    private DiscountRuleLoader() {
+
+    }
+
+    /**
+     * Loads and compiles the discount rules in a UTF-8 encoded file
+     * @param path file to be read
+     * @return the compiled rules
+     * @throws IOException if the file could not be read
+     * @throws PizzaFormatException if a line isn't a valid rule
+     */
+    public static DiscountRules load(Path path) throws IOException, PizzaFormatException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads and compiles discount rules
+     * @param reader Buffered reader used to read the rules
+     * @return the compiled rules
+     * @throws IOException if a line could not be read
+     * @throws PizzaFormatException if a line isn't a valid rule
+     */
+    public static DiscountRules read(BufferedReader reader)
+            throws IOException, PizzaFormatException {
+        List<DiscountRule> rules = new ArrayList<>();
+        int lineNum = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNum++;
+            String trimmed = line.strip();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                rules.add(parseRule(trimmed, lineNum));
+            }
+        }
+        return DiscountRules.compile(rules);
+    }
+
+    /**
+     * Parses a single rule
+     * @param line line holding the rule, without surrounding whitespace
+     * @param lineNum line number of the rule
+     * @return the rule
+     * @throws PizzaFormatException if the line isn't a valid rule
+     */
+    private static DiscountRule parseRule(String line, int lineNum) throws PizzaFormatException {
+        String[] fields = line.split(FIELD_SEPARATOR, -1);
+        String name = fields[0].strip();
+        if (name.isEmpty()) {
+            throw new PizzaFormatException("Missing rule name", lineNum);
+        }
+        Set<String> seen = new HashSet<>();
+        int minPizzas = 0;
+        int percentOff = 0;
+        long centsOff = 0;
+        Bases.BaseSize size = null;
+        List<Topping> toppings = List.of();
+        LocalTime start = null;
+        LocalTime end = null;
+        for (int i = 1; i < fields.length; i++) {
+            int equals = fields[i].indexOf('=');
+            if (equals < 0) {
+                throw new PizzaFormatException("Missing = in rule field", lineNum);
+            }
+            String key = fields[i].substring(0, equals).strip().toLowerCase(Locale.ROOT);
+            String value = fields[i].substring(equals + 1).strip();
+            if (!seen.add(key)) {
+                throw new PizzaFormatException("Repeated rule field " + key, lineNum);
+            }
+            switch (key) {
+                case "pizzas":
+                    minPizzas = (int) parseNumber(value, Integer.MAX_VALUE, lineNum);
+                    break;
+                case "percent":
+                    percentOff = (int) parseNumber(value, 100, lineNum);
+                    break;
+                case "cents":
+                    centsOff = parseNumber(value, Long.MAX_VALUE, lineNum);
+                    break;
+                case "size":
+                    size = parseSize(value, lineNum);
+                    break;
+                case "toppings":
+                    toppings = parseToppings(value, lineNum);
+                    break;
+                case "times":
+                    String[] times = value.split("-", -1);
+                    if (times.length != 2) {
+                        throw new PizzaFormatException("Invalid rule times", lineNum);
+                    }
+                    start = parseTime(times[0], lineNum);
+                    end = parseTime(times[1], lineNum);
+                    break;
+                default:
+                    throw new PizzaFormatException("Unknown rule field " + key, lineNum);
+            }
+        }
+        DiscountRule rule = DiscountRule.percentAndCentsOff(name, minPizzas, percentOff, centsOff)
+                .withSize(size)
+                .withToppings(toppings);
+        return start == null ? rule : rule.withTimes(start, end);
+    }
+
+    /**
+     * Parses a whole number that isn't negative
+     * @param value text of the number
+     * @param max largest value allowed
+     * @param lineNum line number of the rule
+     * @return the number
+     * @throws PizzaFormatException if the value isn't a number from 0 to the maximum
+     */
+    private static long parseNumber(String value, long max, int lineNum)
+            throws PizzaFormatException {
+        try {
+            long number = Long.parseLong(value);
+            if (number >= 0 && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new PizzaFormatException("Invalid rule number " + value, lineNum);
+    }
+
+    /**
+     * Parses the name of a pizza size, ignoring case
+     * @param value name of the size
+     * @param lineNum line number of the rule
+     * @return the size
+     * @throws PizzaFormatException if there is no size with the name
+     */
+    private static Bases.BaseSize parseSize(String value, int lineNum)
+            throws PizzaFormatException {
+        try {
+            return Bases.BaseSize.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new PizzaFormatException("Invalid rule size " + value, lineNum, e);
+        }
+    }
+
+    /**
+     * Parses a list of topping names separated by commas
+     * @param value topping names
+     * @param lineNum line number of the rule
+     * @return the toppings
+     * @throws PizzaFormatException if a name isn't the name of a created topping
+     */
+    private static List<Topping> parseToppings(String value, int lineNum)
+            throws PizzaFormatException {
+        List<Topping> toppings = new ArrayList<>();
+        for (String name : value.split(",", -1)) {
+            String trimmed = name.strip();
+            Topping topping = Topping.find(trimmed, 0, trimmed.length());
+            if (topping == null) {
+                throw new PizzaFormatException("Invalid topping name", lineNum);
+            }
+            toppings.add(topping);
+        }
+        return toppings;
+    }
+
+    /**
+     * Parses a time of day written as hours and minutes
+     * @param value text of the time, such as 16:30
+     * @param lineNum line number of the rule
+     * @return the time
+     * @throws PizzaFormatException if the value isn't a time
+     */
+    private static LocalTime parseTime(String value, int lineNum) throws PizzaFormatException {
+        try {
+            return LocalTime.parse(value.strip());
+        } catch (DateTimeParseException e) {
+            throw new PizzaFormatException("Invalid rule times", lineNum, e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io;
+
+import exceptions.TooManyToppingsException;
+import menu.Order;
+import pizza.CustomPizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark that appends orders to an {@link OrderJournal} with each sync policy and reports
+ * the sustained orders per second and the latency of each append.
+ * <p>
+ * Usage: {@code JournalBenchmark [clients] [orders] [directory]}. Each of {@code clients}
+ * threads appends an order and waits for it to be written before appending the next, as a
+ * till waits for an order to be saved before printing its receipt. The journals are made in
+ * {@code directory}, the temporary directory if not given, and deleted afterwards. A
+ * temporary directory held in memory makes syncing free, so give a directory on the storage
+ * device the journal is really kept on.
+ */
+public final class JournalBenchmark {
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private JournalBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args optionally the number of concurrent clients, the number of orders and the
+     * directory the journals are made in
+     * @throws IOException if a journal can't be made, written or deleted
+     * @throws InterruptedException if interrupted while waiting for the clients
+     * @throws TooManyToppingsException never, as each pizza has two toppings
+     */
+    public static void main(String[] args)
+            throws IOException, InterruptedException, TooManyToppingsException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        Path directory = args.length > 2 ? Path.of(args[2])
+                : Path.of(System.getProperty("java.io.tmpdir"));
+
+        Topping.tryCreateTopping("Benchmark ham", false);
+        Topping.tryCreateTopping("Benchmark pineapple", true);
+        Order order = new Order();
+        order.setName("Journal Test");
+        List<Topping> toppings = List.of(Topping.valueOf("Benchmark ham"),
+                Topping.valueOf("Benchmark pineapple"));
+        order.add(CustomPizza.forOrder(Bases.BaseSize.LARGE, Sauces.Sauce.BBQ,
+                Cheeses.Cheese.MOZZARELLA, toppings));
+        order.add(CustomPizza.forOrder(Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.VEGAN, toppings));
+
+        System.out.printf("clients=%d orders=%d directory=%s%n", clients, count, directory);
+        for (OrderJournal.SyncPolicy policy : OrderJournal.SyncPolicy.values()) {
+            // Syncing each record is far slower, so time fewer of them
+            int policyCount = policy == OrderJournal.SyncPolicy.EACH_RECORD
+                    ? Math.max(clients, count / 10) : count;
+            Path path = Files.createTempFile(directory, "benchmark", ".journal");
+            try {
+                Files.delete(path);
+                // Warm up the journal before measuring
+                run(path, policy, order, clients, Math.min(policyCount, 1000));
+                Files.delete(path);
+
+                long start = System.nanoTime();
+                long[] latencies = run(path, policy, order, clients, policyCount);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                Arrays.sort(latencies);
+                System.out.printf("%s: %.0f orders/s, p50 %.2f ms, p99 %.2f ms (%d orders)%n",
+                        policy, policyCount / seconds,
+                        latencies[latencies.length / 2] / 1e6,
+                        latencies[(int) (latencies.length * 0.99)] / 1e6, policyCount);
+            } finally {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Opens a journal and appends orders to it from several clients at once
+     * @param path journal file, which must not exist
+     * @param policy when the orders are synced
+     * @param order order each client appends
+     * @param clients number of clients appending at once
+     * @param count number of orders to append
+     * @return latency of each append in nanoseconds, until the order had been written
+     * @throws IOException if the journal can't be opened or an order couldn't be written
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    private static long[] run(Path path, OrderJournal.SyncPolicy policy, Order order,
+                              int clients, int count)
+            throws IOException, InterruptedException {
+        long[] latencies = new long[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        try (OrderJournal journal = OrderJournal.open(path, policy)) {
+            Thread[] threads = new Thread[clients];
+            for (int i = 0; i < clients; i++) {
+                threads[i] = new Thread(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < count) {
+                        long start = System.nanoTime();
+                        try {
+                            journal.append(order).join();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - start;
+                    }
+                }, "journal-client-" + i);
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        if (failures.get() > 0) {
+            throw new IOException(failures.get() + " orders could not be written");
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,143 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Menu lines read directly from the bytes of a UTF-8 encoded menu, such as a memory mapped file.
+ * <p>
+ * Lines that only contain ASCII characters are read straight from the buffer. Lines containing
+ * other characters are decoded before they are read.
+ */
+final class MappedMenuLines extends MenuLines {
+
+    /**
+     * Bytes of the menu
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Index in the buffer after the last byte of the menu
+     */
+    private final int limit;
+
+    /**
+     * Index in the buffer of the start of the next line
+     */
+    private int position;
+
+    /**
+     * Index in the buffer of the start of the current line
+     */
+    private int lineStart;
+
+    /**
+     * Length of the current line
+     */
+    private int lineLength;
+
+    /**
+     * Decoded characters of the current line, or null if the line only contains ASCII
+     */
+    private char[] decoded;
+
+    /**
+     * Creates menu lines that are read from the remaining bytes of a buffer
+     * @param buffer bytes of the menu
+     */
+    MappedMenuLines(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    @Override
+    boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+        int end = position;
+        int bits = 0;
+        byte b = 0;
+        while (end < limit) {
+            b = buffer.get(end);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            bits |= b;
+            end++;
+        }
+
+        lineStart = position;
+        lineLength = end - position;
+        decoded = null;
+        // Bytes of non-ASCII characters have the top bit set, so are negative
+        if (bits < 0) {
+            byte[] bytes = new byte[lineLength];
+            buffer.get(lineStart, bytes);
+            decoded = new String(bytes, StandardCharsets.UTF_8).toCharArray();
+        }
+
+        position = end + 1;
+        if (b == '\r' && position < limit && buffer.get(position) == '\n') {
+            position++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index in the buffer of the start of the next line
+     * @return index of the byte after the end of the current line
+     */
+    int position() {
+        return Math.min(position, limit);
+    }
+
+    /**
+     * Returns the number of lines in part of a buffer, counted the same way as
+     * {@link #next()} reads them
+     * @param buffer bytes of a menu
+     * @param start index of the first byte, which must be the start of a line
+     * @param end index after the last byte
+     * @return number of lines
+     */
+    static int countLines(ByteBuffer buffer, int start, int end) {
+        int lines = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                lines++;
+            } else if (b == '\r') {
+                lines++;
+                if (i + 1 < end && buffer.get(i + 1) == '\n') {
+                    i++;
+                }
+            }
+        }
+        byte last = end > start ? buffer.get(end - 1) : (byte) '\n';
+        if (last != '\n' && last != '\r') {
+            lines++;
+        }
+        return lines;
+    }
+
+    @Override
+    public int length() {
+        return decoded == null ? lineLength : decoded.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return decoded == null ? (char) buffer.get(lineStart + index) : decoded[index];
+    }
+
+    @Override
+    public String subSequence(int start, int end) {
+        if (decoded != null) {
+            return new String(decoded, start, end - start);
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(lineStart + start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
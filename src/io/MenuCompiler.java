@@ -0,0 +1,304 @@
+package io;
+
+import exceptions.PizzaFormatException;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import pizza.ingredients.Topping;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Converts pizza menu text files into a compiled binary form that can be loaded without
+ * parsing, see {@link MenuLoader#loadCompiled(String)}.
+ * <p>
+ * A compiled menu is made up of, with every number stored big-endian:
+ * <ul>
+ *     <li>a header holding {@link #MAGIC}, {@link #VERSION} and the size and last modified
+ *     time in milliseconds of the text file it was compiled from, as longs</li>
+ *     <li>the number of toppings, then for each topping a vegan flag byte, the number of the
+ *     line it was listed on as an int and its name</li>
+ *     <li>the number of pizzas, then for each pizza its name, the number of toppings as a
+ *     short and the index of each topping in the topping table as an int</li>
+ *     <li>a CRC-32 of everything before it, as an int</li>
+ * </ul>
+ * Names are stored as an int byte length followed by the UTF-8 encoded name.
+ */
+public final class MenuCompiler {
+
+    /**
+     * First four bytes of every compiled menu
+     */
+    static final int MAGIC = 0x505A4D43;
+
+    /**
+     * Version of the compiled format, files with any other version are recompiled
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Number of bytes before the topping table
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * Number of bytes in the checksum at the end of the file
+     */
+    static final int CHECKSUM_SIZE = 4;
+
+    /**
+     * File extension of compiled menus
+     */
+    static final String EXTENSION = ".bin";
+
+    private MenuCompiler() {
+
+    }
+
+    /**
+     * Compiles a pizza menu text file, for use as a build step
+     * @param args path of the text file, optionally followed by the path to write the
+     * compiled menu to, which defaults to {@link #compiledPath(Path)}
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: MenuCompiler <menu file> [compiled file]");
+            return;
+        }
+        Path source = Path.of(args[0]);
+        Path target = args.length == 2 ? Path.of(args[1]) : compiledPath(source);
+        try {
+            compile(source, target);
+        } catch (PizzaFormatException | TooManyToppingsException
+                | IndexOutOfBoundsException | IOException e) {
+            MenuLoader.reportError(e);
+        }
+    }
+
+    /**
+     * Returns the default location of the compiled form of a menu text file, which is
+     * next to it with the extension replaced
+     * @param source menu text file
+     * @return path of the compiled menu
+     */
+    public static Path compiledPath(Path source) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return source.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + EXTENSION);
+    }
+
+    /**
+     * Returns where {@link MenuLoader#loadCompiled(String, Path)} caches the compiled form of
+     * a menu text file. The name includes a hash of the full path of the text file, so menus
+     * with the same name in different folders can share a cache directory.
+     * @param source menu text file
+     * @param directory directory compiled menus are cached in
+     * @return path of the cached compiled menu
+     */
+    static Path cachePath(Path source, Path directory) {
+        Path absolute = source.toAbsolutePath().normalize();
+        String name = compiledPath(absolute).getFileName().toString();
+        String base = name.substring(0, name.length() - EXTENSION.length());
+        return directory.resolve(base + "-"
+                + Integer.toHexString(absolute.toString().hashCode()) + EXTENSION);
+    }
+
+    /**
+     * Loads a pizza menu text file into the Menu and writes its compiled form
+     * @param source menu text file, which must be UTF-8 or ASCII encoded
+     * @param target file to write the compiled menu to, replacing any existing file
+     * @return Menu that has all of the pizzas loaded from the file
+     * @throws PizzaFormatException if the file is empty or formatted incorrectly, see
+     * {@link MenuLoader#getMenu(java.io.BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if the file could not be read or the compiled menu written
+     * @throws IndexOutOfBoundsException if the number of pizza lines given in the first
+     * line does not match the number of pizza lines present in the file.
+     */
+    public static Menu compile(Path source, Path target)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        Image image = read(source);
+        image.write(target);
+        return Menu.getInstance();
+    }
+
+    /**
+     * Loads a pizza menu text file into the Menu, recording what was loaded
+     * @param source menu text file, which must be UTF-8 or ASCII encoded
+     * @return image of the loaded menu, which can be written as a compiled menu
+     * @throws PizzaFormatException if the file is empty or formatted incorrectly
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if the file could not be read
+     * @throws IndexOutOfBoundsException if the number of pizzas is incorrect
+     */
+    static Image read(Path source)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        Image image = new Image(attributes.size(), attributes.lastModifiedTime().toMillis());
+        MenuLoader.getMenu(MenuLoader.map(source), image);
+        return image;
+    }
+
+    /**
+     * Pizzas loaded from a menu text file, along with the toppings they were made from
+     */
+    static final class Image implements MenuLoader.PizzaLineHandler {
+
+        /**
+         * Size of the text file
+         */
+        private final long sourceSize;
+
+        /**
+         * Last modified time of the text file in milliseconds
+         */
+        private final long sourceModified;
+
+        /**
+         * Toppings created by the menu, in the order they were listed
+         */
+        private final List<Topping> toppings = new ArrayList<>();
+
+        /**
+         * Number of the line each topping was listed on
+         */
+        private final List<Integer> toppingLines = new ArrayList<>();
+
+        /**
+         * Index of each topping in toppings
+         */
+        private final Map<Topping, Integer> toppingIds = new IdentityHashMap<>();
+
+        /**
+         * Names of the loaded pizzas
+         */
+        private final List<String> names = new ArrayList<>();
+
+        /**
+         * Topping indexes of the loaded pizzas
+         */
+        private final List<int[]> pizzaToppings = new ArrayList<>();
+
+        /**
+         * Creates an empty image of a menu text file
+         * @param sourceSize size of the text file
+         * @param sourceModified last modified time of the text file in milliseconds
+         */
+        private Image(long sourceSize, long sourceModified) {
+            this.sourceSize = sourceSize;
+            this.sourceModified = sourceModified;
+        }
+
+        /**
+         * Records a topping created by the menu
+         * @param topping topping that was created
+         * @param lineNum line number the topping was listed on
+         */
+        @Override
+        public void acceptTopping(Topping topping, int lineNum) {
+            toppingIds.put(topping, toppings.size());
+            toppings.add(topping);
+            toppingLines.add(lineNum);
+        }
+
+        /**
+         * Creates a pizza from the menu and records it
+         * @param name name of the pizza
+         * @param toppings toppings on the pizza
+         * @throws TooManyToppingsException if there are too many toppings
+         */
+        @Override
+        public void accept(String name, List<Topping> toppings)
+                throws TooManyToppingsException {
+            MenuLoader.createPizza(name, toppings);
+            int[] ids = new int[toppings.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = toppingIds.get(toppings.get(i));
+            }
+            names.add(name);
+            pizzaToppings.add(ids);
+        }
+
+        /**
+         * Writes the compiled menu to a file, which is replaced in a single step so a
+         * partially written file is never loaded
+         * @param target file to write the compiled menu to
+         * @throws IOException if the file could not be written
+         */
+        void write(Path target) throws IOException {
+            Path temp = Files.createTempFile(target.toAbsolutePath().getParent(),
+                    target.getFileName().toString(), ".tmp");
+            try {
+                CRC32 checksum = new CRC32();
+                try (OutputStream file = Files.newOutputStream(temp)) {
+                    DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                            new BufferedOutputStream(file), checksum));
+                    writeContents(out);
+                    out.flush();
+                    // The checksum covers everything before it, so it is written last
+                    new DataOutputStream(file).writeInt((int) checksum.getValue());
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        /**
+         * Writes everything in the compiled menu except the checksum
+         * @param out stream to write to
+         * @throws IOException if the stream could not be written
+         */
+        private void writeContents(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceModified);
+
+            out.writeInt(toppings.size());
+            for (int i = 0; i < toppings.size(); i++) {
+                out.writeBoolean(toppings.get(i).isVegan());
+                out.writeInt(toppingLines.get(i));
+                writeName(out, toppings.get(i).toString());
+            }
+
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                writeName(out, names.get(i));
+                int[] ids = pizzaToppings.get(i);
+                out.writeShort(ids.length);
+                for (int id : ids) {
+                    out.writeInt(id);
+                }
+            }
+        }
+
+        /**
+         * Writes a name as its UTF-8 byte length followed by its bytes
+         * @param out stream to write to
+         * @param name name to be written
+         * @throws IOException if the stream could not be written
+         */
+        private static void writeName(DataOutputStream out, String name) throws IOException {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io;
+
+import exceptions.ValidationError;
+import exceptions.ValidationResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the errors found while reading a pizza menu, up to a maximum number, so the menu
+ * can be checked without an exception being thrown for each error
+ */
+final class MenuErrors {
+
+    /**
+     * Most errors that are kept
+     */
+    private final int maxErrors;
+
+    /**
+     * First error reported, or {@link ValidationResult#VALID} if there are none
+     */
+    private ValidationResult first = ValidationResult.VALID;
+
+    /**
+     * Every error reported in order, or null until there is a second error
+     */
+    private List<ValidationResult> all;
+
+    /**
+     * Creates a collection that only keeps the first error
+     */
+    MenuErrors() {
+        this(1);
+    }
+
+    /**
+     * Creates a collection that keeps up to a number of errors
+     * @param maxErrors most errors that are kept
+     * @throws IllegalArgumentException if the maximum is less than 1
+     */
+    MenuErrors(int maxErrors) throws IllegalArgumentException {
+        if (maxErrors < 1) {
+            throw new IllegalArgumentException("Maximum errors must be at least 1");
+        }
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Reports an error on a line of the menu, which is ignored if the maximum number of
+     * errors have already been reported
+     * @param error why the line is invalid
+     * @param lineNum line number of the error
+     */
+    void report(ValidationError error, int lineNum) {
+        report(error, lineNum, ValidationResult.NO_COLUMN);
+    }
+
+    /**
+     * Reports an error at a column of a line of the menu, which is ignored if the maximum
+     * number of errors have already been reported
+     * @param error why the line is invalid
+     * @param lineNum line number of the error
+     * @param column column of the error, starting at 1
+     */
+    void report(ValidationError error, int lineNum, int column) {
+        if (first.isValid()) {
+            first = ValidationResult.of(error, lineNum, column);
+        } else if (!isFull()) {
+            if (all == null) {
+                all = new ArrayList<>();
+                all.add(first);
+            }
+            all.add(ValidationResult.of(error, lineNum, column));
+        }
+    }
+
+    /**
+     * Returns whether any errors have been reported
+     * @return true if there is at least one error
+     */
+    boolean any() {
+        return !first.isValid();
+    }
+
+    /**
+     * Returns whether the maximum number of errors have been reported, after which there
+     * is no need to keep reading
+     * @return true if no more errors are kept
+     */
+    boolean isFull() {
+        return size() >= maxErrors;
+    }
+
+    /**
+     * Returns the number of errors kept
+     * @return number of errors
+     */
+    int size() {
+        return all != null ? all.size() : first.isValid() ? 0 : 1;
+    }
+
+    /**
+     * Returns the first error reported
+     * @return the first error, or {@link ValidationResult#VALID} if there are none
+     */
+    ValidationResult first() {
+        return first;
+    }
+
+    /**
+     * Returns every error kept, in the order they were reported
+     * @return unmodifiable list of errors, which is empty if there are none
+     */
+    List<ValidationResult> all() {
+        if (all != null) {
+            return Collections.unmodifiableList(all);
+        }
+        return first.isValid() ? List.of() : List.of(first);
+    }
+}
@@ -0,0 +1,80 @@
+package io;
+
+import java.io.IOException;
+
+/**
+ * Source of the lines in a pizza menu, read one line at a time.
+ * <p>
+ * The current line can be read as a sequence of characters without creating a string for it.
+ * Lines are terminated by a line feed, a carriage return or a carriage return followed by a
+ * line feed, the same as {@link java.io.BufferedReader#readLine()}.
+ */
+abstract class MenuLines implements CharSequence {
+
+    /**
+     * Moves to the next line
+     * @return true if there is another line, false if the end of the menu has been reached
+     * @throws IOException if the next line could not be read
+     */
+    abstract boolean next() throws IOException;
+
+    /**
+     * Returns the index of the first occurrence of a string in the current line
+     * @param target string to search for
+     * @param from index to start searching from
+     * @param to index to stop searching at
+     * @return index of the first occurrence that ends before to, or -1 if there is none
+     */
+    int indexOf(String target, int from, int to) {
+        char first = target.charAt(0);
+        int last = to - target.length();
+        for (int i = from; i <= last; i++) {
+            if (charAt(i) == first && regionMatches(i, target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the current line contains a string at the given index
+     * @param index index in the current line
+     * @param target string to compare against
+     * @return true if the characters starting at index are the same as the target
+     */
+    boolean regionMatches(int index, String target) {
+        if (index + target.length() > length()) {
+            return false;
+        }
+        for (int i = 0; i < target.length(); i++) {
+            if (charAt(index + i) != target.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a string containing part of the current line
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return new string of the characters in the range
+     */
+    @Override
+    public String subSequence(int start, int end) {
+        StringBuilder out = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            out.append(charAt(i));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns the current line as a string
+     * @return new string containing the current line
+     */
+    @Override
+    public String toString() {
+        return subSequence(0, length());
+    }
+}
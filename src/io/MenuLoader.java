@@ -2,6 +2,8 @@ package io;
 
 import exceptions.PizzaFormatException;
 import exceptions.TooManyToppingsException;
+import exceptions.ValidationError;
+import exceptions.ValidationResult;
 import menu.Menu;
 import pizza.MenuPizza;
 import pizza.Pizza;
@@ -9,10 +11,19 @@ import pizza.ingredients.Bases;
 import pizza.ingredients.Cheeses;
 import pizza.ingredients.Sauces;
 import pizza.ingredients.Topping;
+import pizza.ingredients.ToppingLookup;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class for loading, saving and parsing text data retrieved from pizza menus in assets
@@ -49,6 +60,16 @@ public class MenuLoader {
      */
     static final int CANNOT_READ_LINE = 6;
 
+    /**
+     * System property naming the directory compiled menus are cached in
+     */
+    public static final String CACHE_DIRECTORY_PROPERTY = "pizza.menu.cache";
+
+    /**
+     * Number of lines before the first pizza line in a menu
+     */
+    static final int HEADER_LINES = 5;
+
     /**
      * Creates a bufferedReader using a FileReader with a given file name
      * @param filename file to be read
@@ -60,18 +81,182 @@ public class MenuLoader {
         try {
             BufferedReader reader = new BufferedReader(new FileReader(PATH + filename));
             menu = getMenu(reader);
-        } catch (FileNotFoundException e) {
+        } catch (PizzaFormatException | TooManyToppingsException
+                | IndexOutOfBoundsException | IOException e) {
+            reportError(e);
+        }
+        return menu;
+    }
+
+    /**
+     * Memory maps a pizza menu file and parses it straight from the mapped bytes, which
+     * must be UTF-8 or ASCII encoded. The menu is validated with the same rules as
+     * {@link #getMenu(BufferedReader)}.
+     * @param path menu file to be read, which must be smaller than 2 GB
+     * @return parsed Menu type containing the list of Pizzas found in the menu text file
+     */
+    public static Menu loadMapped(Path path) {
+
+        Menu menu = null;
+        try {
+            menu = getMenu(map(path));
+        } catch (PizzaFormatException | TooManyToppingsException
+                | IndexOutOfBoundsException | IOException e) {
+            reportError(e);
+        }
+        return menu;
+    }
+
+    /**
+     * Loads a pizza menu file, parsing its pizza lines in parallel on the common fork join
+     * pool. The file must be UTF-8 or ASCII encoded and is validated with the same rules as
+     * {@link #getMenu(BufferedReader)}, with the pizzas added to the menu in file order.
+     * Nothing is added to the menu if any pizza line is invalid.
+     * @param path menu file to be read
+     * @return parsed Menu type containing the list of Pizzas found in the menu text file
+     */
+    public static Menu loadParallel(Path path) {
+
+        Menu menu = null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            menu = ParallelMenuLoader.getMenu(channel, ForkJoinPool.commonPool());
+        } catch (PizzaFormatException | TooManyToppingsException
+                | IndexOutOfBoundsException | IOException e) {
+            reportError(e);
+        }
+        return menu;
+    }
+
+    /**
+     * Loads a pizza menu file from its compiled form, cached in the directory given by the
+     * {@value #CACHE_DIRECTORY_PROPERTY} system property or else in a folder of the system
+     * temporary directory, see {@link #loadCompiled(String, Path)}
+     * @param filename file to be read
+     * @return parsed Menu type containing the list of Pizzas found in the menu file
+     */
+    public static Menu loadCompiled(String filename) {
+        return loadCompiled(filename, getCacheDirectory());
+    }
+
+    /**
+     * Loads a pizza menu file from its compiled form if that is up to date, see
+     * {@link MenuCompiler}. Otherwise the text file is loaded and compiled again into the
+     * cache directory, so following loads can use the compiled form. The compiled form is
+     * out of date when the size or last modified time of the text file has changed since it
+     * was compiled.
+     * @param filename file to be read
+     * @param cacheDirectory directory the compiled form is kept in, which is created if it
+     * doesn't exist
+     * @return parsed Menu type containing the list of Pizzas found in the menu file
+     */
+    public static Menu loadCompiled(String filename, Path cacheDirectory) {
+
+        Path source = Path.of(PATH + filename);
+        Path compiled = MenuCompiler.cachePath(source, cacheDirectory);
+        Menu menu = null;
+        try {
+            menu = CompiledMenuLoader.load(source, compiled);
+            if (menu == null) {
+                MenuCompiler.Image image = MenuCompiler.read(source);
+                menu = Menu.getInstance();
+                try {
+                    Files.createDirectories(cacheDirectory);
+                    image.write(compiled);
+                } catch (IOException e) {
+                    // The menu is still usable, it will just be loaded from text next time
+                }
+            }
+        } catch (PizzaFormatException | TooManyToppingsException
+                | IndexOutOfBoundsException | IOException e) {
+            reportError(e);
+        }
+        return menu;
+    }
+
+    /**
+     * Returns the directory {@link #loadCompiled(String)} caches compiled menus in
+     * @return the directory given by the {@value #CACHE_DIRECTORY_PROPERTY} system property,
+     * or a folder of the system temporary directory if it isn't set
+     */
+    public static Path getCacheDirectory() {
+        String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        if (directory != null && !directory.isBlank()) {
+            return Path.of(directory);
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "pizza-menu-cache");
+    }
+
+    /**
+     * Prints the exit code for an error that stopped a menu from loading, or the message of
+     * a format error
+     * @param e error that stopped the menu from loading
+     */
+    static void reportError(Exception e) {
+        if (e instanceof FileNotFoundException || e instanceof NoSuchFileException) {
             System.out.println(COULD_NOT_OPEN_FILE);
-        } catch (PizzaFormatException e) {
+        } else if (e instanceof PizzaFormatException) {
             System.out.println(e);
-        } catch (TooManyToppingsException e) {
+        } else if (e instanceof TooManyToppingsException) {
             System.out.println(TOO_MANY_TOPPINGS);
-        } catch (IndexOutOfBoundsException e) {
+        } else if (e instanceof IndexOutOfBoundsException) {
             System.out.println(MISSING_NUMBER_OF_PIZZAS);
-        } catch (IOException e) {
+        } else {
             System.out.println(CANNOT_READ_LINE);
         }
-        return menu;
+    }
+
+    /**
+     * Memory maps the whole of a file for reading
+     * @param path file to be mapped
+     * @return buffer containing the contents of the file
+     * @throws IOException if the file could not be opened or mapped, or is larger than 2 GB
+     */
+    static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to map: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Loads the data from the bytes of a pizza menu into the Menu
+     * @param buffer UTF-8 encoded bytes of the menu, from position to limit
+     * @return Menu that has all of the pizzas loaded from the menu
+     * @throws PizzaFormatException if the buffer is empty or the menu is formatted
+     * incorrectly, see {@link #getMenu(BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if an error occurs when trying to read a line
+     * @throws IndexOutOfBoundsException if the nuber of pizza lines given in the first
+     * line does not match the number of pizza lines present in the menu.
+     */
+    static Menu getMenu(ByteBuffer buffer)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        return getMenu(buffer, MenuLoader::createPizza);
+    }
+
+    /**
+     * Loads the data from a UTF-8 encoded pizza menu, passing each pizza line to a handler
+     * @param buffer UTF-8 encoded bytes of the menu, from position to limit
+     * @param handler called with the name and toppings of each pizza line, in order
+     * @return Menu that has all of the pizzas created by the handler
+     * @throws PizzaFormatException if the buffer is empty or the menu is formatted
+     * incorrectly, see {@link #getMenu(BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if an error occurs when trying to read a line
+     * @throws IndexOutOfBoundsException if the nuber of pizza lines given in the first
+     * line does not match the number of pizza lines present in the menu.
+     */
+    static Menu getMenu(ByteBuffer buffer, PizzaLineHandler handler)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        if (!buffer.hasRemaining()) {
+            throw new PizzaFormatException("Reader is null or not ready", 0);
+        }
+        return getMenu(new MappedMenuLines(buffer), handler);
     }
 
     /**
@@ -93,138 +278,435 @@ public class MenuLoader {
             throws PizzaFormatException, TooManyToppingsException,
             IOException, IndexOutOfBoundsException {
 
-        int lineNum = 0;
-        List<Pizza> pizzas;
-
         try {
 
             if (reader == null || !reader.ready()) {
-                throw new PizzaFormatException("Reader is null or not ready", lineNum);
+                throw new PizzaFormatException("Reader is null or not ready", 0);
             }
+            return getMenu(new ReaderMenuLines(reader));
 
-            String line = reader.readLine();
-            if (line == null) {
-                throw new PizzaFormatException("No lines in file", lineNum);
-            }
+        } catch (IOException e) {
+            throw new IOException("Couldn't read line because of " + e);
+        }
+    }
 
-            lineNum++;
-            if (!line.startsWith("PizzaMenu")) {
-                throw new PizzaFormatException("File does not start with PizzaMenu", lineNum);
-            }
+    /**
+     * Loads the data from the lines of a pizza menu into the Menu
+     * @param lines lines of the menu
+     * @return Menu that has all of the pizzas loaded from the menu
+     * @throws PizzaFormatException if the menu is formatted incorrectly, see
+     * {@link #getMenu(BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if an error occurs when trying to read a line
+     * @throws IndexOutOfBoundsException if the nuber of pizza lines given in the first
+     * line does not match the number of pizza lines present in the menu.
+     */
+    static Menu getMenu(MenuLines lines)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        return getMenu(lines, MenuLoader::createPizza);
+    }
 
-            String[] pair = line.split(" ", 2);
+    /**
+     * Loads the data from the lines of a pizza menu, passing each pizza line to a handler
+     * @param lines lines of the menu
+     * @param handler called with the name and toppings of each pizza line, in order
+     * @return Menu that has all of the pizzas created by the handler
+     * @throws PizzaFormatException if the menu is formatted incorrectly, see
+     * {@link #getMenu(BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if an error occurs when trying to read a line
+     * @throws IndexOutOfBoundsException if the nuber of pizza lines given in the first
+     * line does not match the number of pizza lines present in the menu.
+     */
+    static Menu getMenu(MenuLines lines, PizzaLineHandler handler)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        MenuErrors errors = new MenuErrors();
+        read(lines, handler, errors);
+        errors.first().throwIfInvalid();
+        return Menu.getInstance();
+    }
 
-            if (pair.length != 2) {
-                throw new PizzaFormatException("Missing Space", lineNum);
-            } else if (!pair[0].equals("PizzaMenu")) {
-                throw new PizzaFormatException("Initial Keyword is incorrect", lineNum);
-            }
+    /**
+     * Checks a pizza menu file without changing the menu, returning the first error instead
+     * of throwing it. The file must be UTF-8 or ASCII encoded and is checked with the same
+     * rules as {@link #getMenu(BufferedReader)}, but no exceptions are created for invalid
+     * menus, so untrusted menus can be rejected cheaply. The toppings listed in the file are
+     * checked against a table of their own, so no toppings or pizzas are created and any
+     * toppings staged on the current thread are left alone.
+     * @param path menu file to be checked, which must be smaller than 2 GB
+     * @return {@link ValidationResult#VALID}, or the first error in the menu
+     * @throws IOException if the file could not be read
+     */
+    public static ValidationResult validate(Path path) throws IOException {
+        ByteBuffer buffer = map(path);
+        if (!buffer.hasRemaining()) {
+            return ValidationResult.of(ValidationError.NOT_READY, 0);
+        }
+        MenuErrors errors = new MenuErrors(1);
+        new MenuValidator(new MappedMenuLines(buffer), errors).validate();
+        return errors.first();
+    }
 
-            int numPizzas;
+    /**
+     * Checks a pizza menu file in one pass without loading it, returning every error found
+     * up to a maximum. The file must be UTF-8 or ASCII encoded and is checked with the same
+     * rules as {@link #getMenu(BufferedReader)}, but no toppings or pizzas are created, so the
+     * menu and toppings are left unchanged. Each error has the line and column it was found
+     * at, and the first error is the one loading the file would fail with.
+     * @param path menu file to be checked, which must be smaller than 2 GB
+     * @param maxErrors most errors to return, after which checking stops
+     * @return errors in the order they were found, which is empty if the menu is valid
+     * @throws IOException if the file could not be read
+     * @throws IllegalArgumentException if the maximum is less than 1
+     */
+    public static List<ValidationResult> validateAll(Path path, int maxErrors)
+            throws IOException, IllegalArgumentException {
+        MenuErrors errors = new MenuErrors(maxErrors);
+        ByteBuffer buffer = map(path);
+        if (!buffer.hasRemaining()) {
+            errors.report(ValidationError.NOT_READY, 0);
+        } else {
+            new MenuValidator(new MappedMenuLines(buffer), errors).validate();
+        }
+        return errors.all();
+    }
 
-            try {
-                numPizzas = Integer.parseInt(pair[1]);
-            } catch (NumberFormatException e) {
-                throw new PizzaFormatException("Missing number of Pizzas", lineNum);
-            }
+    /**
+     * Checks a pizza menu in one pass as it is read, without loading it, returning every
+     * error found up to a maximum, see {@link #validateAll(Path, int)}
+     * @param reader Buffered reader used to read the menu
+     * @param maxErrors most errors to return, after which checking stops
+     * @return errors in the order they were found, which is empty if the menu is valid
+     * @throws IOException if an error occurs when trying to read the menu
+     * @throws IllegalArgumentException if the maximum is less than 1
+     */
+    public static List<ValidationResult> validateAll(BufferedReader reader, int maxErrors)
+            throws IOException, IllegalArgumentException {
+        MenuErrors errors = new MenuErrors(maxErrors);
+        if (reader == null || !reader.ready()) {
+            errors.report(ValidationError.NOT_READY, 0);
+        } else {
+            new MenuValidator(new ReaderMenuLines(reader), errors).validate();
+        }
+        return errors.all();
+    }
 
-            pizzas = new ArrayList<>(numPizzas);
+    /**
+     * Reads the lines of a pizza menu, passing each pizza line to a handler and reporting
+     * the first error instead of throwing it
+     * @param lines lines of the menu
+     * @param handler called with the name and toppings of each valid pizza line, in order
+     * @param errors receives the first error in the menu, after which reading stops
+     * @throws TooManyToppingsException if the handler throws it
+     * @throws IOException if an error occurs when trying to read a line
+     */
+    static void read(MenuLines lines, PizzaLineHandler handler, MenuErrors errors)
+            throws TooManyToppingsException, IOException {
 
-            line = reader.readLine();
-            lineNum++;
+        Tokens tokens = new Tokens();
+        int numPizzas = readHeader(lines, tokens, handler, errors);
+        if (numPizzas < 0) {
+            return;
+        }
+        ToppingLookup toppingLookup = Topping.lookup();
+        int lineNum = HEADER_LINES;
 
-            if (line == null || !line.equals("")) {
-                throw new PizzaFormatException("Line should be empty", lineNum);
+        for (int i = 0; i < numPizzas; i++) {
+            if (!lines.next()) {
+                errors.report(ValidationError.TOO_FEW_PIZZAS, lineNum + 1);
+                return;
             }
-
-            line = reader.readLine();
             lineNum++;
-            String[] nonVeganToppings = line.split(", ");
-            try {
-                for (String name : nonVeganToppings) {
-                    Topping.createTopping(name, false);
-                }
-            } catch (IllegalArgumentException e) {
-                throw new PizzaFormatException("Null or duplicate topping name", lineNum);
+            List<Topping> toppings =
+                    readPizzaToppings(lines, tokens, toppingLookup, lineNum, errors);
+            if (toppings == null) {
+                return;
             }
+            handler.accept(lines.subSequence(0, getNameEnd(lines)), toppings);
+        }
 
-            line = reader.readLine();
-            lineNum++;
-            String[] veganToppings = line.split(", ");
-            try {
-                for (String name : veganToppings) {
-                    Topping.createTopping(name, true);
-                }
-            } catch (IllegalArgumentException e) {
-                throw new PizzaFormatException("Null or duplicate topping name", lineNum);
-            }
+        if (lines.next()) {
+            errors.report(ValidationError.TOO_MANY_PIZZAS, lineNum + 1);
+        }
+    }
 
-            line = reader.readLine();
-            lineNum++;
+    /**
+     * Reads the header of a pizza menu, which is every line before the first pizza line,
+     * and creates the toppings listed in it
+     * @param lines lines of the menu, positioned before the first line
+     * @param tokens used to split lines into topping names
+     * @return number of pizzas given in the header
+     * @throws PizzaFormatException if the header is formatted incorrectly, see
+     * {@link #getMenu(BufferedReader)}
+     * @throws IOException if an error occurs when trying to read a line
+     */
+    static int getHeader(MenuLines lines, Tokens tokens)
+            throws PizzaFormatException, IOException {
+        MenuErrors errors = new MenuErrors();
+        int numPizzas = readHeader(lines, tokens, null, errors);
+        if (numPizzas < 0) {
+            ValidationResult error = errors.first();
+            throw new PizzaFormatException(error.getError().getMessage(), error.getLineNum());
+        }
+        return numPizzas;
+    }
 
-            if (line == null || !line.equals("")) {
-                throw new PizzaFormatException("Line should be empty", lineNum);
-            }
+    /**
+     * Reads the header of a pizza menu and creates the toppings listed in it, reporting the
+     * first error instead of throwing it
+     * @param lines lines of the menu, positioned before the first line
+     * @param tokens used to split lines into topping names
+     * @param handler called with each topping created and its line number, or null
+     * @param errors receives the first error in the header
+     * @return number of pizzas given in the header, or -1 if the header is invalid
+     * @throws IOException if an error occurs when trying to read a line
+     */
+    static int readHeader(MenuLines lines, Tokens tokens, PizzaLineHandler handler,
+                          MenuErrors errors)
+            throws IOException {
 
-            for (int i = 0; i < numPizzas; i++) {
-                line = reader.readLine();
-                if (line == null) {
-                    throw new IndexOutOfBoundsException("Incorrect number of pizzas specified");
-                }
-                lineNum++;
-
-                String[] pizzaPair = line.split(" \\[", 2);
-                if (pizzaPair.length != 2) {
-                    throw new PizzaFormatException("Incorrect spacing", lineNum);
-                } else if (pizzaPair[1].charAt(pizzaPair[1].length() - 1) != ']') {
-                    throw new PizzaFormatException(
-                            "Toppings list doesn't end with a square bracket", lineNum);
-                }
-                String[] toppingNames =
-                        pizzaPair[1].substring(0, pizzaPair[1].length() - 1).split(", ");
-                try {
-                    ArrayList<Topping> toppings = getToppings(toppingNames);
-                    MenuPizza pizza = new MenuPizza(
-                            Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
-                            Cheeses.Cheese.MOZZARELLA, toppings);
-                    pizza.setName(pizzaPair[0]);
-                } catch (IllegalArgumentException e) {
-                    throw new PizzaFormatException("Invalid topping name", lineNum);
-                } catch (NullPointerException e) {
-                    throw new PizzaFormatException("Null topping name", lineNum);
-                }
+        int lineNum = 0;
+
+        if (!lines.next()) {
+            errors.report(ValidationError.NO_LINES, lineNum);
+            return -1;
+        }
+
+        lineNum++;
+        int numPizzas = readNumPizzas(lines, lineNum, errors);
+        if (numPizzas < 0) {
+            return -1;
+        }
 
+        lineNum++;
+        if (!lines.next() || lines.length() != 0) {
+            errors.report(ValidationError.LINE_NOT_EMPTY, lineNum);
+            return -1;
+        }
+
+        lineNum++;
+        if (!createToppings(lines, tokens, lineNum, false, handler, errors)) {
+            return -1;
+        }
 
+        lineNum++;
+        if (!createToppings(lines, tokens, lineNum, true, handler, errors)) {
+            return -1;
+        }
+
+        lineNum++;
+        if (!lines.next() || lines.length() != 0) {
+            errors.report(ValidationError.LINE_NOT_EMPTY, lineNum);
+            return -1;
+        }
+        return numPizzas;
+    }
+
+    /**
+     * Returns the number of pizzas given on the first line of a menu, which is in the format:
+     * <p>PizzaMenu 'num'</p>
+     * @param lines lines of the menu, positioned at the first line
+     * @param lineNum line number of the first line
+     * @param errors receives the error if the line does not start with "PizzaMenu", the
+     * space is missing after the name or the number of pizzas can't be parsed
+     * @return number of pizzas in the menu, or -1 if the line is invalid
+     */
+    private static int readNumPizzas(MenuLines lines, int lineNum, MenuErrors errors) {
+        if (!lines.regionMatches(0, "PizzaMenu")) {
+            errors.report(ValidationError.MISSING_KEYWORD, lineNum);
+            return -1;
+        }
+
+        int space = lines.indexOf(" ", 0, lines.length());
+
+        if (space < 0) {
+            errors.report(ValidationError.MISSING_SPACE, lineNum);
+            return -1;
+        } else if (space != "PizzaMenu".length()) {
+            errors.report(ValidationError.INCORRECT_KEYWORD, lineNum);
+            return -1;
+        }
+
+        int numPizzas = parseCount(lines, space + 1, lines.length());
+        if (numPizzas < 0) {
+            errors.report(ValidationError.MISSING_NUMBER_OF_PIZZAS, lineNum);
+        }
+        return numPizzas;
+    }
+
+    /**
+     * Parses a decimal number of pizzas the same way as
+     * {@link Integer#parseInt(CharSequence, int, int, int)}, without throwing
+     * @param chars characters containing the number
+     * @param start index of the first character of the number
+     * @param end index after the last character of the number
+     * @return the number, or -1 if it can't be parsed or is negative
+     */
+    static int parseCount(CharSequence chars, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        boolean negative = false;
+        char sign = chars.charAt(start);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            start++;
+            if (start == end) {
+                return -1;
+            }
+        }
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(chars.charAt(i), 10);
+            if (digit < 0 || count > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
             }
+            count = count * 10 + digit;
+        }
+        // Only "-0" is a negative number of pizzas that isn't missing
+        return negative && count != 0 ? -1 : count;
+    }
 
-            line = reader.readLine();
+    /**
+     * Creates the toppings listed on the next line of a menu
+     * @param lines lines of the menu, positioned before the topping line
+     * @param tokens used to split the line into topping names
+     * @param lineNum line number of the topping line
+     * @param isVegan whether the toppings on the line are vegan
+     * @param handler called with each topping created and the line number, or null
+     * @param errors receives the error if the line is missing or a topping name is blank or
+     * already exists
+     * @return true if every topping on the line was created
+     * @throws IOException if the line could not be read
+     */
+    private static boolean createToppings(MenuLines lines, Tokens tokens, int lineNum,
+                                          boolean isVegan, PizzaLineHandler handler,
+                                          MenuErrors errors)
+            throws IOException {
+        if (!lines.next()) {
+            errors.report(ValidationError.INVALID_TOPPING_LINE, lineNum);
+            return false;
+        }
+        int count = tokens.split(lines, 0, lines.length());
+        for (int i = 0; i < count; i++) {
+            String name = lines.subSequence(tokens.start(i), tokens.end(i));
+            if (!Topping.tryCreateTopping(name, isVegan)) {
+                errors.report(ValidationError.INVALID_TOPPING_LINE, lineNum);
+                return false;
+            } else if (handler != null) {
+                handler.acceptTopping(Topping.valueOf(name), lineNum);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the toppings of the pizza given by a pizza line, reporting the first error
+     * instead of throwing it
+     * @param lines lines of the menu, positioned at the pizza line
+     * @param tokens used to split the line into topping names
+     * @param toppingLookup finds the toppings listed in the header
+     * @param lineNum line number of the pizza line
+     * @param errors receives the error if the space before the toppings is missing, the
+     * toppings do not end with a square bracket, a topping does not exist, the name is blank
+     * or the pizza has too many toppings
+     * @return new list of the toppings on the pizza, or null if the line is invalid
+     */
+    static List<Topping> readPizzaToppings(MenuLines lines, Tokens tokens,
+                                           ToppingLookup toppingLookup, int lineNum,
+                                           MenuErrors errors) {
+        int length = lines.length();
+        int split = getNameEnd(lines);
+        if (split < 0) {
+            errors.report(ValidationError.INCORRECT_SPACING, lineNum);
+            return null;
+        } else if (length == split + 2 || lines.charAt(length - 1) != ']') {
+            errors.report(ValidationError.MISSING_BRACKET, lineNum);
+            return null;
+        }
 
-            if (line != null) {
-                throw new IndexOutOfBoundsException(
-                        "Listed number of pizzas doesn't match pizza list");
+        int count = tokens.split(lines, split + 2, length - 1);
+        List<Topping> toppings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Topping topping = toppingLookup.find(lines, tokens.start(i), tokens.end(i));
+            if (topping == null) {
+                errors.report(ValidationError.INVALID_TOPPING_NAME, lineNum);
+                return null;
             }
+            toppings.add(topping);
+        }
 
-        } catch (IOException e) {
-            throw new IOException("Couldn't read line because of " + e);
+        if (count > Pizza.MAX_TOPPINGS) {
+            errors.report(ValidationError.TOO_MANY_TOPPINGS, lineNum);
+            return null;
+        } else if (isBlank(lines, 0, split)) {
+            errors.report(ValidationError.INVALID_TOPPING_NAME, lineNum);
+            return null;
         }
-        return Menu.getInstance();
+        return toppings;
+    }
+
+    /**
+     * Returns the index of the end of the pizza name in a pizza line
+     * @param lines lines of the menu, positioned at the pizza line
+     * @return index of the space before the toppings list, or -1 if there is none
+     */
+    static int getNameEnd(MenuLines lines) {
+        return lines.indexOf(" [", 0, lines.length());
+    }
+
+    /**
+     * Creates a medium menu pizza with tomato sauce and mozzarella cheese, which registers
+     * itself with the menu
+     * @param name name of the pizza
+     * @param toppings toppings on the pizza
+     * @return the new pizza
+     * @throws TooManyToppingsException if there are too many toppings
+     */
+    static MenuPizza createPizza(String name, List<Topping> toppings)
+            throws TooManyToppingsException {
+        return new MenuPizza(name, Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, toppings);
     }
 
     /**
-     * Returns a list of toppings given an array of topping names
-     * @param toppingNames array of topping names
-     * @return list of toppings
-     * @throws IllegalArgumentException if no topping exists for a given topping name
-     * @throws NullPointerException if the argument is null
+     * Receives the pizzas read from a menu
      */
-    private static ArrayList<Topping> getToppings(String[] toppingNames)
-            throws IllegalArgumentException, NullPointerException {
-        ArrayList<Topping> toppingList = new ArrayList<>();
-        for (String toppingName : toppingNames) {
-            toppingList.add(Topping.valueOf(toppingName));
+    interface PizzaLineHandler {
+
+        /**
+         * Handles a valid pizza line
+         * @param name name of the pizza
+         * @param toppings toppings on the pizza
+         * @throws TooManyToppingsException if there are too many toppings
+         */
+        void accept(String name, List<Topping> toppings) throws TooManyToppingsException;
+
+        /**
+         * Handles a topping created from the header, before any pizza line
+         * @param topping topping that was created
+         * @param lineNum line number the topping was listed on
+         */
+        default void acceptTopping(Topping topping, int lineNum) {
         }
-        return toppingList;
     }
 
+    /**
+     * Returns whether a range of a menu line is empty or only contains white space
+     * @param lines lines of the menu, positioned at the line to check
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return true if the range is blank
+     */
+    private static boolean isBlank(MenuLines lines, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(lines.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package io;
+
+import exceptions.PizzaFormatException;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import menu.MenuItem;
+import pizza.MenuPizza;
+import pizza.Pizza;
+import pizza.ingredients.Topping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a pizza menu file and reloads the Menu in the background whenever the file changes.
+ * <p>
+ * A reload builds a complete new menu and set of toppings on the watching thread, then
+ * publishes them in a single step, so threads reading the menu never block or see a partly
+ * loaded menu. If the changed file is invalid the current menu is kept. Pizzas and toppings
+ * that have not changed keep the same objects, so only changed lines create new pizzas, and
+ * pizzas and toppings already taken from the menu, such as those in orders, are never altered.
+ */
+public final class MenuReloader implements Closeable {
+
+    /**
+     * Time to wait for more changes to the file before reloading it, as editors often write
+     * a file in several steps
+     */
+    private static final long SETTLE_MILLIS = 100;
+
+    /**
+     * Menu file being watched
+     */
+    private final Path file;
+
+    /**
+     * Called on the watching thread after each successful reload
+     */
+    private final Runnable listener;
+
+    /**
+     * Watch service for the directory containing the file
+     */
+    private final WatchService watcher;
+
+    /**
+     * Thread that waits for changes and reloads the menu
+     */
+    private final Thread thread;
+
+    /**
+     * Size of the file when it was last loaded
+     */
+    private long loadedSize;
+
+    /**
+     * Last modified time of the file when it was last loaded
+     */
+    private long loadedModified;
+
+    /**
+     * Creates a reloader for a menu file, which does not start watching it yet
+     * @param file menu file to watch
+     * @param listener called after each successful reload
+     * @throws IOException if the directory of the file can't be watched
+     */
+    private MenuReloader(Path file, Runnable listener) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.listener = listener;
+        this.watcher = this.file.getFileSystem().newWatchService();
+        try {
+            this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            BasicFileAttributes attributes =
+                    Files.readAttributes(this.file, BasicFileAttributes.class);
+            loadedSize = attributes.size();
+            loadedModified = attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            watcher.close();
+            throw e;
+        }
+        this.thread = new Thread(this::watch, "MenuReloader " + this.file.getFileName());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching a menu file that has already been loaded into the Menu, reloading the
+     * Menu whenever the file changes
+     * @param file menu file to watch
+     * @param listener called on the watching thread after each successful reload
+     * @return the running reloader, which stops watching when closed
+     * @throws IOException if the directory of the file can't be watched
+     */
+    public static MenuReloader watch(Path file, Runnable listener) throws IOException {
+        MenuReloader reloader = new MenuReloader(file, listener);
+        reloader.thread.start();
+        return reloader;
+    }
+
+    /**
+     * Stops watching the file
+     * @throws IOException if the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+
+    /**
+     * Waits for the file to change and reloads it, until the watch service is closed
+     */
+    private void watch() {
+        try {
+            while (true) {
+                boolean changed = isFileChanged(watcher.take());
+                WatchKey key;
+                while ((key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= isFileChanged(key);
+                }
+                if (changed) {
+                    reloadIfModified();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stop watching
+        }
+    }
+
+    /**
+     * Returns whether any of the events for a watch key are for the menu file
+     * @param key signalled watch key
+     * @return true if the menu file was created or modified
+     */
+    private boolean isFileChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (file.getFileName().equals(event.context())
+                    || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Reloads the menu if the file has a different size or modification time to when it was
+     * last loaded, printing the same error codes as {@link MenuLoader#load(String)}
+     */
+    private void reloadIfModified() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.size() == loadedSize
+                    && attributes.lastModifiedTime().toMillis() == loadedModified) {
+                return;
+            }
+            reload(file);
+            loadedSize = attributes.size();
+            loadedModified = attributes.lastModifiedTime().toMillis();
+            listener.run();
+        } catch (PizzaFormatException | TooManyToppingsException
+                | IndexOutOfBoundsException | IOException e) {
+            MenuLoader.reportError(e);
+        }
+    }
+
+    /**
+     * Loads a menu file in place of the current Menu and toppings, reusing the current menu
+     * pizzas that have the same name and toppings as a pizza line. Nothing is changed if the
+     * file can't be loaded.
+     * @param file menu file to load, which must be UTF-8 or ASCII encoded
+     * @return the Menu, which now has the pizzas loaded from the file
+     * @throws PizzaFormatException if the file is empty or formatted incorrectly, see
+     * {@link MenuLoader#getMenu(java.io.BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if an error occurs when trying to read the file
+     * @throws IndexOutOfBoundsException if the number of pizza lines given in the first
+     * line does not match the number of pizza lines present in the file.
+     */
+    static Menu reload(Path file)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        Menu menu = Menu.getInstance();
+        Map<Key, MenuPizza> current = new HashMap<>();
+        for (MenuItem item : menu.getItems()) {
+            if (item instanceof MenuPizza) {
+                Pizza pizza = (Pizza) item;
+                current.putIfAbsent(new Key(pizza.getName(), pizza.getToppings()),
+                        (MenuPizza) pizza);
+            }
+        }
+
+        Topping.stageToppings();
+        menu.stage();
+        boolean published = false;
+        try {
+            // Unchanged toppings keep the same objects, so unchanged pizzas have equal keys
+            MenuLoader.getMenu(MenuLoader.map(file), (name, toppings) -> {
+                MenuPizza pizza = current.get(new Key(name, toppings));
+                if (pizza != null) {
+                    menu.registerMenuItem(pizza);
+                } else {
+                    MenuLoader.createPizza(name, toppings);
+                }
+            });
+            // Toppings go first so the new menu never has a topping that isn't available
+            Topping.publishStagedToppings();
+            menu.publishStaged();
+            published = true;
+        } finally {
+            if (!published) {
+                Topping.discardStagedToppings();
+                menu.discardStaged();
+            }
+        }
+        return menu;
+    }
+
+    /**
+     * Name and toppings of a menu pizza, used to find pizzas that are unchanged by a reload
+     */
+    private static final class Key {
+
+        /**
+         * Name of the pizza
+         */
+        private final String name;
+
+        /**
+         * Toppings on the pizza
+         */
+        private final List<Topping> toppings;
+
+        /**
+         * Creates the key of a menu pizza
+         * @param name name of the pizza
+         * @param toppings toppings on the pizza
+         */
+        private Key(String name, List<Topping> toppings) {
+            this.name = name;
+            this.toppings = toppings;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return name.equals(other.name) && toppings.equals(other.toppings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, toppings);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package io;
+
+import exceptions.ValidationError;
+import pizza.Pizza;
+import pizza.ingredients.ToppingNames;
+
+import java.io.IOException;
+
+/**
+ * Checks a pizza menu in one pass without loading it, reporting every error it finds.
+ * <p>
+ * The menu is checked with the same rules as {@link MenuLoader#getMenu(java.io.BufferedReader)},
+ * but no toppings or pizzas are created, so the menu and toppings are left unchanged. Instead
+ * of stopping at the first error, checking carries on with the next line, and then with the
+ * next topping on the line where that makes sense, until the end of the menu or until the
+ * maximum number of errors have been reported. The first error reported is always the one a
+ * load would have stopped at.
+ */
+final class MenuValidator {
+
+    /**
+     * Lines of the menu being checked
+     */
+    private final MenuLines lines;
+
+    /**
+     * Receives the errors found
+     */
+    private final MenuErrors errors;
+
+    /**
+     * Used to split lines into topping names
+     */
+    private final Tokens tokens = new Tokens();
+
+    /**
+     * Names of the toppings listed in the header
+     */
+    private final ToppingNames toppingNames = new ToppingNames();
+
+    /**
+     * Line number of the current line
+     */
+    private int lineNum;
+
+    /**
+     * Creates a validator for a menu
+     * @param lines lines of the menu, positioned before the first line
+     * @param errors receives the errors found
+     */
+    MenuValidator(MenuLines lines, MenuErrors errors) {
+        this.lines = lines;
+        this.errors = errors;
+    }
+
+    /**
+     * Checks the whole menu, stopping early if the maximum number of errors are reported
+     * @throws IOException if an error occurs when trying to read a line
+     */
+    void validate() throws IOException {
+        if (!lines.next()) {
+            errors.report(ValidationError.NO_LINES, lineNum);
+            return;
+        }
+        lineNum++;
+        int numPizzas = checkNumPizzas();
+
+        if (!nextLine() || !checkEmptyLine()
+                || !checkToppingLine() || !checkToppingLine()
+                || !nextLine() || !checkEmptyLine()) {
+            return;
+        }
+
+        int pizzaCount = 0;
+        while (!errors.isFull() && lines.next()) {
+            lineNum++;
+            pizzaCount++;
+            if (pizzaCount == numPizzas + 1) {
+                errors.report(ValidationError.TOO_MANY_PIZZAS, lineNum, 1);
+            }
+            checkPizzaLine();
+        }
+        if (pizzaCount < numPizzas) {
+            errors.report(ValidationError.TOO_FEW_PIZZAS, lineNum + 1, 1);
+        }
+    }
+
+    /**
+     * Moves to the next header line, reporting an error if it is missing
+     * @return false if there are no more lines or no more errors are kept
+     * @throws IOException if the line could not be read
+     */
+    private boolean nextLine() throws IOException {
+        lineNum++;
+        if (!lines.next()) {
+            errors.report(ValidationError.LINE_NOT_EMPTY, lineNum, 1);
+            return false;
+        }
+        return !errors.isFull();
+    }
+
+    /**
+     * Checks that the current line is empty
+     * @return false if no more errors are kept
+     */
+    private boolean checkEmptyLine() {
+        if (lines.length() != 0) {
+            errors.report(ValidationError.LINE_NOT_EMPTY, lineNum, 1);
+        }
+        return !errors.isFull();
+    }
+
+    /**
+     * Returns the number of pizzas given on the first line, which is in the format:
+     * <p>PizzaMenu 'num'</p>
+     * @return number of pizzas in the menu, or -1 if the line is invalid
+     */
+    private int checkNumPizzas() {
+        if (!lines.regionMatches(0, "PizzaMenu")) {
+            errors.report(ValidationError.MISSING_KEYWORD, lineNum, 1);
+            return -1;
+        }
+
+        int space = lines.indexOf(" ", 0, lines.length());
+
+        if (space < 0) {
+            errors.report(ValidationError.MISSING_SPACE, lineNum, lines.length() + 1);
+            return -1;
+        } else if (space != "PizzaMenu".length()) {
+            errors.report(ValidationError.INCORRECT_KEYWORD, lineNum, "PizzaMenu".length() + 1);
+            return -1;
+        }
+
+        int numPizzas = MenuLoader.parseCount(lines, space + 1, lines.length());
+        if (numPizzas < 0) {
+            errors.report(ValidationError.MISSING_NUMBER_OF_PIZZAS, lineNum, space + 2);
+        }
+        return numPizzas;
+    }
+
+    /**
+     * Checks the next line lists toppings that could be created, and remembers their names
+     * @return false if the line is missing or no more errors are kept
+     * @throws IOException if the line could not be read
+     */
+    private boolean checkToppingLine() throws IOException {
+        lineNum++;
+        if (!lines.next()) {
+            errors.report(ValidationError.INVALID_TOPPING_LINE, lineNum, 1);
+            return false;
+        }
+        int count = tokens.split(lines, 0, lines.length());
+        for (int i = 0; i < count && !errors.isFull(); i++) {
+            if (!toppingNames.add(lines.subSequence(tokens.start(i), tokens.end(i)))) {
+                errors.report(ValidationError.INVALID_TOPPING_LINE, lineNum, tokens.start(i) + 1);
+            }
+        }
+        return !errors.isFull();
+    }
+
+    /**
+     * Checks a pizza line, which is in the format:
+     * <p>'name' ['topping', 'topping', ...]</p>
+     */
+    private void checkPizzaLine() {
+        int length = lines.length();
+        int split = MenuLoader.getNameEnd(lines);
+        if (split < 0) {
+            int bracket = lines.indexOf("[", 0, length);
+            errors.report(ValidationError.INCORRECT_SPACING, lineNum,
+                    bracket < 0 ? length + 1 : bracket + 1);
+            return;
+        } else if (length == split + 2 || lines.charAt(length - 1) != ']') {
+            errors.report(ValidationError.MISSING_BRACKET, lineNum, length + 1);
+            return;
+        }
+
+        int count = tokens.split(lines, split + 2, length - 1);
+        for (int i = 0; i < count; i++) {
+            if (!toppingNames.contains(lines, tokens.start(i), tokens.end(i))) {
+                errors.report(ValidationError.INVALID_TOPPING_NAME, lineNum, tokens.start(i) + 1);
+            }
+        }
+
+        if (count > Pizza.MAX_TOPPINGS) {
+            errors.report(ValidationError.TOO_MANY_TOPPINGS, lineNum,
+                    tokens.start(Pizza.MAX_TOPPINGS) + 1);
+        }
+        if (isBlank(split)) {
+            errors.report(ValidationError.INVALID_TOPPING_NAME, lineNum, 1);
+        }
+    }
+
+    /**
+     * Returns whether the start of the current line is empty or only contains white space
+     * @param end index after the last character to check
+     * @return true if the range is blank
+     */
+    private boolean isBlank(int end) {
+        for (int i = 0; i < end; i++) {
+            if (!Character.isWhitespace(lines.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
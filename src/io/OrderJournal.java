@@ -0,0 +1,715 @@
+package io;
+
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import menu.MenuItem;
+import menu.Order;
+import pizza.CustomPizza;
+import pizza.MenuPizza;
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of confirmed orders, which are replayed when the journal is opened again
+ * so orders survive the application closing or crashing.
+ * <p>
+ * Orders are encoded on the thread that appends them and written by a single writer thread.
+ * With {@link SyncPolicy#GROUP_COMMIT} the writer writes every order that has queued up while
+ * the last batch was being synced, then syncs them all at once, so the cost of a sync is
+ * shared by however many orders arrive while it runs.
+ * <p>
+ * A journal is made up of, with every number stored big-endian:
+ * <ul>
+ *     <li>a header holding {@link #MAGIC} and {@link #VERSION}</li>
+ *     <li>any number of records, each the length of its payload as an int, the payload and
+ *     a CRC-32 of the payload as an int</li>
+ * </ul>
+ * A payload holds the order's UUID, date as an epoch day, time as a nano of day and customer
+ * name, then the number of pizzas and for each pizza whether it came from the menu, its
+ * name, the ordinals of its size, sauce and cheese, and for each topping a vegan flag and its
+ * name. Names are stored as an int byte length, or -1 for null, followed by UTF-8 bytes.
+ * Toppings that are no longer available are read back as detached toppings, see
+ * {@link Topping#detached(String, boolean)}, so replaying old orders never changes the
+ * toppings that can be picked for new pizzas.
+ * <p>
+ * A record with an empty payload is written by {@link #clear()}, and drops every order before
+ * it when the journal is read.
+ * <p>
+ * A record that was only partly written, or whose checksum doesn't match, marks the end of
+ * the journal. It and anything after it is cut off when the journal is opened.
+ */
+public final class OrderJournal implements Closeable {
+
+    /**
+     * System property naming the file the application journals orders to
+     */
+    public static final String PATH_PROPERTY = "pizza.journal";
+
+    /**
+     * First four bytes of every order journal
+     */
+    static final int MAGIC = 0x505A4F4A;
+
+    /**
+     * Version of the journal format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Number of bytes before the first record
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * Largest payload that is read back, anything longer is treated as damaged
+     */
+    static final int MAX_PAYLOAD_SIZE = 1 << 20;
+
+    /**
+     * Most records written and synced together
+     */
+    private static final int MAX_BATCH = 1024;
+
+    /**
+     * Pizza kind stored for menu pizzas
+     */
+    private static final byte MENU_PIZZA = 1;
+
+    /**
+     * Pizza kind stored for custom pizzas
+     */
+    private static final byte CUSTOM_PIZZA = 2;
+
+    /**
+     * When appended orders are synced to the storage device
+     */
+    public enum SyncPolicy {
+        /**
+         * Every record is synced before the next is written, the slowest and safest policy
+         */
+        EACH_RECORD,
+        /**
+         * Records waiting to be written are written together and synced once, so no order
+         * is reported as written until it has been synced
+         */
+        GROUP_COMMIT,
+        /**
+         * Records are never synced by the journal, so orders written shortly before the
+         * machine loses power may be lost, but not orders written before the application
+         * crashed
+         */
+        NO_SYNC
+    }
+
+    /**
+     * Record waiting to be written
+     */
+    private static final class Pending {
+
+        /**
+         * Length, payload and checksum of the record
+         */
+        private final ByteBuffer record;
+
+        /**
+         * Completed once the record has been written, and synced if the policy syncs
+         */
+        private final CompletableFuture<Void> written;
+
+        /**
+         * Creates a record waiting to be written
+         * @param record encoded record
+         * @param written completed once the record has been written
+         */
+        private Pending(ByteBuffer record, CompletableFuture<Void> written) {
+            this.record = record;
+            this.written = written;
+        }
+    }
+
+    /**
+     * Queued by close to stop the writer once the records before it have been written
+     */
+    private static final Pending CLOSE = new Pending(null, null);
+
+    /**
+     * Journal file, positioned at the end of the last good record
+     */
+    private final FileChannel channel;
+
+    /**
+     * When records are synced
+     */
+    private final SyncPolicy policy;
+
+    /**
+     * Orders read back when the journal was opened
+     */
+    private final List<Order> recovered;
+
+    /**
+     * Records waiting for the writer
+     */
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * Thread writing the queued records
+     */
+    private final Thread writer;
+
+    /**
+     * Set once close has been called
+     */
+    private volatile boolean closed;
+
+    /**
+     * First error the writer had, after which nothing more is written
+     */
+    private volatile IOException failure;
+
+    /**
+     * Creates a journal that appends to an open journal file
+     * @param channel journal file, positioned at the end of the last good record
+     * @param policy when records are synced
+     * @param recovered orders read back from the file
+     */
+    private OrderJournal(FileChannel channel, SyncPolicy policy, List<Order> recovered) {
+        this.channel = channel;
+        this.policy = policy;
+        this.recovered = Collections.unmodifiableList(recovered);
+        writer = new Thread(this::writeRecords, "order-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens a journal, creating it if it doesn't exist. The orders already in the journal
+     * are read back and any damaged record at the end is cut off.
+     * @param path journal file
+     * @param policy when appended orders are synced
+     * @return open journal
+     * @throws IllegalArgumentException if the path or policy is null
+     * @throws IOException if the file can't be opened or isn't an order journal
+     */
+    public static OrderJournal open(Path path, SyncPolicy policy)
+            throws IllegalArgumentException, IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path was null");
+        } else if (policy == null) {
+            throw new IllegalArgumentException("Sync policy was null");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            List<Order> orders = new ArrayList<>();
+            long end;
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(channel, header);
+                channel.force(true);
+                end = HEADER_SIZE;
+            } else {
+                end = read(channel, orders);
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+            }
+            channel.position(end);
+            return new OrderJournal(channel, policy, orders);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the file the application journals orders to
+     * @return the file given by the {@value #PATH_PROPERTY} system property, or a file in the
+     * user's home directory if it isn't set
+     */
+    public static Path getDefaultPath() {
+        String path = System.getProperty(PATH_PROPERTY);
+        if (path != null && !path.isBlank()) {
+            return Path.of(path);
+        }
+        return Path.of(System.getProperty("user.home"), ".pizza", "orders.journal");
+    }
+
+    /**
+     * Reads the orders in a journal without opening it for appending or repairing it
+     * @param path journal file
+     * @return orders in the journal since it was last cleared, up to the first damaged
+     * record, in the order written
+     * @throws IOException if the file can't be read or isn't an order journal
+     */
+    public static List<Order> replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Order> orders = new ArrayList<>();
+            read(channel, orders);
+            return orders;
+        }
+    }
+
+    /**
+     * Returns the orders that were in the journal when it was opened
+     * @return unmodifiable list of the orders, in the order they were written
+     */
+    public List<Order> recoveredOrders() {
+        return recovered;
+    }
+
+    /**
+     * Returns when appended orders are synced
+     * @return sync policy
+     */
+    public SyncPolicy getSyncPolicy() {
+        return policy;
+    }
+
+    /**
+     * Appends an order to the journal. The order is encoded before returning, so later
+     * changes to it are not journalled, and written on the journal's writer thread.
+     * @param order confirmed order
+     * @return completed once the order has been written and synced as the policy requires,
+     * or completed exceptionally if it couldn't be written
+     * @throws IllegalArgumentException if the order is null
+     * @throws IllegalStateException if the journal has been closed
+     */
+    public CompletableFuture<Void> append(Order order)
+            throws IllegalArgumentException, IllegalStateException {
+        if (order == null) {
+            throw new IllegalArgumentException("Order was null");
+        }
+        return enqueue(encode(order));
+    }
+
+    /**
+     * Appends a record that clears the journal, so the orders appended before it are not
+     * read back when the journal is opened again. They stay in the file, but are skipped.
+     * @return completed once the record has been written and synced as the policy requires,
+     * or completed exceptionally if it couldn't be written
+     * @throws IllegalStateException if the journal has been closed
+     */
+    public CompletableFuture<Void> clear() throws IllegalStateException {
+        // An empty payload, whose checksum is 0
+        return enqueue(ByteBuffer.allocate(8));
+    }
+
+    /**
+     * Queues a record for the writer thread
+     * @param record encoded record
+     * @return completed once the record has been written
+     * @throws IllegalStateException if the journal has been closed
+     */
+    private CompletableFuture<Void> enqueue(ByteBuffer record) throws IllegalStateException {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        synchronized (queue) {
+            if (closed) {
+                throw new IllegalStateException("Order journal is closed");
+            }
+            queue.add(new Pending(record, written));
+        }
+        return written;
+    }
+
+    /**
+     * Writes and syncs every order already appended, then closes the journal file
+     * @throws IOException if an order couldn't be written or the file couldn't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            if (failure == null && policy != SyncPolicy.NO_SYNC) {
+                channel.force(true);
+            }
+        } finally {
+            channel.close();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes queued records in batches until close is called
+     */
+    private void writeRecords() {
+        List<Pending> batch = new ArrayList<>();
+        ByteBuffer[] buffers = new ByteBuffer[MAX_BATCH];
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (batch.get(batch.size() - 1) == CLOSE) {
+                batch.remove(batch.size() - 1);
+                closing = true;
+            }
+            if (failure != null) {
+                fail(batch, failure);
+            } else {
+                try {
+                    write(batch, buffers);
+                } catch (IOException e) {
+                    failure = e;
+                    fail(batch, e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch of records, syncing as the policy requires
+     * @param batch records to be written
+     * @param buffers space for the records of the batch
+     * @throws IOException if the records couldn't be written or synced
+     */
+    private void write(List<Pending> batch, ByteBuffer[] buffers) throws IOException {
+        if (policy == SyncPolicy.EACH_RECORD) {
+            for (Pending pending : batch) {
+                writeFully(channel, pending.record);
+                channel.force(false);
+                pending.written.complete(null);
+            }
+            return;
+        }
+        int count = batch.size();
+        for (int i = 0; i < count; i++) {
+            buffers[i] = batch.get(i).record;
+        }
+        long remaining = 0;
+        for (int i = 0; i < count; i++) {
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers, 0, count);
+        }
+        Arrays.fill(buffers, 0, count, null);
+        if (policy == SyncPolicy.GROUP_COMMIT) {
+            channel.force(false);
+        }
+        for (Pending pending : batch) {
+            pending.written.complete(null);
+        }
+    }
+
+    /**
+     * Completes a batch of records exceptionally
+     * @param batch records that weren't written
+     * @param cause why they weren't written
+     */
+    private static void fail(List<Pending> batch, IOException cause) {
+        for (Pending pending : batch) {
+            pending.written.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Writes all of a buffer to a file
+     * @param channel file to write to
+     * @param buffer bytes to be written
+     * @throws IOException if the bytes couldn't be written
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Encodes an order as a record
+     * @param order order to be encoded
+     * @return buffer holding the length, payload and checksum of the record
+     */
+    static ByteBuffer encode(Order order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0);
+            writePayload(out, order);
+            out.writeInt(0);
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.capacity() - 8;
+        CRC32 checksum = new CRC32();
+        checksum.update(record.array(), 4, length);
+        record.putInt(0, length);
+        record.putInt(4 + length, (int) checksum.getValue());
+        return record;
+    }
+
+    /**
+     * Writes the payload of an order's record
+     * @param out where the payload is written
+     * @param order order to be written
+     * @throws IOException if the payload couldn't be written
+     */
+    private static void writePayload(DataOutputStream out, Order order) throws IOException {
+        UUID uuid = order.getUUID();
+        out.writeBoolean(uuid != null);
+        if (uuid != null) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+        LocalDate date = order.getDate();
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+        LocalTime time = order.getTime();
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toNanoOfDay());
+        }
+        writeName(out, order.getName());
+
+        List<Pizza> pizzas = order.getPizzas();
+        out.writeInt(pizzas.size());
+        for (Pizza pizza : pizzas) {
+            out.writeByte(pizza instanceof MenuPizza ? MENU_PIZZA : CUSTOM_PIZZA);
+            writeName(out, pizza.getName());
+            out.writeByte(pizza.getBaseSize().ordinal());
+            out.writeByte(pizza.getSauce().ordinal());
+            out.writeByte(pizza.getCheese().ordinal());
+            List<Topping> toppings = pizza.getToppings();
+            out.writeByte(toppings.size());
+            for (Topping topping : toppings) {
+                out.writeBoolean(topping.isVegan());
+                writeName(out, topping.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes a name as its UTF-8 byte length followed by its bytes
+     * @param out where the name is written
+     * @param name name to be written, or null
+     * @throws IOException if the name couldn't be written
+     */
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        if (name == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the orders in a journal file up to the first damaged record
+     * @param channel journal file
+     * @param orders list the orders are added to, which is emptied by each clear record
+     * @return offset of the end of the last good record
+     * @throws IOException if the file can't be read, isn't an order journal or has a record
+     * that can't be decoded even though its checksum matches
+     */
+    private static long read(FileChannel channel, List<Order> orders) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Order journal is too large to read");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // keep reading until the buffer is full
+        }
+        buffer.flip();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not an order journal");
+        } else if (buffer.getInt() != VERSION) {
+            throw new IOException("Unsupported order journal version");
+        }
+
+        Map<String, Topping> retired = new HashMap<>();
+        CRC32 checksum = new CRC32();
+        while (buffer.remaining() >= 4) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < 0 || length > MAX_PAYLOAD_SIZE || buffer.remaining() < length + 4) {
+                return start;
+            }
+            checksum.reset();
+            checksum.update(buffer.array(), start + 4, length);
+            if (buffer.getInt(start + 4 + length) != (int) checksum.getValue()) {
+                return start;
+            }
+            if (length == 0) {
+                // A cleared journal, see clear()
+                orders.clear();
+                buffer.position(start + 8);
+                continue;
+            }
+            ByteBuffer payload = buffer.slice(start + 4, length);
+            try {
+                orders.add(readPayload(payload, retired));
+            } catch (BufferUnderflowException | IllegalArgumentException
+                     | IndexOutOfBoundsException | TooManyToppingsException e) {
+                throw new IOException("Order journal record at " + start + " could not be read", e);
+            }
+            buffer.position(start + 8 + length);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Rebuilds an order from the payload of its record
+     * @param in payload of the record
+     * @param retired toppings that are no longer available, shared by the orders in a journal
+     * @return the order
+     * @throws TooManyToppingsException if a pizza has too many toppings
+     */
+    private static Order readPayload(ByteBuffer in, Map<String, Topping> retired)
+            throws TooManyToppingsException {
+        Order order = new Order();
+        order.setUUID(in.get() != 0 ? new UUID(in.getLong(), in.getLong()) : null);
+        order.setDate(in.get() != 0 ? LocalDate.ofEpochDay(in.getLong()) : null);
+        if (in.get() != 0) {
+            // Orders always have a time, as the discount depends on it
+            order.setTime(LocalTime.ofNanoOfDay(in.getLong()));
+        }
+        order.setName(readName(in));
+
+        int pizzaCount = in.getInt();
+        for (int i = 0; i < pizzaCount; i++) {
+            byte kind = in.get();
+            String name = readName(in);
+            Bases.BaseSize size = Bases.BaseSize.values()[in.get()];
+            Sauces.Sauce sauce = Sauces.Sauce.values()[in.get()];
+            Cheeses.Cheese cheese = Cheeses.Cheese.values()[in.get()];
+            int toppingCount = in.get();
+            List<Topping> toppings = new ArrayList<>(toppingCount);
+            for (int j = 0; j < toppingCount; j++) {
+                boolean vegan = in.get() != 0;
+                toppings.add(topping(readName(in), vegan, retired));
+            }
+            order.add(pizza(kind, name, size, sauce, cheese, toppings));
+        }
+        return order;
+    }
+
+    /**
+     * Reads a name written by {@link #writeName(DataOutputStream, String)}
+     * @param in where the name is read from
+     * @return the name, or null
+     */
+    private static String readName(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the available topping with a given name, or if it is no longer available or
+     * has changed, a detached topping shared by every order read from the same journal.
+     * Toppings that are no longer available are never made available again.
+     * @param name name of the topping
+     * @param vegan whether the topping was vegan
+     * @param retired detached toppings already made, keyed on vegan flag and name
+     * @return the topping
+     * @throws IllegalArgumentException if the name is null or blank
+     */
+    private static Topping topping(String name, boolean vegan, Map<String, Topping> retired)
+            throws IllegalArgumentException {
+        if (name == null) {
+            throw new IllegalArgumentException("Topping name was null");
+        }
+        Topping topping = Topping.find(name, 0, name.length());
+        if (topping != null && topping.isVegan() == vegan) {
+            return topping;
+        }
+        return retired.computeIfAbsent((vegan ? "V" : "N") + name.toUpperCase(Locale.ROOT),
+                key -> Topping.detached(name, vegan));
+    }
+
+    /**
+     * Rebuilds a pizza, sharing the menu pizza it was made from if it is still on the menu
+     * with the same toppings
+     * @param kind whether the pizza came from the menu
+     * @param name name of the pizza
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param toppings toppings on the pizza
+     * @return the pizza
+     * @throws TooManyToppingsException if there are too many toppings
+     */
+    private static Pizza pizza(byte kind, String name, Bases.BaseSize size, Sauces.Sauce sauce,
+                               Cheeses.Cheese cheese, List<Topping> toppings)
+            throws TooManyToppingsException {
+        if (kind == MENU_PIZZA) {
+            Optional<MenuItem> item = Menu.getInstance().findByName(name);
+            if (item.isPresent() && item.get() instanceof MenuPizza
+                    && ((MenuPizza) item.get()).getToppings().equals(toppings)) {
+                return ((MenuPizza) item.get()).with(size, sauce, cheese);
+            }
+        } else if (kind != CUSTOM_PIZZA) {
+            throw new IllegalArgumentException("Unknown pizza kind " + kind);
+        }
+        // The menu has changed since the order was placed, so keep the pizza as it was ordered
+        CustomPizza pizza = CustomPizza.forOrder(size, sauce, cheese, toppings);
+        if (name != null) {
+            pizza.setName(name);
+        }
+        return pizza;
+    }
+}
@@ -0,0 +1,306 @@
+package io;
+
+import exceptions.PizzaFormatException;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import pizza.ingredients.Topping;
+import pizza.ingredients.ToppingLookup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Loads a pizza menu file by parsing its pizza lines in parallel.
+ * <p>
+ * The header is read first so every topping exists before any pizza line is parsed. The pizza
+ * lines are then split into chunks that start and end on line boundaries, and each chunk is
+ * memory mapped and parsed on a fork join pool. Pizzas are only created once every chunk has
+ * been parsed, in the same order as the file, so the menu ends up the same as a sequential load.
+ */
+final class ParallelMenuLoader {
+
+    /**
+     * Smallest chunk worth parsing on its own
+     */
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Largest chunk, which has to fit in a single mapped buffer
+     */
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+
+    /**
+     * Number of chunks to create for each thread in the pool, so threads that finish early can
+     * take work from slower ones
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Number of bytes read at a time when looking for the end of a line
+     */
+    private static final int SCAN_SIZE = 8192;
+
+    private ParallelMenuLoader() {
+
+    }
+
+    /**
+     * Loads the data from a pizza menu file into the Menu, parsing the pizza lines in parallel
+     * @param channel channel of the UTF-8 encoded menu file
+     * @param pool pool used to parse the pizza lines
+     * @return Menu that has all of the pizzas loaded from the file
+     * @throws PizzaFormatException if the file is empty or formatted incorrectly, see
+     * {@link MenuLoader#getMenu(java.io.BufferedReader)}
+     * @throws TooManyToppingsException if a pizza line has too many toppings
+     * @throws IOException if an error occurs when trying to read the file
+     * @throws IndexOutOfBoundsException if the number of pizza lines given in the first
+     * line does not match the number of pizza lines present in the file.
+     */
+    static Menu getMenu(FileChannel channel, ForkJoinPool pool)
+            throws PizzaFormatException, TooManyToppingsException,
+            IOException, IndexOutOfBoundsException {
+        long size = channel.size();
+        if (size == 0) {
+            throw new PizzaFormatException("Reader is null or not ready", 0);
+        }
+
+        MappedMenuLines header = new MappedMenuLines(
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE)));
+        int numPizzas = MenuLoader.getHeader(header, new Tokens());
+
+        List<Chunk> chunks = split(channel, header.position(), size, pool.getParallelism());
+        runAll(pool, chunks, Chunk::count);
+        for (Chunk chunk : chunks) {
+            if (chunk.ioError != null) {
+                throw chunk.ioError;
+            }
+        }
+
+        // Number the lines now that every chunk has been counted
+        long lineCount = 0;
+        for (Chunk chunk : chunks) {
+            chunk.firstLineNum = (int) (MenuLoader.HEADER_LINES + lineCount + 1);
+            chunk.lastLineNum = MenuLoader.HEADER_LINES + numPizzas;
+            lineCount += chunk.lineCount;
+        }
+        // Workers don't see toppings staged on this thread, so they use the ones it sees
+        ToppingLookup toppingLookup = Topping.lookup();
+        runAll(pool, chunks, chunk -> chunk.parse(toppingLookup));
+
+        for (Chunk chunk : chunks) {
+            chunk.errors.first().throwIfInvalid();
+        }
+        if (lineCount < numPizzas) {
+            throw new IndexOutOfBoundsException("Incorrect number of pizzas specified");
+        } else if (lineCount > numPizzas) {
+            throw new IndexOutOfBoundsException(
+                    "Listed number of pizzas doesn't match pizza list");
+        }
+
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.names.size(); i++) {
+                MenuLoader.createPizza(chunk.names.get(i), chunk.toppings.get(i));
+            }
+        }
+        return Menu.getInstance();
+    }
+
+    /**
+     * Splits part of a file into chunks that start and end on line boundaries
+     * @param channel channel of the file
+     * @param start position of the first byte, which must be the start of a line
+     * @param end position after the last byte
+     * @param parallelism number of threads that will parse the chunks
+     * @return chunks covering the whole range, in order
+     * @throws IOException if the file could not be read
+     */
+    private static List<Chunk> split(FileChannel channel, long start, long end, int parallelism)
+            throws IOException {
+        long size = end - start;
+        long count = Math.min((long) parallelism * CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE);
+        count = Math.max(count, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        count = Math.max(count, 1);
+
+        List<Chunk> chunks = new ArrayList<>();
+        long from = start;
+        for (long i = 1; i < count; i++) {
+            long to = nextLineStart(channel, start + size * i / count, end);
+            if (to > from) {
+                chunks.add(new Chunk(channel, from, to));
+                from = to;
+            }
+        }
+        chunks.add(new Chunk(channel, from, end));
+        return chunks;
+    }
+
+    /**
+     * Returns the position of the start of the first line after a position in a file
+     * @param channel channel of the file
+     * @param position position to search from
+     * @param end position after the last byte
+     * @return position after the next line terminator, or end if there is none
+     * @throws IOException if the file could not be read
+     */
+    private static long nextLineStart(FileChannel channel, long position, long end)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return position + i + 1;
+                } else if (b == '\r') {
+                    // Keep a following line feed in this chunk, even if it wasn't read yet
+                    ByteBuffer next = ByteBuffer.allocate(1);
+                    long after = position + i + 1;
+                    if (after < end && channel.read(next, after) == 1 && next.get(0) == '\n') {
+                        return after + 1;
+                    }
+                    return after;
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    /**
+     * Runs an action on every chunk in a pool and waits for them all to finish
+     * @param pool pool to run the actions in
+     * @param chunks chunks to run the action on
+     * @param action action to run
+     */
+    private static void runAll(ForkJoinPool pool, List<Chunk> chunks,
+                               Consumer<Chunk> action) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+                for (Chunk chunk : chunks) {
+                    tasks.add(ForkJoinTask.adapt(() -> action.accept(chunk)));
+                }
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * Range of pizza lines in a menu file, along with the pizzas parsed from it
+     */
+    private static final class Chunk {
+
+        /**
+         * Channel of the menu file
+         */
+        private final FileChannel channel;
+
+        /**
+         * Position in the file of the first byte of the chunk
+         */
+        private final long start;
+
+        /**
+         * Position in the file after the last byte of the chunk
+         */
+        private final long end;
+
+        /**
+         * Mapped bytes of the chunk
+         */
+        private MappedByteBuffer buffer;
+
+        /**
+         * Number of lines in the chunk
+         */
+        private int lineCount;
+
+        /**
+         * Line number of the first line in the chunk
+         */
+        private int firstLineNum;
+
+        /**
+         * Line number of the last pizza line in the file, later lines are not parsed
+         */
+        private int lastLineNum;
+
+        /**
+         * Names of the pizzas parsed from the chunk
+         */
+        private final List<String> names = new ArrayList<>();
+
+        /**
+         * Toppings of the pizzas parsed from the chunk
+         */
+        private final List<List<Topping>> toppings = new ArrayList<>();
+
+        /**
+         * Error from mapping the chunk, if any
+         */
+        private IOException ioError;
+
+        /**
+         * Receives the first error found in the chunk
+         */
+        private final MenuErrors errors = new MenuErrors();
+
+        /**
+         * Creates a chunk of a menu file
+         * @param channel channel of the menu file
+         * @param start position of the first byte of the chunk
+         * @param end position after the last byte of the chunk
+         */
+        private Chunk(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Maps the chunk and counts the lines in it
+         */
+        private void count() {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                lineCount = MappedMenuLines.countLines(buffer, 0, buffer.limit());
+            } catch (IOException e) {
+                ioError = e;
+            }
+        }
+
+        /**
+         * Parses the pizza lines in the chunk, stopping at the first error
+         * @param toppingLookup finds the toppings listed in the header
+         */
+        private void parse(ToppingLookup toppingLookup) {
+            MappedMenuLines lines = new MappedMenuLines(buffer);
+            Tokens tokens = new Tokens();
+            int lineNum = firstLineNum;
+            while (lineNum <= lastLineNum && lines.next()) {
+                List<Topping> pizzaToppings =
+                        MenuLoader.readPizzaToppings(lines, tokens, toppingLookup, lineNum,
+                                errors);
+                if (pizzaToppings == null) {
+                    return;
+                }
+                toppings.add(pizzaToppings);
+                names.add(lines.subSequence(0, MenuLoader.getNameEnd(lines)));
+                lineNum++;
+            }
+        }
+    }
+}
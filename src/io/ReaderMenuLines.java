@@ -0,0 +1,143 @@
+package io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Menu lines read from a character stream into a reusable buffer
+ */
+final class ReaderMenuLines extends MenuLines {
+
+    /**
+     * Initial size of the character buffer, which grows to fit the longest line
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Reader the menu is read from
+     */
+    private final Reader reader;
+
+    /**
+     * Characters read from the reader
+     */
+    private char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * Index in the buffer of the next character that has not been read as part of a line
+     */
+    private int position;
+
+    /**
+     * Number of valid characters in the buffer
+     */
+    private int limit;
+
+    /**
+     * Index in the buffer of the start of the current line
+     */
+    private int lineStart;
+
+    /**
+     * Length of the current line
+     */
+    private int lineLength;
+
+    /**
+     * Whether the last line ended with a carriage return, so a following line feed is skipped
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * Whether the end of the reader has been reached
+     */
+    private boolean endOfStream;
+
+    /**
+     * Creates menu lines that are read from the given reader
+     * @param reader reader to read the menu from
+     */
+    ReaderMenuLines(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    boolean next() throws IOException {
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if ((position < limit || fill()) && buffer[position] == '\n') {
+                position++;
+            }
+        }
+        int scan = position;
+        while (true) {
+            for (; scan < limit; scan++) {
+                char c = buffer[scan];
+                if (c == '\n' || c == '\r') {
+                    lineStart = position;
+                    lineLength = scan - position;
+                    position = scan + 1;
+                    skipLineFeed = c == '\r';
+                    return true;
+                }
+            }
+            scan -= position;
+            if (!fill()) {
+                if (position == limit) {
+                    return false;
+                }
+                lineStart = position;
+                lineLength = limit - position;
+                position = limit;
+                return true;
+            }
+            scan += position;
+        }
+    }
+
+    /**
+     * Reads more characters into the buffer, moving any unread characters to the start of the
+     * buffer first
+     * @return true if more characters were read, false at the end of the reader
+     * @throws IOException if the reader could not be read
+     */
+    private boolean fill() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read;
+        do {
+            read = reader.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return lineLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return buffer[lineStart + index];
+    }
+
+    @Override
+    public String subSequence(int start, int end) {
+        return new String(buffer, lineStart + start, end - start);
+    }
+}
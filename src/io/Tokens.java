@@ -0,0 +1,91 @@
+package io;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the comma separated names in part of a menu line.
+ * <p>
+ * Names are split the same way as {@code String.split(", ")}: a range without a separator is a
+ * single name, even if it is empty, and otherwise any empty names at the end are dropped.
+ */
+final class Tokens {
+
+    /**
+     * Separator between names
+     */
+    static final String SEPARATOR = ", ";
+
+    /**
+     * Start and end index of each name, stored one after the other
+     */
+    private int[] bounds = new int[32];
+
+    /**
+     * Number of names found by the last split
+     */
+    private int count;
+
+    /**
+     * Splits a range of a menu line into names
+     * @param line line to split
+     * @param start index of the first character of the range
+     * @param end index after the last character of the range
+     * @return number of names found
+     */
+    int split(MenuLines line, int start, int end) {
+        count = 0;
+        int from = start;
+        int separator;
+        while ((separator = line.indexOf(SEPARATOR, from, end)) >= 0) {
+            add(from, separator);
+            from = separator + SEPARATOR.length();
+        }
+        add(from, end);
+        if (count > 1) {
+            while (count > 0 && start(count - 1) == end(count - 1)) {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of names found by the last split
+     * @return number of names
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the index of the first character of a name
+     * @param index which name
+     * @return start index in the line
+     */
+    int start(int index) {
+        return bounds[index * 2];
+    }
+
+    /**
+     * Returns the index after the last character of a name
+     * @param index which name
+     * @return end index in the line
+     */
+    int end(int index) {
+        return bounds[index * 2 + 1];
+    }
+
+    /**
+     * Adds the position of a name
+     * @param start index of the first character
+     * @param end index after the last character
+     */
+    private void add(int start, int end) {
+        if (count * 2 == bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[count * 2] = start;
+        bounds[count * 2 + 1] = end;
+        count++;
+    }
+}
@@ -0,0 +1,141 @@
+package menu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Insertion ordered list that can be appended to by multiple threads and read without locking.
+ * <p>
+ * Elements are stored in segments that double in size, so existing elements are never copied
+ * when the list grows. Each append claims the next index and publishes the element by storing
+ * it in that slot, without waiting for any other append. Readers see the elements up to the
+ * first slot that hasn't been stored yet, so they only ever see a complete prefix of the list,
+ * and an append that is slow or fails only hides the elements after it until it finishes.
+ * @param <E> type of the elements in the list
+ */
+final class AppendOnlyList<E> {
+
+    /**
+     * Number of bits in the size of the first segment
+     */
+    private static final int FIRST_SEGMENT_BITS = 4;
+
+    /**
+     * Size of the first segment, each following segment is twice the size of the previous one
+     */
+    private static final int FIRST_SEGMENT_SIZE = 1 << FIRST_SEGMENT_BITS;
+
+    /**
+     * Segments holding the elements, created when they are first needed. A slot is null
+     * until its element is published.
+     */
+    private final AtomicReferenceArray<AtomicReferenceArray<E>> segments =
+            new AtomicReferenceArray<>(Integer.SIZE - FIRST_SEGMENT_BITS);
+
+    /**
+     * Next index to be claimed by an append
+     */
+    private final AtomicInteger claimed = new AtomicInteger();
+
+    /**
+     * Number of elements known to be published, which readers advance past slots that have
+     * since been stored
+     */
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * Appends an element to the end of the list
+     * @param element element to be added
+     * @throws IllegalArgumentException if the element is null
+     */
+    void add(E element) throws IllegalArgumentException {
+        if (element == null) {
+            throw new IllegalArgumentException("Element is null");
+        }
+        int index = claimed.getAndIncrement();
+        int segment = segmentOf(index);
+        AtomicReferenceArray<E> elements = segments.get(segment);
+        if (elements == null) {
+            segments.compareAndSet(segment, null,
+                    new AtomicReferenceArray<>(FIRST_SEGMENT_SIZE << segment));
+            elements = segments.get(segment);
+        }
+        elements.set(offsetOf(index, segment), element);
+    }
+
+    /**
+     * Returns the element at the given index
+     * @param index index of the element
+     * @return element at the index
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the size
+     */
+    E get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= published.get() && index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return slot(index);
+    }
+
+    /**
+     * Returns the number of elements in the list, which is the number of elements before
+     * the first slot that hasn't been published
+     * @return number of elements
+     */
+    int size() {
+        int known = published.get();
+        int size = known;
+        int end = claimed.get();
+        while (size < end && slot(size) != null) {
+            size++;
+        }
+        if (size > known) {
+            published.accumulateAndGet(size, Math::max);
+        }
+        return size;
+    }
+
+    /**
+     * Returns a copy of the elements currently in the list
+     * @return new list containing the elements in insertion order
+     */
+    List<E> toList() {
+        int size = size();
+        List<E> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            copy.add(slot(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the element stored in a slot
+     * @param index index of the slot, which must have been claimed
+     * @return element in the slot, or null if it hasn't been published
+     */
+    private E slot(int index) {
+        int segment = segmentOf(index);
+        AtomicReferenceArray<E> elements = segments.get(segment);
+        return elements == null ? null : elements.get(offsetOf(index, segment));
+    }
+
+    /**
+     * Returns the segment that holds the given index
+     * @param index index of an element
+     * @return segment number
+     */
+    private static int segmentOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_SEGMENT_BITS) + 1);
+    }
+
+    /**
+     * Returns the position of an index within its segment
+     * @param index index of an element
+     * @param segment segment that holds the index
+     * @return offset within the segment
+     */
+    private static int offsetOf(int index, int segment) {
+        return index - (((1 << segment) - 1) << FIRST_SEGMENT_BITS);
+    }
+}
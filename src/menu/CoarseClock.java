@@ -0,0 +1,204 @@
+package menu;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock that only reads the time it is based on once per tick, from a background ticker,
+ * so reading it costs no more than reading a field. It is for taking orders at a high rate,
+ * where timestamps only need to be as accurate as the tick.
+ * <p>
+ * The local date and time in the clock's zone are worked out once per tick as well, see
+ * {@link #localDateTime()}. Close the clock to stop its ticker.
+ */
+public final class CoarseClock extends Clock implements AutoCloseable {
+
+    /**
+     * Clock the time is read from on each tick
+     */
+    private final Clock source;
+
+    /**
+     * Runs the ticks, or null if the clock is only ticked by hand
+     */
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Time read on the last tick
+     */
+    private volatile Reading reading;
+
+    /**
+     * Time read on a tick, in both forms
+     */
+    private static final class Reading {
+
+        /**
+         * Instant that was read
+         */
+        private final Instant instant;
+
+        /**
+         * Local date and time of the instant in the clock's zone
+         */
+        private final LocalDateTime dateTime;
+
+        /**
+         * Creates a reading
+         * @param instant instant that was read
+         * @param zone zone of the clock
+         */
+        private Reading(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.dateTime = LocalDateTime.ofInstant(instant, zone);
+        }
+    }
+
+    /**
+     * Creates a clock and reads the time for the first time
+     * @param source clock the time is read from on each tick
+     * @param ticker runs the ticks, or null if the clock is only ticked by hand
+     */
+    private CoarseClock(Clock source, ScheduledExecutorService ticker) {
+        this.source = source;
+        this.ticker = ticker;
+        tick();
+    }
+
+    /**
+     * Starts a clock that reads the system clock in the default time zone
+     * @param resolution time between ticks
+     * @return the running clock
+     * @throws IllegalArgumentException if the resolution is null or not positive
+     */
+    public static CoarseClock start(Duration resolution) throws IllegalArgumentException {
+        return start(Clock.systemDefaultZone(), resolution);
+    }
+
+    /**
+     * Starts a clock that reads another clock, taking its zone
+     * @param source clock the time is read from on each tick
+     * @param resolution time between ticks
+     * @return the running clock
+     * @throws IllegalArgumentException if the source or resolution is null, or the
+     * resolution is not positive
+     */
+    public static CoarseClock start(Clock source, Duration resolution)
+            throws IllegalArgumentException {
+        if (source == null) {
+            throw new IllegalArgumentException("Source clock was null");
+        } else if (resolution == null || resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CoarseClock clock = new CoarseClock(source, ticker);
+        long nanos = resolution.toNanos();
+        ticker.scheduleAtFixedRate(clock::tick, nanos, nanos, TimeUnit.NANOSECONDS);
+        return clock;
+    }
+
+    /**
+     * Creates a clock with no ticker, which only moves when {@link #tick()} is called, for
+     * tests and simulations
+     * @param source clock the time is read from on each tick
+     * @return the clock
+     * @throws IllegalArgumentException if the source is null
+     */
+    public static CoarseClock manual(Clock source) throws IllegalArgumentException {
+        if (source == null) {
+            throw new IllegalArgumentException("Source clock was null");
+        }
+        return new CoarseClock(source, null);
+    }
+
+    /**
+     * Reads the time from the source clock
+     */
+    public void tick() {
+        reading = new Reading(source.instant(), source.getZone());
+    }
+
+    /**
+     * Returns the local date and time in the clock's zone as of the last tick, which is only
+     * worked out once per tick
+     * @return local date and time
+     */
+    public LocalDateTime localDateTime() {
+        return reading.dateTime;
+    }
+
+    /**
+     * Returns the instant read on the last tick
+     * @return the instant
+     */
+    @Override
+    public Instant instant() {
+        return reading.instant;
+    }
+
+    /**
+     * Returns the milliseconds since the epoch read on the last tick
+     * @return epoch milliseconds
+     */
+    @Override
+    public long millis() {
+        return reading.instant.toEpochMilli();
+    }
+
+    /**
+     * Returns the zone of the source clock
+     * @return time zone
+     */
+    @Override
+    public ZoneId getZone() {
+        return source.getZone();
+    }
+
+    /**
+     * Returns a clock with the same ticks in another zone
+     * @param zone time zone
+     * @return this clock if the zone is the same, otherwise a view of this clock
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone.equals(getZone())) {
+            return this;
+        }
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId other) {
+                return CoarseClock.this.withZone(other);
+            }
+
+            @Override
+            public Instant instant() {
+                return CoarseClock.this.instant();
+            }
+        };
+    }
+
+    /**
+     * Stops the ticker, after which the clock keeps the time of its last tick
+     */
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+}
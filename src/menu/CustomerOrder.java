@@ -70,13 +70,14 @@ public class CustomerOrder {
     }
 
     /**
-     * Prompts the user for their name
+     * Prompts the user for their name until one is given. Orders made without a user
+     * interface should use {@link #CustomerOrder(String)} or {@link OrderService} instead.
      * @return the name of the customer
      */
     protected String requestName() {
         String name = javax.swing.JOptionPane.showInputDialog("What is your name?");
-        if (name == null) {
-            name = requestName();
+        while (name == null) {
+            name = javax.swing.JOptionPane.showInputDialog("What is your name?");
         }
         return name;
     }
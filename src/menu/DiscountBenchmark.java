@@ -0,0 +1,159 @@
+package menu;
+
+import exceptions.TooManyToppingsException;
+import pizza.CustomPizza;
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark that finds the discount for random orders against a set of random promotions
+ * and reports the average time per order.
+ * <p>
+ * Usage: {@code DiscountBenchmark [rules] [pizzas] [orders]}. The rules are a mix of
+ * quantity tiers, size deals, topping bundles and time windows. Two times are reported: one
+ * for summarising an order's pizzas and checking the rules, as
+ * {@link DiscountRules#bestRuleFor(List, long, LocalTime)} does, and one for only checking
+ * the rules against an order that is already summarised, as {@link Order} does each time a
+ * pizza is added.
+ */
+public final class DiscountBenchmark {
+
+    /**
+     * Number of toppings the rules and pizzas are made with
+     */
+    private static final int TOPPINGS = 20;
+
+    /**
+     * Number of times each measurement is repeated, the fastest is reported
+     */
+    private static final int REPEATS = 5;
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private DiscountBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args optionally the number of rules, the number of pizzas in each order and the
+     * number of orders
+     * @throws TooManyToppingsException never, as each pizza has at most two toppings
+     */
+    public static void main(String[] args) throws TooManyToppingsException {
+        int ruleCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int pizzaCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int orderCount = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+        Random random = new Random(1);
+        Topping[] toppings = new Topping[TOPPINGS];
+        for (int i = 0; i < TOPPINGS; i++) {
+            Topping.tryCreateTopping("Benchmark topping " + i, i % 2 == 0);
+            toppings[i] = Topping.valueOf("Benchmark topping " + i);
+        }
+        DiscountRules rules = DiscountRules.compile(rules(random, ruleCount, toppings));
+
+        List<List<Pizza>> orders = new ArrayList<>();
+        long[] totals = new long[orderCount];
+        LocalTime[] times = new LocalTime[orderCount];
+        DiscountRules.Tally[] tallies = new DiscountRules.Tally[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            List<Pizza> pizzas = pizzas(random, pizzaCount, toppings);
+            orders.add(pizzas);
+            tallies[i] = rules.newTally();
+            for (Pizza pizza : pizzas) {
+                totals[i] += pizza.totalCents();
+                tallies[i].add(pizza);
+            }
+            times[i] = LocalTime.of(random.nextInt(24), random.nextInt(60));
+        }
+
+        long bestOrderNanos = Long.MAX_VALUE;
+        long bestTallyNanos = Long.MAX_VALUE;
+        long check = 0;
+        for (int repeat = 0; repeat < REPEATS; repeat++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < orderCount; i++) {
+                DiscountRule rule = rules.bestRuleFor(orders.get(i), totals[i], times[i]);
+                check += rule == null ? 0 : rule.getMinPizzas();
+            }
+            bestOrderNanos = Math.min(bestOrderNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < orderCount; i++) {
+                check += rules.discountCents(tallies[i], totals[i], times[i]);
+            }
+            bestTallyNanos = Math.min(bestTallyNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("rules=%d pizzas=%d orders=%d%n", ruleCount, pizzaCount, orderCount);
+        System.out.printf("per order with tally: %.0f ns%n", (double) bestOrderNanos / orderCount);
+        System.out.printf("per order, rules only: %.0f ns%n",
+                (double) bestTallyNanos / orderCount);
+        // Print the result so the work can't be skipped
+        System.out.println("checksum: " + check);
+    }
+
+    /**
+     * Creates random rules
+     * @param random source of randomness
+     * @param count number of rules
+     * @param toppings toppings the bundles are made from
+     * @return the rules
+     */
+    private static List<DiscountRule> rules(Random random, int count, Topping[] toppings) {
+        Bases.BaseSize[] sizes = Bases.BaseSize.values();
+        List<DiscountRule> rules = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DiscountRule rule = DiscountRule.percentAndCentsOff("Promotion " + i,
+                    1 + random.nextInt(8), random.nextInt(4) * 5, random.nextInt(4) * 100);
+            switch (i % 4) {
+                case 1:
+                    rule = rule.withSize(sizes[random.nextInt(sizes.length)]);
+                    break;
+                case 2:
+                    rule = rule.withToppings(List.of(toppings[random.nextInt(toppings.length)],
+                            toppings[random.nextInt(toppings.length)]));
+                    break;
+                case 3:
+                    int start = random.nextInt(24);
+                    rule = rule.withTimes(LocalTime.of(start, 0),
+                            LocalTime.of((start + 1 + random.nextInt(4)) % 24, 0));
+                    break;
+                default:
+                    break;
+            }
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    /**
+     * Creates random pizzas, which are not registered with the menu
+     * @param random source of randomness
+     * @param count number of pizzas
+     * @param toppings toppings the pizzas are made with
+     * @return the pizzas
+     * @throws TooManyToppingsException never, as each pizza has at most two toppings
+     */
+    private static List<Pizza> pizzas(Random random, int count, Topping[] toppings)
+            throws TooManyToppingsException {
+        Bases.BaseSize[] sizes = Bases.BaseSize.values();
+        List<Pizza> pizzas = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pizzas.add(CustomPizza.forOrder(sizes[random.nextInt(sizes.length)],
+                    Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA,
+                    List.of(toppings[random.nextInt(toppings.length)],
+                            toppings[random.nextInt(toppings.length)])));
+        }
+        return pizzas;
+    }
+}
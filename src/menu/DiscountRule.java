@@ -0,0 +1,273 @@
+package menu;
+
+import pizza.ingredients.Bases;
+import pizza.ingredients.Topping;
+
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A discount that applies to an order when all of its conditions are met, which are:
+ * <ul>
+ *     <li>the order has at least a number of pizzas, optionally only counting one size</li>
+ *     <li>the order has every topping in a bundle, on any of its pizzas</li>
+ *     <li>the order was made within a time of day</li>
+ * </ul>
+ * The discount is a percentage of the order total, an amount off the order total, or both.
+ * Rules are immutable, each of the with methods returns a new rule.
+ */
+public final class DiscountRule {
+
+    /**
+     * Name of the rule
+     */
+    private final String name;
+
+    /**
+     * Minimum number of pizzas in the order
+     */
+    private final int minPizzas;
+
+    /**
+     * Size of the pizzas counted towards the minimum, or null to count every pizza
+     */
+    private final Bases.BaseSize size;
+
+    /**
+     * Toppings that must all be in the order
+     */
+    private final List<Topping> toppings;
+
+    /**
+     * Start of the time of day the rule applies from, or null if it applies all day
+     */
+    private final LocalTime start;
+
+    /**
+     * End of the time of day the rule applies until, or null if it applies all day
+     */
+    private final LocalTime end;
+
+    /**
+     * Percentage taken off the order total
+     */
+    private final int percentOff;
+
+    /**
+     * Amount taken off the order total in cents
+     */
+    private final long centsOff;
+
+    /**
+     * Creates a discount rule
+     * @param name name of the rule
+     * @param minPizzas minimum number of pizzas in the order
+     * @param size size of the pizzas counted, or null for every pizza
+     * @param toppings toppings that must all be in the order
+     * @param start start of the time of day, or null for all day
+     * @param end end of the time of day, or null for all day
+     * @param percentOff percentage taken off the order total
+     * @param centsOff amount taken off the order total in cents
+     */
+    private DiscountRule(String name, int minPizzas, Bases.BaseSize size, List<Topping> toppings,
+                         LocalTime start, LocalTime end, int percentOff, long centsOff) {
+        this.name = name;
+        this.minPizzas = minPizzas;
+        this.size = size;
+        this.toppings = toppings;
+        this.start = start;
+        this.end = end;
+        this.percentOff = percentOff;
+        this.centsOff = centsOff;
+    }
+
+    /**
+     * Creates a rule that takes a percentage off orders with at least a number of pizzas
+     * @param name name of the rule
+     * @param minPizzas minimum number of pizzas in the order
+     * @param percentOff percentage taken off the order total, from 0 to 100
+     * @return the new rule
+     * @throws IllegalArgumentException if the name is blank, the number of pizzas is
+     * negative or the percentage is out of range
+     */
+    public static DiscountRule percentOff(String name, int minPizzas, int percentOff)
+            throws IllegalArgumentException {
+        return create(name, minPizzas, percentOff, 0);
+    }
+
+    /**
+     * Creates a rule that takes an amount off orders with at least a number of pizzas
+     * @param name name of the rule
+     * @param minPizzas minimum number of pizzas in the order
+     * @param centsOff amount taken off the order total in cents
+     * @return the new rule
+     * @throws IllegalArgumentException if the name is blank, or the number of pizzas or
+     * amount is negative
+     */
+    public static DiscountRule centsOff(String name, int minPizzas, long centsOff)
+            throws IllegalArgumentException {
+        return create(name, minPizzas, 0, centsOff);
+    }
+
+    /**
+     * Creates a rule that takes both a percentage and an amount off orders with at least a
+     * number of pizzas
+     * @param name name of the rule
+     * @param minPizzas minimum number of pizzas in the order
+     * @param percentOff percentage taken off the order total, from 0 to 100
+     * @param centsOff amount taken off the order total in cents
+     * @return the new rule
+     * @throws IllegalArgumentException if the name is blank, the number of pizzas or amount
+     * is negative or the percentage is out of range
+     */
+    public static DiscountRule percentAndCentsOff(String name, int minPizzas, int percentOff,
+                                                  long centsOff) throws IllegalArgumentException {
+        return create(name, minPizzas, percentOff, centsOff);
+    }
+
+    /**
+     * Creates a rule that applies to every time of day and pizza size
+     * @param name name of the rule
+     * @param minPizzas minimum number of pizzas in the order
+     * @param percentOff percentage taken off the order total
+     * @param centsOff amount taken off the order total in cents
+     * @return the new rule
+     * @throws IllegalArgumentException if any of the values are invalid
+     */
+    private static DiscountRule create(String name, int minPizzas, int percentOff, long centsOff)
+            throws IllegalArgumentException {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name is null or blank");
+        } else if (minPizzas < 0) {
+            throw new IllegalArgumentException("Minimum pizzas is negative");
+        } else if (percentOff < 0 || percentOff > 100) {
+            throw new IllegalArgumentException("Percentage is not between 0 and 100");
+        } else if (centsOff < 0) {
+            throw new IllegalArgumentException("Amount off is negative");
+        }
+        return new DiscountRule(name, minPizzas, null, Collections.emptyList(), null, null,
+                percentOff, centsOff);
+    }
+
+    /**
+     * Returns this rule, only counting pizzas of one size towards the minimum
+     * @param size size of the pizzas counted, or null for every pizza
+     * @return the new rule
+     */
+    public DiscountRule withSize(Bases.BaseSize size) {
+        return new DiscountRule(name, minPizzas, size, toppings, start, end,
+                percentOff, centsOff);
+    }
+
+    /**
+     * Returns this rule, only applying to orders that have every one of a bundle of toppings
+     * @param toppings toppings that must all be in the order
+     * @return the new rule
+     * @throws IllegalArgumentException if the toppings or any topping is null
+     */
+    public DiscountRule withToppings(Collection<Topping> toppings)
+            throws IllegalArgumentException {
+        if (toppings == null) {
+            throw new IllegalArgumentException("Toppings was null");
+        }
+        for (Topping topping : toppings) {
+            if (topping == null) {
+                throw new IllegalArgumentException("Toppings was null");
+            }
+        }
+        return new DiscountRule(name, minPizzas, size, List.copyOf(toppings), start, end,
+                percentOff, centsOff);
+    }
+
+    /**
+     * Returns this rule, only applying to orders made from the start time until before the
+     * end time. The times can wrap past midnight, such as from 22:00 to 02:00.
+     * @param start start of the time of day
+     * @param end end of the time of day
+     * @return the new rule
+     * @throws IllegalArgumentException if either time is null
+     */
+    public DiscountRule withTimes(LocalTime start, LocalTime end)
+            throws IllegalArgumentException {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Time was null");
+        }
+        return new DiscountRule(name, minPizzas, size, toppings, start, end,
+                percentOff, centsOff);
+    }
+
+    /**
+     * Returns the name of the rule
+     * @return name of the rule
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the minimum number of pizzas in the order
+     * @return minimum number of pizzas
+     */
+    public int getMinPizzas() {
+        return minPizzas;
+    }
+
+    /**
+     * Returns the size of the pizzas counted towards the minimum
+     * @return size of the pizzas, or null if every pizza is counted
+     */
+    public Bases.BaseSize getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the toppings that must all be in the order
+     * @return unmodifiable list of toppings
+     */
+    public List<Topping> getToppings() {
+        return toppings;
+    }
+
+    /**
+     * Returns the start of the time of day the rule applies from
+     * @return start time, or null if the rule applies all day
+     */
+    public LocalTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end of the time of day the rule applies until
+     * @return end time, or null if the rule applies all day
+     */
+    public LocalTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the percentage taken off the order total
+     * @return percentage off
+     */
+    public int getPercentOff() {
+        return percentOff;
+    }
+
+    /**
+     * Returns the amount taken off the order total in cents
+     * @return amount off in cents
+     */
+    public long getCentsOff() {
+        return centsOff;
+    }
+
+    /**
+     * Returns the name of the rule
+     * @return name of the rule
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,517 @@
+package menu;
+
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Topping;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Set of discount rules compiled into flat tables, which finds the best discount for an
+ * order without checking every rule.
+ * <p>
+ * The pizzas are first summarised into a count of pizzas of each size and a bit mask of
+ * which bundled toppings the order has. Rules are numbered from the largest percentage off
+ * to the smallest, and for each pizza size and minimum count, and for each stretch of the
+ * day that no rule starts or ends in, the rules that apply are stored as a bit set. Finding
+ * the discount takes a few binary searches to pick those sets, then goes through the rules
+ * left after combining them in order. As the later rules take a smaller percentage off, it
+ * stops as soon as none of them could beat the best discount found so far, so the time taken
+ * grows with the number of pizzas plus the number of rules that are close to the best,
+ * rather than with every rule. Only the single best discount is applied to an order.
+ */
+public final class DiscountRules {
+
+    /**
+     * Value in the size table for rules that count pizzas of every size
+     */
+    private static final int ANY_SIZE = Bases.BaseSize.values().length;
+
+    /**
+     * Value in the time tables for rules that apply all day
+     */
+    private static final int ALL_DAY = -1;
+
+    /**
+     * Number of bits in each word of a topping mask or rule set
+     */
+    private static final int WORD_BITS = Long.SIZE;
+
+    /**
+     * Rules used when none are given, which take 10% off orders of 3 or more pizzas and 25%
+     * off orders of 6 or more pizzas, the same as {@link Order#DISCOUNT_10} and
+     * {@link Order#DISCOUNT_25}
+     */
+    public static final DiscountRules DEFAULT = compile(List.of(
+            DiscountRule.percentOff("Multi item discount", 3, 10),
+            DiscountRule.percentOff("Multi item discount", 6, 25)));
+
+    /**
+     * Rules in the order they were given
+     */
+    private final List<DiscountRule> rules;
+
+    /**
+     * Index in the given rules of each numbered rule. Rules are numbered by decreasing
+     * percentage off, then decreasing amount off, then the order they were given in.
+     */
+    private final int[] ruleIndexes;
+
+    /**
+     * Number of each rule, by its index in the given rules
+     */
+    private final int[] ruleNumbers;
+
+    /**
+     * Percentage off of each numbered rule
+     */
+    private final int[] percentsOff;
+
+    /**
+     * Amount off of each numbered rule in cents
+     */
+    private final long[] centsOff;
+
+    /**
+     * Largest amount off in cents of each numbered rule and every rule after it, used to
+     * stop once no later rule can give a larger discount
+     */
+    private final long[] maxCentsOffFrom;
+
+    /**
+     * Number of the first rule after each numbered rule with a smaller percentage off, or
+     * the number of rules if there is none
+     */
+    private final int[] smallerPercentFrom;
+
+    /**
+     * Number of the first rule after each numbered rule with a different percentage or
+     * amount off, or the number of rules if there is none
+     */
+    private final int[] differentDiscountFrom;
+
+    /**
+     * Number of words in each set of rules
+     */
+    private final int ruleWords;
+
+    /**
+     * For each size ordinal, and ANY_SIZE, the sorted distinct minimum counts of the rules
+     * counting that size
+     */
+    private final int[][] minPizzas;
+
+    /**
+     * For each size ordinal, and ANY_SIZE, the set of rules counting that size whose minimum
+     * is at most each of its minimum counts, with the words of count i starting at
+     * i * ruleWords
+     */
+    private final long[][] sizeSets;
+
+    /**
+     * Sorted minutes after midnight that the stretches of the day start at, the first is
+     * always 0 and no rule starts or ends within a stretch
+     */
+    private final int[] stretchStarts;
+
+    /**
+     * Set of rules that apply during each stretch of the day, with the words of stretch i
+     * starting at i * ruleWords
+     */
+    private final long[] stretchSets;
+
+    /**
+     * Sorted ordinals of every topping in any rule's bundle, the index of an ordinal is the
+     * bit used for that topping in the masks
+     */
+    private final int[] bundleOrdinals;
+
+    /**
+     * Number of words in each topping mask
+     */
+    private final int maskWords;
+
+    /**
+     * Bundle of each numbered rule as a topping mask, with the words of rule i starting at
+     * i * maskWords
+     */
+    private final long[] bundleMasks;
+
+    /**
+     * Creates a compiled set of rules
+     * @param rules rules to be compiled
+     */
+    private DiscountRules(List<DiscountRule> rules) {
+        this.rules = rules;
+        int count = rules.size();
+        ruleIndexes = IntStream.range(0, count).boxed()
+                .sorted(Comparator.comparingInt((Integer i) -> -rules.get(i).getPercentOff())
+                        .thenComparingLong(i -> -rules.get(i).getCentsOff()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        ruleNumbers = new int[count];
+        percentsOff = new int[count];
+        centsOff = new long[count];
+        maxCentsOffFrom = new long[count];
+        smallerPercentFrom = new int[count];
+        differentDiscountFrom = new int[count];
+        ruleWords = (count + WORD_BITS - 1) / WORD_BITS;
+
+        bundleOrdinals = rules.stream()
+                .flatMap(rule -> rule.getToppings().stream())
+                .mapToInt(Topping::ordinal)
+                .distinct()
+                .sorted()
+                .toArray();
+        maskWords = (bundleOrdinals.length + WORD_BITS - 1) / WORD_BITS;
+        bundleMasks = new long[count * maskWords];
+
+        int[] sizes = new int[count];
+        int[] startMinutes = new int[count];
+        int[] endMinutes = new int[count];
+        for (int i = 0; i < count; i++) {
+            DiscountRule rule = rules.get(ruleIndexes[i]);
+            ruleNumbers[ruleIndexes[i]] = i;
+            percentsOff[i] = rule.getPercentOff();
+            centsOff[i] = rule.getCentsOff();
+            sizes[i] = rule.getSize() == null ? ANY_SIZE : rule.getSize().ordinal();
+            startMinutes[i] = rule.getStart() == null ? ALL_DAY : minuteOfDay(rule.getStart());
+            endMinutes[i] = rule.getEnd() == null ? ALL_DAY : minuteOfDay(rule.getEnd());
+            for (Topping topping : rule.getToppings()) {
+                int bit = Arrays.binarySearch(bundleOrdinals, topping.ordinal());
+                bundleMasks[i * maskWords + bit / WORD_BITS] |= 1L << bit;
+            }
+        }
+        long maxCentsOff = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            maxCentsOff = Math.max(maxCentsOff, centsOff[i]);
+            maxCentsOffFrom[i] = maxCentsOff;
+            boolean last = i + 1 == count;
+            smallerPercentFrom[i] = last || percentsOff[i + 1] != percentsOff[i]
+                    ? i + 1 : smallerPercentFrom[i + 1];
+            differentDiscountFrom[i] = last || percentsOff[i + 1] != percentsOff[i]
+                    || centsOff[i + 1] != centsOff[i] ? i + 1 : differentDiscountFrom[i + 1];
+        }
+
+        minPizzas = new int[ANY_SIZE + 1][];
+        sizeSets = new long[ANY_SIZE + 1][];
+        for (int size = 0; size <= ANY_SIZE; size++) {
+            int countedSize = size;
+            int[] mins = IntStream.range(0, count)
+                    .filter(i -> sizes[i] == countedSize)
+                    .map(i -> rules.get(ruleIndexes[i]).getMinPizzas())
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            long[] sets = new long[mins.length * ruleWords];
+            for (int i = 0; i < count; i++) {
+                if (sizes[i] != size) {
+                    continue;
+                }
+                int min = rules.get(ruleIndexes[i]).getMinPizzas();
+                for (int m = Arrays.binarySearch(mins, min); m < mins.length; m++) {
+                    sets[m * ruleWords + i / WORD_BITS] |= 1L << i;
+                }
+            }
+            minPizzas[size] = mins;
+            sizeSets[size] = sets;
+        }
+
+        stretchStarts = IntStream.concat(IntStream.of(0),
+                        IntStream.concat(Arrays.stream(startMinutes), Arrays.stream(endMinutes)))
+                .filter(minute -> minute != ALL_DAY)
+                .distinct()
+                .sorted()
+                .toArray();
+        stretchSets = new long[stretchStarts.length * ruleWords];
+        for (int s = 0; s < stretchStarts.length; s++) {
+            for (int i = 0; i < count; i++) {
+                if (isWithinTimes(startMinutes[i], endMinutes[i], stretchStarts[s])) {
+                    stretchSets[s * ruleWords + i / WORD_BITS] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles a list of discount rules
+     * @param rules rules to be compiled
+     * @return the compiled rules
+     * @throws IllegalArgumentException if the list or a rule is null
+     */
+    public static DiscountRules compile(List<DiscountRule> rules)
+            throws IllegalArgumentException {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rules was null");
+        }
+        for (DiscountRule rule : rules) {
+            if (rule == null) {
+                throw new IllegalArgumentException("Rules was null");
+            }
+        }
+        return new DiscountRules(List.copyOf(rules));
+    }
+
+    /**
+     * Returns the rules that were compiled
+     * @return unmodifiable list of the rules, in the order they were given
+     */
+    public List<DiscountRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the largest discount given by any rule that applies to an order
+     * @param pizzas pizzas in the order
+     * @param totalCents total price of the pizzas in cents
+     * @param time time of day the order was made
+     * @return discount in cents, which is 0 if no rule applies and never more than the total
+     */
+    public long discountCents(List<? extends Pizza> pizzas, long totalCents, LocalTime time) {
+        return discountCents(tally(pizzas), totalCents, time);
+    }
+
+    /**
+     * Returns the rule giving the largest discount to an order
+     * @param pizzas pizzas in the order
+     * @param totalCents total price of the pizzas in cents
+     * @param time time of day the order was made
+     * @return the rule with the largest discount, or null if no rule applies
+     */
+    public DiscountRule bestRuleFor(List<? extends Pizza> pizzas, long totalCents,
+                                    LocalTime time) {
+        int best = bestRule(tally(pizzas), totalCents, time);
+        return best < 0 ? null : rules.get(best);
+    }
+
+    /**
+     * Creates an empty tally of an order's pizzas for these rules
+     * @return the new tally
+     */
+    Tally newTally() {
+        return new Tally();
+    }
+
+    /**
+     * Returns the largest discount given by any rule that applies to a tallied order
+     * @param tally tally of the pizzas in the order, created by these rules
+     * @param totalCents total price of the pizzas in cents
+     * @param time time of day the order was made
+     * @return discount in cents, which is 0 if no rule applies and never more than the total
+     */
+    long discountCents(Tally tally, long totalCents, LocalTime time) {
+        int best = bestRule(tally, totalCents, time);
+        return best < 0 ? 0 : discountCents(best, totalCents);
+    }
+
+    /**
+     * Tallies a list of pizzas
+     * @param pizzas pizzas in the order
+     * @return tally of the pizzas
+     */
+    private Tally tally(List<? extends Pizza> pizzas) {
+        Tally tally = new Tally();
+        for (int i = 0; i < pizzas.size(); i++) {
+            tally.add(pizzas.get(i));
+        }
+        return tally;
+    }
+
+    /**
+     * Returns the index of the rule giving the largest discount to an order, the first such
+     * rule is used if several give the same discount
+     * @param tally tally of the pizzas in the order
+     * @param totalCents total price of the pizzas in cents
+     * @param time time of day the order was made
+     * @return index of the rule in {@link #getRules()}, or -1 if no rule applies
+     */
+    int bestRule(Tally tally, long totalCents, LocalTime time) {
+        int stretchOffset = lastAtMost(stretchStarts, minuteOfDay(time)) * ruleWords;
+        int[] sizeOffsets = new int[ANY_SIZE + 1];
+        for (int size = 0; size <= ANY_SIZE; size++) {
+            int m = lastAtMost(minPizzas[size], tally.sizeCounts[size]);
+            sizeOffsets[size] = m < 0 ? -1 : m * ruleWords;
+        }
+        int best = -1;
+        long bestCents = 0;
+        int from = 0;
+        while (from < percentsOff.length) {
+            int w = from / WORD_BITS;
+            long word = candidates(w, stretchOffset, sizeOffsets) & (-1L << from);
+            if (word == 0) {
+                from = (w + 1) * WORD_BITS;
+                continue;
+            }
+            int rule = w * WORD_BITS + Long.numberOfTrailingZeros(word);
+            if (best >= 0 && maxDiscountCents(rule, totalCents) < bestCents) {
+                // Neither this rule nor any later one takes as much off
+                break;
+            }
+            from = rule + 1;
+            if (!hasBundle(rule, tally.toppingMask)) {
+                continue;
+            }
+            long cents = numberedDiscountCents(rule, totalCents);
+            if (best < 0 || cents > bestCents
+                    || cents == bestCents && ruleIndexes[rule] < ruleIndexes[best]) {
+                best = rule;
+                bestCents = cents;
+                // The next rules with the same discount were given later, so can't replace it
+                from = differentDiscountFrom[rule];
+            }
+        }
+        return best < 0 ? -1 : ruleIndexes[best];
+    }
+
+    /**
+     * Returns a word of the set of rules whose size and time conditions an order meets
+     * @param word index of the word
+     * @param stretchOffset offset of the set of rules for the order's stretch of the day
+     * @param sizeOffsets offset of the set of rules met by the order's count of each size,
+     * or -1 if it meets none of them
+     * @return the word of the set
+     */
+    private long candidates(int word, int stretchOffset, int[] sizeOffsets) {
+        long candidates = 0;
+        for (int size = 0; size <= ANY_SIZE; size++) {
+            if (sizeOffsets[size] >= 0) {
+                candidates |= sizeSets[size][sizeOffsets[size] + word];
+            }
+        }
+        return candidates & stretchSets[stretchOffset + word];
+    }
+
+    /**
+     * Returns the discount a rule gives to an order total
+     * @param rule index of the rule in {@link #getRules()}
+     * @param totalCents total price of the order in cents
+     * @return discount in cents, rounded so the new total is to the nearest cent
+     */
+    long discountCents(int rule, long totalCents) {
+        return numberedDiscountCents(ruleNumbers[rule], totalCents);
+    }
+
+    /**
+     * Returns the discount a numbered rule gives to an order total
+     * @param rule number of the rule
+     * @param totalCents total price of the order in cents
+     * @return discount in cents, rounded so the new total is to the nearest cent
+     */
+    private long numberedDiscountCents(int rule, long totalCents) {
+        long discounted = (totalCents * (100 - percentsOff[rule]) + 50) / 100;
+        long cents = totalCents - discounted + centsOff[rule];
+        return Math.min(cents, totalCents);
+    }
+
+    /**
+     * Returns the largest discount a numbered rule or any rule after it could give to an
+     * order total. Rules after it with the same percentage off take no more off than it
+     * does, and the rest take at most the next smaller percentage and the largest amount.
+     * @param rule number of the rule
+     * @param totalCents total price of the order in cents
+     * @return most any of the rules could take off in cents
+     */
+    private long maxDiscountCents(int rule, long totalCents) {
+        long cents = numberedDiscountCents(rule, totalCents);
+        int smaller = smallerPercentFrom[rule];
+        if (smaller < percentsOff.length) {
+            long discounted = (totalCents * (100 - percentsOff[smaller]) + 50) / 100;
+            cents = Math.max(cents, Math.min(totalCents,
+                    totalCents - discounted + maxCentsOffFrom[smaller]));
+        }
+        return cents;
+    }
+
+    /**
+     * Returns whether an order time is within a rule's time of day
+     * @param start start of the rule in minutes after midnight, or ALL_DAY
+     * @param end end of the rule in minutes after midnight, or ALL_DAY
+     * @param minute minute of the day of the order
+     * @return true if the rule applies at that time
+     */
+    private static boolean isWithinTimes(int start, int end, int minute) {
+        if (start == ALL_DAY) {
+            return true;
+        } else if (start <= end) {
+            return minute >= start && minute < end;
+        }
+        // The times wrap past midnight
+        return minute >= start || minute < end;
+    }
+
+    /**
+     * Returns the index of the last value in a sorted array that is at most a given value
+     * @param values sorted distinct values
+     * @param value value to look for
+     * @return index of the last value not greater than the value, or -1 if there is none
+     */
+    private static int lastAtMost(int[] values, int value) {
+        int index = Arrays.binarySearch(values, value);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Returns whether an order has every topping in a rule's bundle
+     * @param rule number of the rule
+     * @param toppingMask mask of the bundled toppings in the order
+     * @return true if the order has the bundle
+     */
+    private boolean hasBundle(int rule, long[] toppingMask) {
+        int offset = rule * maskWords;
+        for (int i = 0; i < maskWords; i++) {
+            long required = bundleMasks[offset + i];
+            if ((toppingMask[i] & required) != required) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of minutes after midnight of a time
+     * @param time time of day
+     * @return minute of the day
+     */
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Summary of the pizzas in an order that the rules are checked against, which is a count
+     * of the pizzas of each size and a mask of the bundled toppings the order has. Pizzas
+     * can be added one at a time, so an order can keep its tally up to date as it grows.
+     */
+    final class Tally {
+
+        /**
+         * Number of pizzas of each size, the last count is for every size
+         */
+        private final int[] sizeCounts = new int[ANY_SIZE + 1];
+
+        /**
+         * Mask of the bundled toppings on any of the pizzas
+         */
+        private final long[] toppingMask = new long[maskWords];
+
+        /**
+         * Adds a pizza to the tally
+         * @param pizza pizza added to the order
+         */
+        void add(Pizza pizza) {
+            sizeCounts[pizza.getBaseSize().ordinal()]++;
+            sizeCounts[ANY_SIZE]++;
+            if (maskWords > 0) {
+                for (int i = 0; i < pizza.distinctToppings(); i++) {
+                    int bit = Arrays.binarySearch(bundleOrdinals, pizza.toppingOrdinal(i));
+                    if (bit >= 0) {
+                        toppingMask[bit / WORD_BITS] |= 1L << bit;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,22 +1,36 @@
 package menu;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Singleton class which defines the menu where items can be ordered from
+ * <p>
+ * Menu items can be registered from multiple threads at once, and reading the items never
+ * blocks on registration. A thread can also stage a complete replacement menu, which every
+ * other thread switches to in a single step once it is published.
  */
 public class Menu {
 
     /**
      * singleton instance of the menu class
      */
-    private static Menu instance;
+    private static final Menu instance = new Menu();
 
     /**
-     * List of menu items on the menu
+     * Menu items on the menu, replaced as a whole when the menu is cleared
      */
-    private static ArrayList<MenuItem> menuItemList = new ArrayList<>();
+    private static volatile Items items = new Items();
+
+    /**
+     * Menu items being registered by the current thread to replace the menu, if any
+     */
+    private static final ThreadLocal<Items> staged = new ThreadLocal<>();
 
     private Menu(){
 
@@ -27,9 +41,6 @@ public class Menu {
      * @return singleton instance of the menu
      */
     public static Menu getInstance() {
-        if (instance == null) {
-            instance = new Menu();
-        }
         return instance;
     }
 
@@ -38,7 +49,38 @@ public class Menu {
      * @return new copy of the list of menu items
      */
     public List<MenuItem> getItems() {
-        return new ArrayList<>(menuItemList);
+        return current().list.toList();
+    }
+
+    /**
+     * Returns a view of each menu item, in the same order as {@link #getItems()}. The views
+     * are built the first time they are needed after the menu changes, and the same list is
+     * returned until it changes again.
+     * @return unmodifiable list of views of the menu items
+     */
+    public List<MenuItemView> getViews() {
+        Items current = current();
+        List<MenuItemView> views = current.views;
+        if (views != null && views.size() == current.list.size()) {
+            return views;
+        }
+        synchronized (current) {
+            views = current.views;
+            int size = current.list.size();
+            if (views == null || views.size() != size) {
+                // Items are only ever appended, so keep the views that were already built
+                List<MenuItemView> built = new ArrayList<>(size);
+                if (views != null) {
+                    built.addAll(views);
+                }
+                for (int i = built.size(); i < size; i++) {
+                    built.add(new MenuItemView(current.list.get(i)));
+                }
+                views = Collections.unmodifiableList(built);
+                current.views = views;
+            }
+            return views;
+        }
     }
 
     /**
@@ -46,9 +88,48 @@ public class Menu {
      * @param item menu item to be added to the menu
      */
     public void registerMenuItem(MenuItem item) {
-        if (!menuItemList.contains(item)) {
-            menuItemList.add(item);
+        Items current = current();
+        if (current.registered.putIfAbsent(item, item) == null) {
+            current.members.add(new Member(item));
+            current.list.add(item);
+            current.index(item);
+        }
+    }
+
+    /**
+     * Updates the name index after a registered menu item has been renamed, so that a name
+     * is only ever missing from the index if no item on the menu has it
+     * @param item menu item whose name has changed
+     * @param oldName name the item had before it was renamed
+     */
+    public void nameChanged(MenuItem item, String oldName) {
+        Items current = current();
+        // Look the item up by identity, as its hash can change with its toppings
+        if (current.members.contains(new Member(item))) {
+            // Another item with the old name takes over its place in the index, if any
+            current.byName.computeIfPresent(oldName, (name, indexed) ->
+                    indexed == item ? current.findFirst(name) : indexed);
+            current.index(item);
+            synchronized (current) {
+                current.views = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the menu item with the given name, using the name index only
+     * @param name name of the menu item
+     * @return the item with the given name, or an empty optional if there is no such item
+     */
+    public Optional<MenuItem> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
         }
+        MenuItem item = current().byName.get(name);
+        if (item != null && name.equals(item.getName())) {
+            return Optional.of(item);
+        }
+        return Optional.empty();
     }
 
     /**
@@ -58,16 +139,146 @@ public class Menu {
      * @throws IndexOutOfBoundsException if the array is null or the index doesn't exist
      */
     public MenuItem get(int index) throws IndexOutOfBoundsException {
-        if (menuItemList == null || index > (menuItemList.size() - 1)) {
-            throw new IndexOutOfBoundsException();
-        }
-        return menuItemList.get(index);
+        return current().list.get(index);
     }
 
     /**
      * Removes all loaded menu items from the menu
      */
     public void clear() {
-        menuItemList = new ArrayList<>();
+        if (staged.get() != null) {
+            staged.set(new Items());
+        } else {
+            items = new Items();
+        }
+    }
+
+    /**
+     * Starts staging a replacement menu on the current thread. Until it is published, menu
+     * items registered on this thread are only added to the staged menu, and this thread
+     * reads the staged menu, while other threads keep using the current one.
+     */
+    public void stage() {
+        staged.set(new Items());
+    }
+
+    /**
+     * Replaces the menu with the one staged on the current thread, in a single step for
+     * every thread. Items already taken from the old menu are not affected.
+     * @throws IllegalStateException if no menu is being staged on the current thread
+     */
+    public void publishStaged() throws IllegalStateException {
+        Items replacement = staged.get();
+        if (replacement == null) {
+            throw new IllegalStateException("No menu is staged");
+        }
+        staged.remove();
+        items = replacement;
+    }
+
+    /**
+     * Discards the menu staged on the current thread, leaving the menu unchanged
+     */
+    public void discardStaged() {
+        staged.remove();
+    }
+
+    /**
+     * Returns the menu items used by the current thread
+     * @return the staged items if there are any, otherwise the published items
+     */
+    private static Items current() {
+        Items replacement = staged.get();
+        return replacement != null ? replacement : items;
+    }
+
+    /**
+     * Menu item compared by identity instead of by its equals and hash code
+     */
+    private static final class Member {
+
+        /**
+         * The menu item
+         */
+        private final MenuItem item;
+
+        /**
+         * Creates a member for a menu item
+         * @param item the menu item
+         */
+        private Member(MenuItem item) {
+            this.item = item;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Member && ((Member) other).item == item;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item);
+        }
+    }
+
+    /**
+     * Menu items in the order they were registered, along with hash maps of the same
+     * items used to check whether an item has already been registered and to find
+     * items by name
+     */
+    private static final class Items {
+
+        /**
+         * Menu items that have been registered, mapped to themselves
+         */
+        private final Map<MenuItem, MenuItem> registered = new ConcurrentHashMap<>();
+
+        /**
+         * The same menu items compared by identity, which stay found however the items
+         * change
+         */
+        private final Set<Member> members = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Menu items in the order they were registered
+         */
+        private final AppendOnlyList<MenuItem> list = new AppendOnlyList<>();
+
+        /**
+         * Menu items by their name
+         */
+        private final Map<String, MenuItem> byName = new ConcurrentHashMap<>();
+
+        /**
+         * Views of the items, which may be missing the latest items or be null if they
+         * haven't been built since the menu changed
+         */
+        private volatile List<MenuItemView> views;
+
+        /**
+         * Adds an item to the name index, unless another item already holds its name
+         * @param item menu item to be indexed
+         */
+        private void index(MenuItem item) {
+            byName.compute(item.getName(), (name, existing) ->
+                    existing == null || !name.equals(existing.getName()) ? item : existing);
+        }
+
+        /**
+         * Returns the first registered item with a name, used when the item indexed under
+         * that name is renamed
+         * @param name name of the menu item
+         * @return the first item with the name, or null if there is none
+         */
+        private MenuItem findFirst(String name) {
+            int size = list.size();
+            for (int i = 0; i < size; i++) {
+                MenuItem item = list.get(i);
+                if (name.equals(item.getName())) {
+                    return item;
+                }
+            }
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
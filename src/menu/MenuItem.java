@@ -25,6 +25,13 @@ public interface MenuItem {
      */
     double getTotalPrice();
 
+    /**
+     * Returns the price of the menu item in cents, which should be used instead of
+     * {@link #getTotalPrice()} when adding up prices so the total is exact
+     * @return menu item price in cents
+     */
+    long totalCents();
+
     /**
      * Registers this item with the singleton menu class
      */
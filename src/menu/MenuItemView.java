@@ -0,0 +1,181 @@
+package menu;
+
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of a menu item with everything needed to show it, worked out once when the
+ * view is created so that showing a selection needs no formatting or string parsing.
+ * <p>
+ * The view shows the item as it was when the view was created.
+ */
+public final class MenuItemView {
+
+    /**
+     * Menu item being viewed
+     */
+    private final MenuItem item;
+
+    /**
+     * Name of the item
+     */
+    private final String name;
+
+    /**
+     * Name of each topping on the item, in order
+     */
+    private final List<String> toppingLabels;
+
+    /**
+     * Names of the toppings separated by commas
+     */
+    private final String toppingsLabel;
+
+    /**
+     * Price of the item for each base size in cents, indexed by the size ordinal
+     */
+    private final long[] sizeCents;
+
+    /**
+     * Price of the item for each base size, such as "$9.00", indexed by the size ordinal
+     */
+    private final String[] sizePriceLabels;
+
+    /**
+     * Whether every topping on the item is vegan
+     */
+    private final boolean veganToppings;
+
+    /**
+     * Creates a view of a menu item
+     * @param item menu item to be viewed
+     * @throws IllegalArgumentException if the item is null
+     */
+    public MenuItemView(MenuItem item) throws IllegalArgumentException {
+        if (item == null) {
+            throw new IllegalArgumentException("Menu item was null");
+        }
+        this.item = item;
+        this.name = item.getName();
+
+        List<String> labels = new ArrayList<>();
+        long baseCents = 0;
+        Bases.BaseSize itemSize = null;
+        boolean vegan = false;
+        if (item instanceof Pizza) {
+            Pizza pizza = (Pizza) item;
+            for (Topping topping : pizza.getToppings()) {
+                labels.add(topping.toString());
+            }
+            itemSize = pizza.getBaseSize();
+            baseCents = itemSize.getCents();
+            vegan = pizza.hasVeganToppings();
+        }
+        this.toppingLabels = Collections.unmodifiableList(labels);
+        this.toppingsLabel = String.join(", ", labels);
+        this.veganToppings = vegan;
+
+        // Only the base changes with the size, items that aren't pizzas cost the same in any size
+        Bases.BaseSize[] sizes = Bases.BaseSize.values();
+        sizeCents = new long[sizes.length];
+        sizePriceLabels = new String[sizes.length];
+        for (Bases.BaseSize size : sizes) {
+            long cents = item.totalCents();
+            if (itemSize != null) {
+                cents += size.getCents() - baseCents;
+            }
+            sizeCents[size.ordinal()] = cents;
+            sizePriceLabels[size.ordinal()] = priceLabel(cents);
+        }
+    }
+
+    /**
+     * Returns the menu item being viewed
+     * @return the menu item
+     */
+    public MenuItem getItem() {
+        return item;
+    }
+
+    /**
+     * Returns the name of the item
+     * @return item name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name of each topping on the item
+     * @return unmodifiable list of topping names, in order
+     */
+    public List<String> getToppingLabels() {
+        return toppingLabels;
+    }
+
+    /**
+     * Returns the names of the toppings separated by commas
+     * @return topping names, or an empty string if there are none
+     */
+    public String getToppingsLabel() {
+        return toppingsLabel;
+    }
+
+    /**
+     * Returns the price of the item with a given base size
+     * @param size size of the base
+     * @return price in cents
+     */
+    public long getCents(Bases.BaseSize size) {
+        return sizeCents[size.ordinal()];
+    }
+
+    /**
+     * Returns the price of the item with a given base size, such as "$9.00"
+     * @param size size of the base
+     * @return price label
+     */
+    public String getPriceLabel(Bases.BaseSize size) {
+        return sizePriceLabels[size.ordinal()];
+    }
+
+    /**
+     * Returns whether every topping on the item is vegan
+     * @return true if the toppings are vegan
+     */
+    public boolean hasVeganToppings() {
+        return veganToppings;
+    }
+
+    /**
+     * Returns the name of the item, which is what combo boxes show
+     * @return item name
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Returns a price with a dollar sign and two decimal places
+     * @param cents price in cents
+     * @return price label
+     */
+    private static String priceLabel(long cents) {
+        StringBuilder label = new StringBuilder("$");
+        try {
+            ReceiptFormat.appendMoney(label, cents);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return label.toString();
+    }
+}
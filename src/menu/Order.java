@@ -2,10 +2,16 @@ package menu;
 
 import pizza.Pizza;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -23,6 +29,16 @@ public class Order {
      */
     public static final MenuItem.Discount DISCOUNT_25 = (price) -> price * 0.75;
 
+    /**
+     * Makes the UUIDs of new orders
+     */
+    private static volatile OrderIdGenerator idGenerator = OrderIdGenerator.timeOrdered();
+
+    /**
+     * Clock the date and time of orders are taken from
+     */
+    private static volatile Clock clock = Clock.systemDefaultZone();
+
     /**
      * name of the customer
      */
@@ -48,15 +64,101 @@ public class Order {
      */
     private ArrayList<Pizza> pizzas;
 
+    /**
+     * {@link Pizza#changeCount()} of each pizza when it was last included in the totals
+     */
+    private int[] pizzaChangeCounts;
+
+    /**
+     * Rules used to find the discount for the order
+     */
+    private DiscountRules discountRules;
+
+    /**
+     * Tally of the pizzas in the order, used to check the discount rules
+     */
+    private DiscountRules.Tally tally;
+
+    /**
+     * Total price of the pizzas before the discount, in cents
+     */
+    private long subtotalCents;
+
+    /**
+     * Discount given to the order, in cents
+     */
+    private long discountCents;
+
+    /**
+     * Rule giving the discount, or null if no rule applies
+     */
+    private DiscountRule discountRule;
+
     /**
      * Creates an order, initialising the UUID, time, date and list of pizzas
      */
     public Order() {
         name = "Not Given";
-        uuid = UUID.randomUUID();
-        date = LocalDate.now();
-        time = LocalTime.now();
+        uuid = idGenerator.nextId();
+        LocalDateTime now = now();
+        date = now.toLocalDate();
+        time = now.toLocalTime();
         pizzas = new ArrayList<>();
+        pizzaChangeCounts = new int[4];
+        discountRules = DiscountRules.DEFAULT;
+        tally = discountRules.newTally();
+    }
+
+    /**
+     * Sets how the UUIDs of new orders are made, which are time-ordered unless set
+     * @param generator generator of order UUIDs
+     * @throws IllegalArgumentException if the generator is null
+     */
+    public static void setIdGenerator(OrderIdGenerator generator) throws IllegalArgumentException {
+        if (generator == null) {
+            throw new IllegalArgumentException("Generator was null");
+        }
+        idGenerator = generator;
+    }
+
+    /**
+     * Returns how the UUIDs of new orders are made
+     * @return generator of order UUIDs
+     */
+    public static OrderIdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Sets the clock the date and time of orders are taken from, which is the system clock
+     * in the default time zone unless set. A {@link CoarseClock} can be used to take orders
+     * at a high rate, or a fixed clock for tests and replays.
+     * @param clock clock for order timestamps
+     * @throws IllegalArgumentException if the clock is null
+     */
+    public static void setClock(Clock clock) throws IllegalArgumentException {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock was null");
+        }
+        Order.clock = clock;
+    }
+
+    /**
+     * Returns the clock the date and time of orders are taken from
+     * @return clock for order timestamps
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the order's date and time to now, from a single reading of the clock so they
+     * always agree
+     */
+    public void stamp() {
+        LocalDateTime now = now();
+        date = now.toLocalDate();
+        setTime(now.toLocalTime());
     }
 
     /**
@@ -67,6 +169,20 @@ public class Order {
         this.name = name;
     }
 
+    /**
+     * Sets the rules used to find the discount for the order, which are
+     * {@link DiscountRules#DEFAULT} unless set
+     * @param discountRules compiled discount rules
+     * @throws IllegalArgumentException if the rules are null
+     */
+    public void setDiscountRules(DiscountRules discountRules) throws IllegalArgumentException {
+        if (discountRules == null) {
+            throw new IllegalArgumentException("Discount rules was null");
+        }
+        this.discountRules = discountRules;
+        updateTotals();
+    }
+
     /**
      * Sets the order's UUID
      * @param uuid unique identifier
@@ -89,14 +205,158 @@ public class Order {
      */
     public void setTime(LocalTime time) {
         this.time = time;
+        updateDiscount();
+    }
+
+    /**
+     * Returns the order's customer name
+     * @return name of the customer
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the order's UUID
+     * @return unique identifier
+     */
+    public UUID getUUID() {
+        return uuid;
+    }
+
+    /**
+     * Returns the order's date
+     * @return LocalDate
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Returns the order's time
+     * @return LocalTime
+     */
+    public LocalTime getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the pizzas in the order
+     * @return unmodifiable list of the pizzas, in the order they were added
+     */
+    public List<Pizza> getPizzas() {
+        return Collections.unmodifiableList(pizzas);
     }
 
     /**
-     * Adds a completed pizza to the order
+     * Adds a completed pizza to the order, updating the order totals. If the size or
+     * toppings of a pizza are changed after it is added, the totals are worked out again
+     * the next time they are needed.
      * @param pizza pizza to be added
      */
     public void add(Pizza pizza) {
+        if (pizzas.size() == pizzaChangeCounts.length) {
+            pizzaChangeCounts = Arrays.copyOf(pizzaChangeCounts, pizzas.size() * 2);
+        }
+        pizzaChangeCounts[pizzas.size()] = pizza.changeCount();
         pizzas.add(pizza);
+        subtotalCents += pizza.totalCents();
+        tally.add(pizza);
+        updateDiscount();
+    }
+
+    /**
+     * Works the totals out again if any pizza has changed since they were last updated
+     */
+    private void checkTotals() {
+        for (int i = 0; i < pizzas.size(); i++) {
+            if (pizzas.get(i).changeCount() != pizzaChangeCounts[i]) {
+                updateTotals();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Works the subtotal, tally and discount out again from every pizza
+     */
+    private void updateTotals() {
+        subtotalCents = 0;
+        tally = discountRules.newTally();
+        for (int i = 0; i < pizzas.size(); i++) {
+            Pizza pizza = pizzas.get(i);
+            pizzaChangeCounts[i] = pizza.changeCount();
+            subtotalCents += pizza.totalCents();
+            tally.add(pizza);
+        }
+        updateDiscount();
+    }
+
+    /**
+     * Returns the local date and time from the order clock
+     * @return the current date and time
+     */
+    private static LocalDateTime now() {
+        Clock current = clock;
+        if (current instanceof CoarseClock) {
+            // Already worked out for the current tick
+            return ((CoarseClock) current).localDateTime();
+        }
+        return LocalDateTime.now(current);
+    }
+
+    /**
+     * Finds the discount for the current pizzas and time, which only checks each rule against
+     * the tally of the order rather than going through every pizza again
+     */
+    private void updateDiscount() {
+        int rule = discountRules.bestRule(tally, subtotalCents, time);
+        discountRule = rule < 0 ? null : discountRules.getRules().get(rule);
+        discountCents = rule < 0 ? 0 : discountRules.discountCents(rule, subtotalCents);
+    }
+
+    /**
+     * Returns the number of pizzas in the order
+     * @return number of pizzas
+     */
+    public int itemCount() {
+        return pizzas.size();
+    }
+
+    /**
+     * Returns the total price of the pizzas before any discount
+     * @return subtotal in cents
+     */
+    public long subtotalCents() {
+        checkTotals();
+        return subtotalCents;
+    }
+
+    /**
+     * Returns the discount given to the order
+     * @return discount in cents, which is 0 if no discount applies
+     */
+    public long discountCents() {
+        checkTotals();
+        return discountCents;
+    }
+
+    /**
+     * Returns the rule giving the order its discount
+     * @return the rule, or null if no rule applies
+     */
+    public DiscountRule getDiscountRule() {
+        checkTotals();
+        return discountRule;
+    }
+
+    /**
+     * Returns the price of the order after the discount
+     * @return total in cents
+     */
+    public long totalCents() {
+        checkTotals();
+        return subtotalCents - discountCents;
     }
 
     /**
@@ -120,45 +380,59 @@ public class Order {
      */
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
         StringBuilder out = new StringBuilder();
-        out.append("Date: " + date.toString() + System.lineSeparator());
-        out.append("Time: " + time.format(formatter) + System.lineSeparator());
-        out.append("Customer: " + name + System.lineSeparator());
-        out.append("Order number: " + uuid + System.lineSeparator());
-        out.append("Order:");
-
-        int pizzaTally = 1;
-        double totalCost = 0;
+        try {
+            appendTo(out);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
 
-        for (Pizza pizza : pizzas) {
-            out.append(String.format(
-                    "%s%s - %s", System.lineSeparator(), pizzaTally, pizza.toString()
-            ));
+    /**
+     * Writes the same representation of the order as {@link #toString()} straight into an
+     * Appendable, such as a Writer or CharBuffer, without creating any strings
+     * @param out where the order is written
+     * @throws IOException if the order can't be written
+     */
+    public void appendTo(Appendable out) throws IOException {
+        checkTotals();
+        String lineSeparator = System.lineSeparator();
+        out.append("Date: ");
+        ReceiptFormat.appendDate(out, date);
+        out.append(lineSeparator);
+        out.append("Time: ");
+        ReceiptFormat.appendTime(out, time);
+        out.append(lineSeparator);
+        out.append("Customer: ");
+        out.append(name);
+        out.append(lineSeparator);
+        out.append("Order number: ");
+        ReceiptFormat.appendUUID(out, uuid);
+        out.append(lineSeparator);
+        out.append("Order:");
 
-            totalCost += pizza.getTotalPrice();
-            pizzaTally++;
+        for (int i = 0; i < pizzas.size(); i++) {
+            out.append(lineSeparator);
+            ReceiptFormat.appendNumber(out, i + 1);
+            out.append(" - ");
+            pizzas.get(i).appendTo(out);
         }
 
-        // Check for order discount and add to string builder
-        if (pizzas.size() >= 3) {
-            out.append(System.lineSeparator());
-            double discountCost;
-            if (pizzas.size() >= 6) {
-                discountCost = DISCOUNT_25.applyDiscount(totalCost);
-            } else {
-                discountCost = DISCOUNT_10.applyDiscount(totalCost);
-            }
-            out.append(String.format(
-                    "%sMulti item discount applied of $%.2f applied, new Total: $%.2f",
-                    System.lineSeparator(), totalCost, discountCost)
-            );
+        out.append(lineSeparator);
+        out.append(lineSeparator);
+        // Check for order discount
+        if (discountCents > 0) {
+            out.append(discountRule.getName());
+            out.append(" applied of $");
+            ReceiptFormat.appendMoney(out, subtotalCents);
+            out.append(" applied, new Total: $");
+            ReceiptFormat.appendMoney(out, totalCents());
         } else {
-            out.append(System.lineSeparator());
-            out.append(System.lineSeparator());
-            out.append(String.format("Total: $%.2f", totalCost));
+            out.append("Total: $");
+            ReceiptFormat.appendMoney(out, subtotalCents);
         }
-        out.append(System.lineSeparator());
-        return out.toString();
+        out.append(lineSeparator);
     }
-}
\ No newline at end of file
+}
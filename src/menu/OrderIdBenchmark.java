@@ -0,0 +1,107 @@
+package menu;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark that makes order UUIDs on several threads at once and reports how many each
+ * {@link OrderIdGenerator} makes per second.
+ * <p>
+ * Usage: {@code OrderIdBenchmark [threads] [ids per thread]}. Every thread starts at the same
+ * time and makes its UUIDs as fast as it can, so the random generator shows the cost of all
+ * threads sharing one SecureRandom, and the time-ordered generator the cost of its per-thread
+ * state.
+ */
+public final class OrderIdBenchmark {
+
+    /**
+     * Number of times each measurement is repeated, the fastest is reported
+     */
+    private static final int REPEATS = 5;
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private OrderIdBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args optionally the number of threads and the number of UUIDs each thread makes
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+
+        System.out.printf("threads=%d ids per thread=%d%n", threads, count);
+        report("UUID.randomUUID", OrderIdGenerator.random(), threads, count);
+        report("time-ordered", OrderIdGenerator.timeOrdered(), threads, count);
+    }
+
+    /**
+     * Measures a generator and prints its throughput
+     * @param name name printed with the results
+     * @param generator generator being measured
+     * @param threads number of threads making UUIDs at once
+     * @param count number of UUIDs each thread makes
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static void report(String name, OrderIdGenerator generator, int threads, int count)
+            throws InterruptedException {
+        AtomicLong check = new AtomicLong();
+        // Warm up the generator before measuring
+        run(generator, threads, Math.min(count, 20000), check);
+        long bestNanos = Long.MAX_VALUE;
+        for (int repeat = 0; repeat < REPEATS; repeat++) {
+            bestNanos = Math.min(bestNanos, run(generator, threads, count, check));
+        }
+        long total = (long) threads * count;
+        System.out.printf("%s: %.0f ids/s, %.0f ns per id per thread%n", name,
+                total / (bestNanos / 1e9), (double) bestNanos / count);
+        // Print the result so the work can't be skipped
+        System.out.println("checksum: " + check.get());
+    }
+
+    /**
+     * Makes UUIDs on several threads, which all start together
+     * @param generator generator being measured
+     * @param threads number of threads making UUIDs at once
+     * @param count number of UUIDs each thread makes
+     * @param check receives a value derived from every UUID made
+     * @return time from the start of the threads until the last finished, in nanoseconds
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static long run(OrderIdGenerator generator, int threads, int count, AtomicLong check)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long sum = 0;
+                for (int j = 0; j < count; j++) {
+                    UUID id = generator.nextId();
+                    sum += id.getLeastSignificantBits() ^ id.getMostSignificantBits();
+                }
+                check.addAndGet(sum);
+            }, "id-benchmark-" + i);
+            workers[i].start();
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+}
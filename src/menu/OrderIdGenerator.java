@@ -0,0 +1,35 @@
+package menu;
+
+import java.util.UUID;
+
+/**
+ * Makes the UUIDs that identify new orders, see {@link Order#setIdGenerator(OrderIdGenerator)}
+ */
+@FunctionalInterface
+public interface OrderIdGenerator {
+
+    /**
+     * Returns a new order UUID, which must not have been returned before
+     * @return new UUID
+     */
+    UUID nextId();
+
+    /**
+     * Returns a generator of random version 4 UUIDs, made by {@link UUID#randomUUID()}.
+     * They can't be guessed, but every thread making them shares one SecureRandom.
+     * @return random UUID generator
+     */
+    static OrderIdGenerator random() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * Returns a generator of time-ordered version 7 UUIDs. Each thread keeps its own state,
+     * so threads never wait for each other, and the UUIDs each thread makes always increase.
+     * UUIDs from different threads are ordered to the millisecond.
+     * @return time-ordered UUID generator
+     */
+    static OrderIdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.INSTANCE;
+    }
+}
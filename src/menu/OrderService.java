@@ -0,0 +1,472 @@
+package menu;
+
+import exceptions.TooManyToppingsException;
+import pizza.CustomPizza;
+import pizza.MenuPizza;
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Takes orders without any user interface, so orders can be made by the GUI, a server or a
+ * load test in the same way.
+ * <p>
+ * Each order being made is an open order, identified by the UUID of its {@link Order}. Pizzas
+ * are added to an open order until it is confirmed or cancelled. Any number of threads can
+ * make orders at once: open orders are kept in a concurrent map and each is locked only while
+ * it is being changed, so threads working on different orders never wait for each other.
+ * <p>
+ * The service only keeps what it needs in memory. Open orders that haven't been changed for
+ * a while are cancelled, and only the most recently confirmed orders are kept, as the
+ * listener is told about every confirmed order and can keep them for good, for example in a
+ * journal.
+ */
+public final class OrderService {
+
+    /**
+     * Number of confirmed orders kept when none is given
+     */
+    public static final int DEFAULT_MAX_CONFIRMED = 10_000;
+
+    /**
+     * How long an open order can go unchanged before it is cancelled, when none is given
+     */
+    public static final Duration DEFAULT_OPEN_TIMEOUT = Duration.ofHours(1);
+
+    /**
+     * Number of orders created between checks for open orders that have timed out
+     */
+    static final int EXPIRY_INTERVAL = 1024;
+
+    /**
+     * Told about each order once it has been confirmed
+     */
+    @FunctionalInterface
+    public interface ConfirmListener {
+        /**
+         * Called on the thread that confirmed the order, after it has been confirmed
+         * @param order the confirmed order, which must not be changed
+         */
+        void confirmed(Order order);
+    }
+
+    /**
+     * Order being made, which is locked while it is changed
+     */
+    private static final class OpenOrder {
+
+        /**
+         * The order
+         */
+        private final Order order;
+
+        /**
+         * Set once the order has been confirmed or cancelled, after which it can't be changed
+         */
+        private boolean closed;
+
+        /**
+         * {@link System#nanoTime()} when the order was created or last had a pizza added
+         */
+        private volatile long lastChanged = System.nanoTime();
+
+        /**
+         * Creates an open order
+         * @param order the order
+         */
+        private OpenOrder(Order order) {
+            this.order = order;
+        }
+    }
+
+    /**
+     * Orders being made, by UUID
+     */
+    private final Map<UUID, OpenOrder> open = new ConcurrentHashMap<>();
+
+    /**
+     * Most recently confirmed orders, in the order they were confirmed
+     */
+    private final Queue<Order> confirmed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of orders in {@link #confirmed}, which is briefly ahead of or behind the queue
+     * while orders are added or removed
+     */
+    private final AtomicInteger confirmedCount = new AtomicInteger();
+
+    /**
+     * Most confirmed orders kept, older ones are forgotten
+     */
+    private final int maxConfirmed;
+
+    /**
+     * How long an open order can go unchanged before it is cancelled
+     */
+    private final Duration openTimeout;
+
+    /**
+     * Number of orders created, used to check for timed out orders every so often
+     */
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Told about each confirmed order
+     */
+    private final ConfirmListener listener;
+
+    /**
+     * Creates a service that keeps confirmed orders only in memory
+     */
+    public OrderService() {
+        this(order -> { });
+    }
+
+    /**
+     * Creates a service that tells a listener about each confirmed order, for example to
+     * journal it
+     * @param listener told about each confirmed order
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public OrderService(ConfirmListener listener) throws IllegalArgumentException {
+        this(listener, DEFAULT_MAX_CONFIRMED, DEFAULT_OPEN_TIMEOUT);
+    }
+
+    /**
+     * Creates a service that tells a listener about each confirmed order and limits the
+     * orders it keeps in memory
+     * @param listener told about each confirmed order
+     * @param maxConfirmed most confirmed orders kept, older ones are forgotten
+     * @param openTimeout how long an open order can go unchanged before it is cancelled
+     * @throws IllegalArgumentException if the listener or timeout is null, the timeout isn't
+     * positive or the number of confirmed orders is negative
+     */
+    public OrderService(ConfirmListener listener, int maxConfirmed, Duration openTimeout)
+            throws IllegalArgumentException {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener was null");
+        } else if (maxConfirmed < 0) {
+            throw new IllegalArgumentException("Maximum confirmed orders was negative");
+        } else if (openTimeout == null || openTimeout.isNegative() || openTimeout.isZero()) {
+            throw new IllegalArgumentException("Open order timeout was null or not positive");
+        }
+        this.listener = listener;
+        this.maxConfirmed = maxConfirmed;
+        this.openTimeout = openTimeout;
+    }
+
+    /**
+     * Starts a new order
+     * @param customerName name of the customer, or null if it wasn't given
+     * @return UUID of the new order, used to change it
+     */
+    public UUID create(String customerName) {
+        Order order = new Order();
+        if (customerName != null) {
+            order.setName(customerName);
+        }
+        open.put(order.getUUID(), new OpenOrder(order));
+        if (created.incrementAndGet() % EXPIRY_INTERVAL == 0) {
+            expireOpenOrders(openTimeout);
+        }
+        return order.getUUID();
+    }
+
+    /**
+     * Adds a pizza from the menu to an open order
+     * @param id UUID of the order
+     * @param name name of the menu pizza
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @return the pizza that was added, which shares its name and toppings with the menu pizza
+     * @throws IllegalArgumentException if there is no open order with the UUID, no pizza on
+     * the menu with the name, or the size, sauce or cheese is null
+     */
+    public Pizza addMenuPizza(UUID id, String name, Bases.BaseSize size, Sauces.Sauce sauce,
+                              Cheeses.Cheese cheese) throws IllegalArgumentException {
+        Optional<MenuItem> item = Menu.getInstance().findByName(name);
+        if (item.isEmpty() || !(item.get() instanceof MenuPizza)) {
+            throw new IllegalArgumentException("No menu pizza called " + name);
+        }
+        return addMenuPizza(id, (MenuPizza) item.get(), size, sauce, cheese);
+    }
+
+    /**
+     * Adds a pizza from the menu to an open order, without looking it up by name
+     * @param id UUID of the order
+     * @param menuPizza the menu pizza
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @return the pizza that was added, which shares its name and toppings with the menu pizza
+     * @throws IllegalArgumentException if there is no open order with the UUID, or the menu
+     * pizza, size, sauce or cheese is null
+     */
+    public Pizza addMenuPizza(UUID id, MenuPizza menuPizza, Bases.BaseSize size,
+                              Sauces.Sauce sauce, Cheeses.Cheese cheese)
+            throws IllegalArgumentException {
+        if (menuPizza == null) {
+            throw new IllegalArgumentException("Menu pizza was null");
+        }
+        Pizza pizza = menuPizza.with(size, sauce, cheese);
+        add(id, pizza);
+        return pizza;
+    }
+
+    /**
+     * Adds a custom pizza to an open order
+     * @param id UUID of the order
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param toppings toppings on the pizza
+     * @return the pizza that was added
+     * @throws IllegalArgumentException if there is no open order with the UUID, or the size,
+     * sauce, cheese or toppings are null
+     * @throws TooManyToppingsException if there are more than 5 toppings
+     */
+    public Pizza addCustomPizza(UUID id, Bases.BaseSize size, Sauces.Sauce sauce,
+                                Cheeses.Cheese cheese, List<Topping> toppings)
+            throws IllegalArgumentException, TooManyToppingsException {
+        // Find the order first so no pizza is made for an order that doesn't exist
+        find(id);
+        CustomPizza pizza = CustomPizza.forOrder(size, sauce, cheese, toppings);
+        add(id, pizza);
+        return pizza;
+    }
+
+    /**
+     * Returns the number of pizzas in an open order
+     * @param id UUID of the order
+     * @return number of pizzas
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     */
+    public int itemCount(UUID id) throws IllegalArgumentException {
+        OpenOrder openOrder = find(id);
+        synchronized (openOrder) {
+            return openOrder.order.itemCount();
+        }
+    }
+
+    /**
+     * Returns the total price of an open order after any discount
+     * @param id UUID of the order
+     * @return total in cents
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     */
+    public long totalCents(UUID id) throws IllegalArgumentException {
+        OpenOrder openOrder = find(id);
+        synchronized (openOrder) {
+            return openOrder.order.totalCents();
+        }
+    }
+
+    /**
+     * Writes the receipt of an open order
+     * @param id UUID of the order
+     * @param out where the receipt is written
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     * @throws IOException if the receipt can't be written
+     */
+    public void appendReceipt(UUID id, Appendable out)
+            throws IllegalArgumentException, IOException {
+        OpenOrder openOrder = find(id);
+        synchronized (openOrder) {
+            openOrder.order.appendTo(out);
+        }
+    }
+
+    /**
+     * Confirms an open order, timestamping it and telling the listener about it. The order
+     * can't be changed afterwards.
+     * @param id UUID of the order
+     * @return the confirmed order
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     */
+    public Order confirm(UUID id) throws IllegalArgumentException {
+        OpenOrder openOrder = close(id);
+        Order order = openOrder.order;
+        synchronized (openOrder) {
+            order.stamp();
+        }
+        keep(order);
+        listener.confirmed(order);
+        return order;
+    }
+
+    /**
+     * Cancels an open order
+     * @param id UUID of the order
+     * @return true if the order was cancelled, false if it wasn't open
+     */
+    public boolean cancel(UUID id) {
+        try {
+            close(id);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of orders being made
+     * @return number of open orders
+     */
+    public int openCount() {
+        return open.size();
+    }
+
+    /**
+     * Cancels every open order that hasn't been created or had a pizza added for a given
+     * time, such as orders whose customer has gone away
+     * @param maxIdle how long an order can go unchanged
+     * @return number of orders cancelled
+     * @throws IllegalArgumentException if the time is null
+     */
+    public int expireOpenOrders(Duration maxIdle) throws IllegalArgumentException {
+        if (maxIdle == null) {
+            throw new IllegalArgumentException("Idle time was null");
+        }
+        long now = System.nanoTime();
+        long maxIdleNanos = maxIdle.toNanos();
+        int expired = 0;
+        for (Map.Entry<UUID, OpenOrder> entry : open.entrySet()) {
+            OpenOrder openOrder = entry.getValue();
+            if (now - openOrder.lastChanged >= maxIdleNanos
+                    && open.remove(entry.getKey(), openOrder)) {
+                synchronized (openOrder) {
+                    openOrder.closed = true;
+                }
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the most recently confirmed orders that haven't been drained, up to the most
+     * the service keeps
+     * @return new list of the confirmed orders, in the order they were confirmed
+     */
+    public List<Order> getConfirmedOrders() {
+        return new ArrayList<>(confirmed);
+    }
+
+    /**
+     * Removes and returns the confirmed orders, so they are no longer kept in memory
+     * @return the confirmed orders that were kept, in the order they were confirmed
+     */
+    public List<Order> drainConfirmed() {
+        List<Order> drained = new ArrayList<>();
+        Order order;
+        while ((order = confirmed.poll()) != null) {
+            confirmedCount.decrementAndGet();
+            drained.add(order);
+        }
+        return drained;
+    }
+
+    /**
+     * Adds orders that were confirmed before, such as orders read back from a journal,
+     * without telling the listener
+     * @param orders orders that have already been confirmed
+     * @throws IllegalArgumentException if the orders or any order is null
+     */
+    public void restore(Collection<Order> orders) throws IllegalArgumentException {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders was null");
+        }
+        for (Order order : orders) {
+            if (order == null) {
+                throw new IllegalArgumentException("Order was null");
+            }
+        }
+        for (Order order : orders) {
+            keep(order);
+        }
+    }
+
+    /**
+     * Forgets the confirmed orders
+     */
+    public void clearConfirmed() {
+        drainConfirmed();
+    }
+
+    /**
+     * Keeps a confirmed order, forgetting the oldest kept orders if there are too many
+     * @param order confirmed order
+     */
+    private void keep(Order order) {
+        confirmed.add(order);
+        confirmedCount.incrementAndGet();
+        while (confirmedCount.get() > maxConfirmed && confirmed.poll() != null) {
+            confirmedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Adds a pizza to an open order
+     * @param id UUID of the order
+     * @param pizza pizza to be added
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     */
+    private void add(UUID id, Pizza pizza) throws IllegalArgumentException {
+        OpenOrder openOrder = find(id);
+        synchronized (openOrder) {
+            if (openOrder.closed) {
+                throw new IllegalArgumentException("No open order " + id);
+            }
+            openOrder.order.add(pizza);
+            openOrder.lastChanged = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns an open order
+     * @param id UUID of the order
+     * @return the open order
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     */
+    private OpenOrder find(UUID id) throws IllegalArgumentException {
+        OpenOrder openOrder = id == null ? null : open.get(id);
+        if (openOrder == null) {
+            throw new IllegalArgumentException("No open order " + id);
+        }
+        return openOrder;
+    }
+
+    /**
+     * Removes an open order so it can't be changed again
+     * @param id UUID of the order
+     * @return the order that was removed
+     * @throws IllegalArgumentException if there is no open order with the UUID
+     */
+    private OpenOrder close(UUID id) throws IllegalArgumentException {
+        OpenOrder openOrder = id == null ? null : open.remove(id);
+        if (openOrder == null) {
+            throw new IllegalArgumentException("No open order " + id);
+        }
+        synchronized (openOrder) {
+            // Wait for any change that found the order before it was removed
+            openOrder.closed = true;
+        }
+        return openOrder;
+    }
+}
@@ -0,0 +1,215 @@
+package menu;
+
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Writes the parts of receipts straight into an {@link Appendable}, such as a StringBuilder,
+ * Writer or CharBuffer, without creating formatters or intermediate strings.
+ * <p>
+ * The output is the same as the String.format and toString calls the receipts were first
+ * written with: money is written with two decimal places rounded from whole cents, using the
+ * decimal separator and digits of the default format locale, dates in ISO format and times
+ * as HH:mm.
+ */
+public final class ReceiptFormat {
+
+    /**
+     * Lowercase hex digits used for UUIDs
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Digits and decimal separator of the locale used last, which are only looked up again
+     * when the default format locale changes
+     */
+    private static volatile Symbols symbols =
+            new Symbols(Locale.getDefault(Locale.Category.FORMAT));
+
+    /**
+     * Digits and decimal separator of a locale
+     */
+    private static final class Symbols {
+
+        /**
+         * Locale the symbols are for
+         */
+        private final Locale locale;
+
+        /**
+         * Character used for the digit zero, the other digits follow it
+         */
+        private final char zeroDigit;
+
+        /**
+         * Character separating the whole and fractional parts of a number
+         */
+        private final char decimalSeparator;
+
+        /**
+         * Looks up the symbols of a locale
+         * @param locale locale to be used
+         */
+        private Symbols(Locale locale) {
+            this.locale = locale;
+            DecimalFormatSymbols decimalSymbols = DecimalFormatSymbols.getInstance(locale);
+            zeroDigit = decimalSymbols.getZeroDigit();
+            decimalSeparator = decimalSymbols.getDecimalSeparator();
+        }
+    }
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private ReceiptFormat() {
+    }
+
+    /**
+     * Appends an amount of money with two decimal places, the same as formatting the amount
+     * in dollars with "%.2f"
+     * @param out where the amount is written
+     * @param cents amount in cents
+     * @throws IOException if the amount can't be written
+     */
+    public static void appendMoney(Appendable out, long cents) throws IOException {
+        Symbols current = symbols();
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        appendDigits(out, cents / 100, 1, current.zeroDigit);
+        out.append(current.decimalSeparator);
+        appendDigits(out, cents % 100, 2, current.zeroDigit);
+    }
+
+    /**
+     * Appends a whole number, the same as Long.toString
+     * @param out where the number is written
+     * @param value number to be written
+     * @throws IOException if the number can't be written
+     */
+    public static void appendNumber(Appendable out, long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                out.append(Long.toString(value));
+                return;
+            }
+            out.append('-');
+            value = -value;
+        }
+        appendDigits(out, value, 1, '0');
+    }
+
+    /**
+     * Appends a date in ISO format, the same as LocalDate.toString
+     * @param out where the date is written
+     * @param date date to be written
+     * @throws IOException if the date can't be written
+     */
+    public static void appendDate(Appendable out, LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            // Signed years are rare enough to leave to LocalDate
+            out.append(date.toString());
+            return;
+        }
+        appendDigits(out, year, 4, '0');
+        out.append('-');
+        appendDigits(out, date.getMonthValue(), 2, '0');
+        out.append('-');
+        appendDigits(out, date.getDayOfMonth(), 2, '0');
+    }
+
+    /**
+     * Appends a time to the hour and minute, the same as formatting with the "HH:mm" pattern
+     * @param out where the time is written
+     * @param time time to be written
+     * @throws IOException if the time can't be written
+     */
+    public static void appendTime(Appendable out, LocalTime time) throws IOException {
+        appendDigits(out, time.getHour(), 2, '0');
+        out.append(':');
+        appendDigits(out, time.getMinute(), 2, '0');
+    }
+
+    /**
+     * Appends a UUID, the same as UUID.toString
+     * @param out where the UUID is written
+     * @param uuid UUID to be written, or null to write "null"
+     * @throws IOException if the UUID can't be written
+     */
+    public static void appendUUID(Appendable out, UUID uuid) throws IOException {
+        if (uuid == null) {
+            out.append("null");
+            return;
+        }
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        appendHex(out, most >>> 32, 8);
+        out.append('-');
+        appendHex(out, most >>> 16, 4);
+        out.append('-');
+        appendHex(out, most, 4);
+        out.append('-');
+        appendHex(out, least >>> 48, 4);
+        out.append('-');
+        appendHex(out, least, 12);
+    }
+
+    /**
+     * Appends the decimal digits of a number that isn't negative, padded with zeros
+     * @param out where the digits are written
+     * @param value number to be written
+     * @param width minimum number of digits
+     * @param zero character used for the digit zero
+     * @throws IOException if the digits can't be written
+     */
+    private static void appendDigits(Appendable out, long value, int width, char zero)
+            throws IOException {
+        long divisor = 1;
+        int digits = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            out.append(zero);
+        }
+        while (divisor > 0) {
+            out.append((char) (zero + value / divisor));
+            value %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Appends the lowest bits of a number as lowercase hex digits
+     * @param out where the digits are written
+     * @param value number to be written
+     * @param digits number of digits to be written
+     * @throws IOException if the digits can't be written
+     */
+    private static void appendHex(Appendable out, long value, int digits) throws IOException {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            out.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * Returns the symbols of the default format locale
+     * @return symbols of the locale
+     */
+    private static Symbols symbols() {
+        Symbols current = symbols;
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (current.locale != locale && !current.locale.equals(locale)) {
+            current = new Symbols(locale);
+            symbols = current;
+        }
+        return current;
+    }
+}
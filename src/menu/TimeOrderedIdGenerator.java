@@ -0,0 +1,113 @@
+package menu;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Makes version 7 UUIDs, which start with the Unix time in milliseconds so they sort in the
+ * order they were made.
+ * <p>
+ * The 48 bit time is followed by the version, a 12 bit counter, the variant and 62 random
+ * bits. Each thread has its own counter, which starts at a random value in the lower half of
+ * its range each millisecond and goes up by one for each UUID made in the same millisecond.
+ * If the counter runs out, or the clock goes back, the thread carries on from its last time,
+ * so the UUIDs it makes keep increasing. The random bits come from ThreadLocalRandom, which
+ * keeps UUIDs from different threads apart without any shared state.
+ */
+final class TimeOrderedIdGenerator implements OrderIdGenerator {
+
+    /**
+     * Shared generator, which holds no state of its own
+     */
+    static final TimeOrderedIdGenerator INSTANCE = new TimeOrderedIdGenerator();
+
+    /**
+     * Largest value of the counter
+     */
+    private static final int MAX_COUNTER = 0xFFF;
+
+    /**
+     * Version bits of a version 7 UUID
+     */
+    private static final long VERSION_7 = 0x7000L;
+
+    /**
+     * Variant bits of an RFC 4122 UUID
+     */
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    /**
+     * Bits of the least significant half that are random
+     */
+    private static final long RANDOM_BITS = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    /**
+     * Time and counter of the last UUID made by each thread
+     */
+    private static final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * Time and counter of the last UUID made by a thread
+     */
+    private static final class State {
+
+        /**
+         * Time of the last UUID in milliseconds, or -1 if none has been made
+         */
+        private long millis = -1;
+
+        /**
+         * Counter of the last UUID
+         */
+        private int counter;
+    }
+
+    private TimeOrderedIdGenerator() {
+
+    }
+
+    /**
+     * Returns a new version 7 UUID, greater than any made before by the calling thread
+     * @return new UUID
+     */
+    @Override
+    public UUID nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns a new version 7 UUID for a given time
+     * @param now current Unix time in milliseconds
+     * @return new UUID
+     */
+    UUID nextId(long now) {
+        State last = state.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (now > last.millis) {
+            last.millis = now;
+            // Leave room in the counter for the UUIDs made later in the millisecond
+            last.counter = random.nextInt(MAX_COUNTER / 2 + 1);
+        } else if (last.counter < MAX_COUNTER) {
+            last.counter++;
+        } else {
+            last.millis++;
+            last.counter = 0;
+        }
+        long most = (last.millis << 16) | VERSION_7 | last.counter;
+        long least = VARIANT | (random.nextLong() & RANDOM_BITS);
+        return new UUID(most, least);
+    }
+
+    /**
+     * Returns the time a version 7 UUID was made
+     * @param uuid version 7 UUID
+     * @return Unix time in milliseconds
+     * @throws IllegalArgumentException if the UUID is not version 7
+     */
+    static long millisOf(UUID uuid) throws IllegalArgumentException {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID");
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
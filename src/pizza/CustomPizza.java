@@ -1,6 +1,8 @@
 package pizza;
 
 import exceptions.TooManyToppingsException;
+import exceptions.ValidationError;
+import exceptions.ValidationResult;
 import menu.MenuItem;
 import pizza.ingredients.Topping;
 
@@ -30,35 +32,100 @@ public class CustomPizza extends Pizza implements MenuItem {
         setName("Custom Pizza");
     }
 
+    /**
+     * Creates a pizza with a given size, sauce and cheese with no toppings, which is only
+     * registered with the menu if asked to be
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param register whether the pizza is registered with the menu
+     */
+    private CustomPizza(BaseSize size, Sauce sauce, Cheese cheese, boolean register)
+            throws IllegalArgumentException {
+        super(size, sauce, cheese, register);
+        setName("Custom Pizza");
+    }
+
+    /**
+     * Creates a custom pizza for an order, which unlike pizzas made with the constructors is
+     * not registered with the menu, so its toppings can be changed and it can be forgotten
+     * once the order is
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param toppings toppings on the pizza
+     * @return the pizza
+     * @throws TooManyToppingsException if there are more than 5 toppings
+     * @throws IllegalArgumentException if the size, sauce, cheese, toppings or any topping is
+     * null
+     */
+    public static CustomPizza forOrder(BaseSize size, Sauce sauce, Cheese cheese,
+                                       List<Topping> toppings)
+            throws TooManyToppingsException, IllegalArgumentException {
+        CustomPizza pizza = new CustomPizza(size, sauce, cheese, false);
+        pizza.add(toppings);
+        return pizza;
+    }
+
     /**
      * Adds a list of toppings to a pizza, only if the maximum number of toppings is not exceeded
      * @param toppings list of toppings to be added to the pizza
      * @throws TooManyToppingsException if the new toppings cause the toppings total to be > 5
+     * @throws IllegalArgumentException if the list or any topping in it is null
      */
     public void add(List<Topping> toppings)
             throws TooManyToppingsException, IllegalArgumentException {
+        throwIfInvalid(tryAdd(toppings));
+    }
+
+    /**
+     * Adds a single topping to the pizza,
+     * @param topping topping to be added pizza
+     */
+    public void add(Topping topping) throws TooManyToppingsException, IllegalArgumentException {
+        throwIfInvalid(tryAdd(topping));
+    }
+
+    /**
+     * Adds a list of toppings to the pizza without throwing, only if all of them can be
+     * added
+     * @param toppings list of toppings to be added to the pizza
+     * @return {@link ValidationResult#VALID} if the toppings were added, otherwise the reason
+     * none of them were
+     */
+    public ValidationResult tryAdd(List<Topping> toppings) {
         if (toppings == null) {
-            throw new IllegalArgumentException("Toppings is null");
+            return ValidationResult.of(ValidationError.NULL_TOPPINGS);
         } else if ((toppings.size() + accessToppings().size()) > MAX_TOPPINGS) {
-            throw new TooManyToppingsException("Too many toppings to add");
-        } else {
-            for (Topping topping : toppings) {
-                add(topping);
+            return ValidationResult.of(ValidationError.TOO_MANY_TOPPINGS);
+        }
+        for (Topping topping : toppings) {
+            if (topping == null) {
+                return ValidationResult.of(ValidationError.NULL_TOPPING);
             }
         }
+        if (!toppings.isEmpty()) {
+            accessToppings().addAll(toppings);
+            toppingsChanged();
+        }
+        return ValidationResult.VALID;
     }
 
     /**
-     * Adds a single topping to the pizza,
-     * @param topping topping to be added pizza
+     * Adds a single topping to the pizza without throwing
+     * @param topping topping to be added to the pizza
+     * @return {@link ValidationResult#VALID} if the topping was added, otherwise the reason
+     * it wasn't
      */
-    public void add(Topping topping) throws TooManyToppingsException, IllegalArgumentException {
+    public ValidationResult tryAdd(Topping topping) {
         if (topping == null) {
-            throw new IllegalArgumentException("Topping is null");
-        } else if (accessToppings().size() > 4) {
-            throw new TooManyToppingsException("Adding topping exceeds 5 total toppings");
+            return ValidationResult.of(ValidationError.NULL_TOPPING);
+        } else if (accessToppings().size() >= MAX_TOPPINGS) {
+            return ValidationResult.of(ValidationError.TOPPING_LIMIT_REACHED);
         }
         accessToppings().add(topping);
+        toppingsChanged();
+        return ValidationResult.VALID;
     }
 
     /**
@@ -66,6 +133,8 @@ public class CustomPizza extends Pizza implements MenuItem {
      * @param topping topping to be removed from the pizza
      */
     public void remove(Topping topping) {
-        accessToppings().remove(topping);
+        if (accessToppings().remove(topping)) {
+            toppingsChanged();
+        }
     }
 }
\ No newline at end of file
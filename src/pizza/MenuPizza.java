@@ -4,10 +4,18 @@ import exceptions.TooManyToppingsException;
 import menu.MenuItem;
 import pizza.ingredients.Topping;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents a pre-organised pizza that is available from the menu
+ * <p>
+ * Menu pizzas can't be changed once created, so the same pizza can be shared by the menu,
+ * orders and any number of threads. A pizza with a different size, sauce or cheese is
+ * created with {@link #with(BaseSize, Sauce, Cheese)}, which shares the toppings of the
+ * menu pizza instead of copying them.
  */
 public class MenuPizza extends Pizza {
 
@@ -21,20 +29,110 @@ public class MenuPizza extends Pizza {
      */
     public MenuPizza(BaseSize size, Sauce sauce, Cheese cheese, List<Topping> toppings)
             throws TooManyToppingsException, IllegalArgumentException {
-        super(size, sauce, cheese, toppings);
+        this(null, size, sauce, cheese, toppings);
     }
 
     /**
-     * Returns the human-readable format of the pizza in the format:
+     * Creates a menu pizza with a given name, size, sauce, cheese and list of toppings
+     * @param name name of the pizza
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param toppings list of toppings on the pizza
+     * @throws TooManyToppingsException if there are more than 5 toppings provided
+     * @throws IllegalArgumentException if the name is blank or the size, sauce, cheese or
+     * toppings are null
+     */
+    public MenuPizza(String name, BaseSize size, Sauce sauce, Cheese cheese,
+                     List<Topping> toppings)
+            throws TooManyToppingsException, IllegalArgumentException {
+        super(name, size, sauce, cheese,
+                toppings == null ? null : Collections.unmodifiableList(new ArrayList<>(toppings)));
+    }
+
+    /**
+     * Creates a menu pizza with the name and toppings of another menu pizza
+     * @param pizza menu pizza to share the name and toppings of
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     */
+    private MenuPizza(MenuPizza pizza, BaseSize size, Sauce sauce, Cheese cheese) {
+        super(pizza, size, sauce, cheese);
+    }
+
+    /**
+     * Returns this pizza with a given size, sauce and cheese. The returned pizza has the same
+     * name and toppings, and is not added to the menu.
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @return this pizza if it already has the size, sauce and cheese, otherwise a new pizza
+     * @throws IllegalArgumentException if the size, sauce or cheese is null
+     */
+    public MenuPizza with(BaseSize size, Sauce sauce, Cheese cheese)
+            throws IllegalArgumentException {
+        if (size == getBaseSize() && sauce == getSauce() && cheese == getCheese()) {
+            return this;
+        }
+        return new MenuPizza(this, size, sauce, cheese);
+    }
+
+    /**
+     * Menu pizzas can't be renamed, the name is given when the pizza is created
+     * @param name pizza name
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setName(String name) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Menu pizzas can't be changed");
+    }
+
+    /**
+     * Menu pizzas can't be changed, use {@link #with(BaseSize, Sauce, Cheese)} instead
+     * @param size enum depicting the sizes of each pizza base type
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void set(BaseSize size) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Menu pizzas can't be changed");
+    }
+
+    /**
+     * Menu pizzas can't be changed, use {@link #with(BaseSize, Sauce, Cheese)} instead
+     * @param cheese enum depicting the cheeses of each pizza
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void set(Cheese cheese) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Menu pizzas can't be changed");
+    }
+
+    /**
+     * Menu pizzas can't be changed, use {@link #with(BaseSize, Sauce, Cheese)} instead
+     * @param sauce enum depicting the sauces of each pizza sauce type
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void set(Sauce sauce) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Menu pizzas can't be changed");
+    }
+
+    /**
+     * Writes the human-readable format of the pizza used by toString, in the format:
      * <p>[MenuPizza] 'Pizza'</p>
      * Where:
      * <ul>
-     *  <li>'Pizza': toString representation of the pizza class</li>
+     *  <li>'Pizza': representation of the pizza class</li>
      * </ul>
-     * @return string representation of the MenuPizza object
+     * @param out where the description is written
+     * @throws IOException if the description can't be written
      */
     @Override
-    public String toString() {
-        return String.format("[%s] %s", this.getClass().getSimpleName(), super.toString());
+    protected void describeTo(Appendable out) throws IOException {
+        out.append('[');
+        out.append(getClass().getSimpleName());
+        out.append("] ");
+        super.describeTo(out);
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,22 @@
 package pizza;
 
 import exceptions.TooManyToppingsException;
+import exceptions.ValidationError;
+import exceptions.ValidationResult;
+import menu.Menu;
 import menu.MenuItem;
+import menu.ReceiptFormat;
 import pizza.ingredients.Bases;
 import pizza.ingredients.Cheeses;
 import pizza.ingredients.Sauces;
 import pizza.ingredients.Topping;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Represents a pizza that has a base, sauce and up to 5 toppings
@@ -46,6 +53,72 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
      */
     private List<Topping> toppings;
 
+    /**
+     * Sorted ordinals of the distinct toppings on the pizza, used to compare pizzas
+     * regardless of the order of their toppings
+     */
+    private int[] toppingOrdinals;
+
+    /**
+     * Hash code of the topping ordinals
+     */
+    private int toppingHash;
+
+    /**
+     * Whether every topping on the pizza is vegan
+     */
+    private boolean veganToppings;
+
+    /**
+     * Price of the pizza in cents, updated whenever the size or toppings change
+     */
+    private long totalCents;
+
+    /**
+     * Number of times the size or toppings have changed, see {@link #changeCount()}
+     */
+    private int changeCount;
+
+    /**
+     * Description and price label of the pizza, built when first needed and cleared whenever
+     * the pizza changes
+     */
+    private Labels labels;
+
+    /**
+     * Rendered description and price label of a pizza, along with the locale the prices were
+     * written in
+     */
+    private static final class Labels {
+
+        /**
+         * Locale the prices were written in
+         */
+        private final Locale locale;
+
+        /**
+         * Same as {@link Pizza#toString()}
+         */
+        private final String description;
+
+        /**
+         * Price of the pizza, such as "$9.00"
+         */
+        private final String priceLabel;
+
+        /**
+         * Creates the labels of a pizza
+         * @param locale locale the prices were written in
+         * @param description description of the pizza
+         * @param priceLabel price of the pizza
+         */
+        private Labels(Locale locale, String description, String priceLabel) {
+            this.locale = locale;
+            this.description = description;
+            this.priceLabel = priceLabel;
+        }
+    }
+
     /**
      * Creates a medium cheese pizza with no toppings, called "Dr Java's Pizza"
      */
@@ -62,15 +135,26 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
      */
     public Pizza(Bases.BaseSize size, Sauces.Sauce sauce, Cheeses.Cheese cheese)
             throws IllegalArgumentException {
-        if (size == null || sauce == null || cheese == null) {
-            throw new IllegalArgumentException("Size, cheese or sauce was null");
-        }
-        this.baseSize = size;
-        this.sauce = sauce;
-        this.cheese = cheese;
-        this.name = "Dr Java's Pizza";
+        this(size, sauce, cheese, true);
+    }
+
+    /**
+     * Creates a pizza with a given size, sauce and cheese and no toppings, which is only
+     * registered with the menu if asked to be
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param register whether the pizza is registered with the menu
+     * @throws IllegalArgumentException if the size, sauce or cheese is null
+     */
+    protected Pizza(Bases.BaseSize size, Sauces.Sauce sauce, Cheeses.Cheese cheese,
+                    boolean register) throws IllegalArgumentException {
+        init(size, sauce, cheese);
         this.toppings = new ArrayList<Topping>();
-        registerMenuItem();
+        toppingsChanged();
+        if (register) {
+            registerMenuItem();
+        }
     }
 
     /**
@@ -83,13 +167,116 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
      */
     public Pizza(Bases.BaseSize size, Sauces.Sauce sauce, Cheeses.Cheese cheese,
                  List<Topping> toppings) throws TooManyToppingsException, IllegalArgumentException {
-        this(size, sauce, cheese);
-        if (toppings == null) {
-            throw new IllegalArgumentException("Toppings was null");
-        } else if (toppings.size() > MAX_TOPPINGS) {
-            throw new TooManyToppingsException("Too many toppings to add");
+        this(null, size, sauce, cheese, toppings);
+    }
+
+    /**
+     * Creates a pizza with a given name, size, sauce, cheese and a list of toppings, which
+     * is registered with the menu under that name
+     * @param name name of the pizza, or null for the default name
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param toppings list of toppings on the pizza, which the pizza keeps using
+     * @throws TooManyToppingsException if there are more than 5 toppings provided
+     * @throws IllegalArgumentException if the name is blank or the size, sauce, cheese or
+     * toppings are null
+     */
+    protected Pizza(String name, Bases.BaseSize size, Sauces.Sauce sauce, Cheeses.Cheese cheese,
+                    List<Topping> toppings)
+            throws TooManyToppingsException, IllegalArgumentException {
+        throwIfInvalid(validate(size, sauce, cheese, toppings));
+        init(size, sauce, cheese);
+        if (name != null) {
+            if (name.isBlank()) {
+                throw new IllegalArgumentException("Name is null or blank");
+            }
+            this.name = name;
         }
         this.toppings = toppings;
+        toppingsChanged();
+        // Only register once the toppings are set, as the menu compares pizzas by their toppings
+        registerMenuItem();
+    }
+
+    /**
+     * Checks whether a pizza could be created with a given size, sauce, cheese and list of
+     * toppings, without creating it or throwing
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @param toppings list of toppings on the pizza
+     * @return {@link ValidationResult#VALID}, or the reason the constructor would throw
+     */
+    public static ValidationResult validate(Bases.BaseSize size, Sauces.Sauce sauce,
+                                            Cheeses.Cheese cheese, List<Topping> toppings) {
+        if (size == null || sauce == null || cheese == null) {
+            return ValidationResult.of(ValidationError.NULL_OPTION);
+        } else if (toppings == null) {
+            return ValidationResult.of(ValidationError.NULL_TOPPINGS);
+        } else if (toppings.size() > MAX_TOPPINGS) {
+            return ValidationResult.of(ValidationError.TOO_MANY_TOPPINGS);
+        }
+        for (Topping topping : toppings) {
+            if (topping == null) {
+                return ValidationResult.of(ValidationError.NULL_TOPPINGS);
+            }
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Throws the exception pizzas have always thrown for an invalid result
+     * @param result result of validating a pizza or its toppings
+     * @throws TooManyToppingsException if the pizza has too many toppings
+     * @throws IllegalArgumentException if any other argument is invalid
+     */
+    static void throwIfInvalid(ValidationResult result)
+            throws TooManyToppingsException, IllegalArgumentException {
+        if (result.isValid()) {
+            return;
+        } else if (result.getError().getKind() == ValidationError.Kind.TOO_MANY_TOPPINGS) {
+            throw new TooManyToppingsException(result.getMessage());
+        }
+        throw new IllegalArgumentException(result.getMessage());
+    }
+
+    /**
+     * Creates a copy of a pizza with a different size, sauce and cheese, which shares the
+     * list of toppings of the original pizza and is not registered with the menu
+     * @param pizza pizza to copy the name and toppings from
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @throws IllegalArgumentException if the size, sauce or cheese is null
+     */
+    protected Pizza(Pizza pizza, Bases.BaseSize size, Sauces.Sauce sauce, Cheeses.Cheese cheese)
+            throws IllegalArgumentException {
+        init(size, sauce, cheese);
+        this.name = pizza.name;
+        this.toppings = pizza.toppings;
+        this.toppingOrdinals = pizza.toppingOrdinals;
+        this.toppingHash = pizza.toppingHash;
+        this.veganToppings = pizza.veganToppings;
+        updateTotal();
+    }
+
+    /**
+     * Sets the size, sauce and cheese of a new pizza and gives it the default name
+     * @param size size of the pizza
+     * @param sauce sauce on the pizza
+     * @param cheese cheese on the pizza
+     * @throws IllegalArgumentException if the size, sauce or cheese is null
+     */
+    private void init(Bases.BaseSize size, Sauces.Sauce sauce, Cheeses.Cheese cheese)
+            throws IllegalArgumentException {
+        if (size == null || sauce == null || cheese == null) {
+            throw new IllegalArgumentException("Size, cheese or sauce was null");
+        }
+        this.baseSize = size;
+        this.sauce = sauce;
+        this.cheese = cheese;
+        this.name = "Dr Java's Pizza";
     }
 
     /**
@@ -100,12 +287,81 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
         return new ArrayList<>(toppings);
     }
 
+    /**
+     * Returns the size of the pizza base
+     * @return size of the base
+     */
+    public BaseSize getBaseSize() {
+        return baseSize;
+    }
+
+    /**
+     * Returns the sauce on the pizza
+     * @return sauce on the pizza
+     */
+    public Sauce getSauce() {
+        return sauce;
+    }
+
+    /**
+     * Returns the cheese on the pizza
+     * @return cheese on the pizza
+     */
+    public Cheese getCheese() {
+        return cheese;
+    }
+
+    /**
+     * Returns whether a topping is on the pizza
+     * @param topping topping to look for
+     * @return true if the topping is on the pizza
+     */
+    public boolean contains(Topping topping) {
+        return topping != null && Arrays.binarySearch(toppingOrdinals, topping.ordinal()) >= 0;
+    }
+
+    /**
+     * Returns the number of distinct toppings on the pizza
+     * @return number of distinct toppings
+     */
+    public int distinctToppings() {
+        return toppingOrdinals.length;
+    }
+
+    /**
+     * Returns the ordinal of one of the distinct toppings on the pizza, which are in
+     * ascending order, so toppings can be checked without copying the topping list
+     * @param index index from 0 to {@link #distinctToppings()}
+     * @return ordinal of the topping, see {@link Topping#ordinal()}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int toppingOrdinal(int index) throws IndexOutOfBoundsException {
+        return toppingOrdinals[index];
+    }
+
+    /**
+     * Returns whether every topping on the pizza is vegan, which is true if it has no toppings
+     * @return whether the toppings are all vegan
+     */
+    public boolean hasVeganToppings() {
+        return veganToppings;
+    }
+
     /**
      * Returns the cost of the base with the cost of each topping
      * @return total cost of the pizza
      */
     public double getTotalPrice() {
-        return baseSize.price + toppings.size() * Topping.PRICE;
+        return totalCents / 100.0;
+    }
+
+    /**
+     * Returns the cost of the base with the cost of each topping in cents
+     * @return total cost of the pizza in cents
+     */
+    @Override
+    public long totalCents() {
+        return totalCents;
     }
 
     /**
@@ -124,7 +380,10 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Name is null or blank");
         }
+        String oldName = this.name;
         this.name = name;
+        labels = null;
+        Menu.getInstance().nameChanged(this, oldName);
     }
 
     /**
@@ -134,6 +393,8 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
     @Override
     public void set(BaseSize size) {
         this.baseSize = size;
+        updateTotal();
+        labels = null;
     }
 
     /**
@@ -143,6 +404,7 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
     @Override
     public void set(Cheese cheese) {
         this.cheese = cheese;
+        labels = null;
     }
 
     /**
@@ -152,6 +414,7 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
     @Override
     public void set(Sauce sauce) {
         this.sauce = sauce;
+        labels = null;
     }
 
     /**
@@ -160,7 +423,10 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
      */
     @Override
     public int hashCode() {
-        return baseSize.hashCode() * sauce.hashCode() * cheese.hashCode() * toppings.hashCode();
+        int hash = baseSize.ordinal();
+        hash = 31 * hash + sauce.ordinal();
+        hash = 31 * hash + cheese.ordinal();
+        return 31 * hash + toppingHash;
     }
 
     /**
@@ -170,15 +436,22 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
      */
     @Override
     public boolean equals(Object other) {
-        if (this.baseSize != ((Pizza) other).baseSize) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof Pizza)) {
             return false;
-        } else if (this.cheese != ((Pizza) other).cheese) {
+        }
+        Pizza pizza = (Pizza) other;
+        if (this.baseSize != pizza.baseSize) {
             return false;
-        } else if (this.sauce != ((Pizza) other).sauce) {
+        } else if (this.cheese != pizza.cheese) {
+            return false;
+        } else if (this.sauce != pizza.sauce) {
             return false;
         } else {
-            return new HashSet<>(this.toppings).containsAll(((Pizza) other).toppings)
-                    && ((Pizza) other).toppings.size() == this.toppings.size();
+            // Toppings match if they have the same distinct toppings in any order
+            return this.toppings.size() == pizza.toppings.size()
+                    && Arrays.equals(this.toppingOrdinals, pizza.toppingOrdinals);
         }
     }
 
@@ -204,19 +477,77 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
      */
     @Override
     public String toString() {
-        String toppingsList;
-        if (toppings.isEmpty()) {
-            toppingsList = "";
-        } else {
-            toppingsList = " - Toppings: [";
-            for (Topping topping : toppings) {
-                toppingsList = toppingsList + topping.toString() + ", ";
+        return labels().description;
+    }
+
+    /**
+     * Returns the price of the pizza with two decimal places, such as "$9.00"
+     * @return price label of the pizza
+     */
+    public String getPriceLabel() {
+        return labels().priceLabel;
+    }
+
+    /**
+     * Writes the same representation of the pizza as {@link #toString()} into an Appendable
+     * @param out where the pizza is written
+     * @throws IOException if the pizza can't be written
+     */
+    public void appendTo(Appendable out) throws IOException {
+        out.append(labels().description);
+    }
+
+    /**
+     * Writes the description of the pizza used by {@link #toString()}, which subclasses can
+     * extend. This is only called again after the pizza changes.
+     * @param out where the description is written
+     * @throws IOException if the description can't be written
+     */
+    protected void describeTo(Appendable out) throws IOException {
+        out.append(name);
+        out.append(": is a '");
+        out.append(String.valueOf(baseSize));
+        out.append("' sized base with '");
+        out.append(String.valueOf(sauce));
+        out.append("' sauce and '");
+        out.append(String.valueOf(cheese));
+        out.append("' cheese");
+        if (!toppings.isEmpty()) {
+            out.append(" - Toppings: [");
+            for (int i = 0; i < toppings.size(); i++) {
+                if (i > 0) {
+                    out.append(", ");
+                }
+                out.append(String.valueOf(toppings.get(i)));
             }
-            toppingsList = toppingsList.substring(0, toppingsList.length() - 2);
-            toppingsList = toppingsList + "]";
+            out.append(']');
         }
-        return String.format("%s: is a '%s' sized base with '%s' sauce and '%s' cheese%s $%.2f",
-                name, baseSize, sauce, cheese, toppingsList, getTotalPrice());
+        out.append(" $");
+        ReceiptFormat.appendMoney(out, totalCents);
+    }
+
+    /**
+     * Returns the description and price label of the pizza, building them if the pizza has
+     * changed or prices are now written in a different locale
+     * @return labels of the pizza
+     */
+    private Labels labels() {
+        Labels current = labels;
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (current == null || !current.locale.equals(locale)) {
+            StringBuilder description = new StringBuilder();
+            StringBuilder priceLabel = new StringBuilder("$");
+            try {
+                describeTo(description);
+                ReceiptFormat.appendMoney(priceLabel, totalCents);
+            } catch (IOException e) {
+                // StringBuilder never throws
+                throw new UncheckedIOException(e);
+            }
+            current = new Labels(locale, description.toString(), priceLabel.toString());
+            labels = current;
+        }
+        return current;
     }
 
     /**
@@ -226,4 +557,51 @@ public abstract class Pizza implements Bases, Sauces, Cheeses, MenuItem {
     protected List<Topping> accessToppings() {
         return toppings;
     }
+
+    /**
+     * Updates the topping ordinals used to compare pizzas, which must be called whenever the
+     * list returned by {@link #accessToppings()} is changed
+     */
+    protected void toppingsChanged() {
+        int[] ordinals = new int[toppings.size()];
+        int count = 0;
+        boolean vegan = true;
+        labels = null;
+        for (Topping topping : toppings) {
+            vegan &= topping.isVegan();
+            // Insertion sort, skipping duplicates, as a pizza only has a few toppings
+            int ordinal = topping.ordinal();
+            int index = count;
+            while (index > 0 && ordinals[index - 1] > ordinal) {
+                index--;
+            }
+            if (index > 0 && ordinals[index - 1] == ordinal) {
+                continue;
+            }
+            System.arraycopy(ordinals, index, ordinals, index + 1, count - index);
+            ordinals[index] = ordinal;
+            count++;
+        }
+        toppingOrdinals = count < ordinals.length ? Arrays.copyOf(ordinals, count) : ordinals;
+        toppingHash = Arrays.hashCode(toppingOrdinals);
+        veganToppings = vegan;
+        updateTotal();
+    }
+
+    /**
+     * Updates the cached price of the pizza from its size and number of toppings
+     */
+    private void updateTotal() {
+        totalCents = baseSize.cents + toppings.size() * Topping.PRICE_CENTS;
+        changeCount++;
+    }
+
+    /**
+     * Returns the number of times the size or toppings of the pizza have changed, so that
+     * totals worked out from the pizza, such as an order's, can tell when they are out of date
+     * @return number of changes to the price or toppings
+     */
+    public int changeCount() {
+        return changeCount;
+    }
 }
\ No newline at end of file
@@ -18,25 +18,31 @@ public interface Bases {
         /**
          * Small pizza base - $3
          */
-        SMALL(3),
+        SMALL(300),
 
         /**
          * Medium pizza base - $5
          */
-        MEDIUM(5),
+        MEDIUM(500),
 
         /**
          * Large pizza base - $7
          */
-        LARGE(7);
+        LARGE(700);
 
         /**
          * Price of the pizza base ($)
          */
         public final double price;
 
-        private BaseSize(double price) {
-            this.price = price;
+        /**
+         * Price of the pizza base in cents
+         */
+        public final long cents;
+
+        private BaseSize(long cents) {
+            this.cents = cents;
+            this.price = cents / 100.0;
         }
 
         /**
@@ -46,5 +52,13 @@ public interface Bases {
         public double getPrice() {
             return this.price;
         }
+
+        /**
+         * Returns the price of the pizza base in cents
+         * @return the price of the base in cents
+         */
+        public long getCents() {
+            return this.cents;
+        }
     }
 }
\ No newline at end of file
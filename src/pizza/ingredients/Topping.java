@@ -1,5 +1,7 @@
 package pizza.ingredients;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents the possible toppings that can be placed on a pizza
  */
@@ -15,15 +17,41 @@ public class Topping {
      */
     private final boolean vegan;
 
+    /**
+     * Number unique to this topping, see {@link #ordinal()}
+     */
+    private final int ordinal;
+
+    /**
+     * Price of each topping in cents
+     */
+    public static final long PRICE_CENTS = 200;
+
     /**
      * Price of each topping
      */
-    public static final double PRICE = 2;
+    public static final double PRICE = PRICE_CENTS / 100.0;
+
+    /**
+     * Registry of all the toppings available, which is replaced rather than changed so
+     * threads can look toppings up in it without locking
+     */
+    private static volatile ToppingRegistry toppings = new ToppingRegistry();
 
     /**
-     * Array of all the toppings available
+     * Held while the available toppings are replaced, so no replacement is lost
      */
-    private static Topping[] toppings = {};
+    private static final Object lock = new Object();
+
+    /**
+     * Ordinal of the next topping to be created
+     */
+    private static final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    /**
+     * Registry being built by the current thread to replace the available toppings, if any
+     */
+    private static final ThreadLocal<ToppingRegistry> staged = new ThreadLocal<>();
 
     /**
      * Constructor for the topping with a given name and whether it is vegan or not
@@ -31,8 +59,9 @@ public class Topping {
      * @param isVegan whether the topping is vegan or not
      */
     private Topping(String name, boolean isVegan) {
-        this.name = name.toUpperCase();
+        this.name = ToppingRegistry.upperCase(name);
         this.vegan = isVegan;
+        this.ordinal = nextOrdinal.getAndIncrement();
     }
 
     /**
@@ -43,21 +72,60 @@ public class Topping {
      */
     public static void createTopping(String name, boolean isVegan)
             throws IllegalArgumentException {
-        if (name == null || name.isBlank()) {
+        if (!tryCreateTopping(name, isVegan)) {
             throw new IllegalArgumentException();
         }
-        int n = toppings.length;
-        Topping[] newToppings = new Topping[n + 1];
+    }
 
-        // Check topping in array and add each topping to new array
-        for (int i = 0; i < n; i++) {
-            if (toppings[i].name.equals(name.toUpperCase())) {
-                throw new IllegalArgumentException();
+    /**
+     * Creates a new topping with a given name and vegan boolean state, without throwing if
+     * the name is invalid
+     * @param name name of the topping
+     * @param isVegan whether the topping is vegan or not
+     * @return false if the name is null or blank or a topping with that name already exists
+     */
+    public static boolean tryCreateTopping(String name, boolean isVegan) {
+        if (name == null || name.isBlank()) {
+            return false;
+        }
+        String upperName = ToppingRegistry.upperCase(name);
+        ToppingRegistry registry = staged.get();
+        if (registry == null) {
+            synchronized (lock) {
+                if (toppings.find(upperName, 0, upperName.length()) != null) {
+                    return false;
+                }
+                toppings = toppings.with(new Topping(upperName, isVegan));
             }
-            newToppings[i] = toppings[i];
+            return true;
+        }
+        if (registry.find(upperName, 0, upperName.length()) != null) {
+            return false;
+        }
+        // Keep using an unchanged topping so pizzas that have it do not need replacing
+        Topping existing = toppings.find(upperName, 0, upperName.length());
+        if (existing != null && existing.vegan == isVegan) {
+            registry.add(existing);
+        } else {
+            registry.add(new Topping(upperName, isVegan));
+        }
+        return true;
+    }
+
+    /**
+     * Creates a topping that is not added to the available toppings, for rebuilding pizzas
+     * made with a topping that is no longer available. It can't be found by name, and is
+     * not one of the {@link #values()}, so it can't be picked for new pizzas.
+     * @param name name of the topping
+     * @param isVegan whether the topping is vegan or not
+     * @return the new topping
+     * @throws IllegalArgumentException if the name is null or blank
+     */
+    public static Topping detached(String name, boolean isVegan) throws IllegalArgumentException {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Topping name was blank");
         }
-        newToppings[n] = new Topping(name.toUpperCase(), isVegan);
-        toppings = newToppings;
+        return new Topping(name, isVegan);
     }
 
     /**
@@ -72,28 +140,123 @@ public class Topping {
         if (name == null) {
             throw new NullPointerException();
         }
+        return valueOf(name, 0, name.length());
+    }
 
-        for (int i = 0; i < toppings.length; i++) {
-            if (toppings[i].name.equals(name.toUpperCase())) {
-                return toppings[i];
-            }
+    /**
+     * Returns a topping that has already been added with the name given by a range of characters
+     * @param name characters containing the name of the topping to be returned
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the topping with the specified name
+     * @throws IllegalArgumentException if the no topping exists with the specified name
+     * @throws NullPointerException if the name is null
+     */
+    public static Topping valueOf(CharSequence name, int start, int end)
+            throws IllegalArgumentException, NullPointerException {
+        Topping topping = find(name, start, end);
+        if (topping == null) {
+            throw new IllegalArgumentException();
+        }
+        return topping;
+    }
+
+    /**
+     * Returns a topping that has already been added with the name given by a range of
+     * characters, without throwing if there is none
+     * @param name characters containing the name of the topping to be returned
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the topping with the specified name, or null if no topping has that name
+     * @throws NullPointerException if the name is null
+     */
+    public static Topping find(CharSequence name, int start, int end)
+            throws NullPointerException {
+        if (name == null) {
+            throw new NullPointerException();
         }
-        throw new IllegalArgumentException();
+        return registry().find(name, start, end);
     }
 
     /**
      * Returns an array containing the toppings that have been added
-     * @return array of toppings in the order they were added
+     * @return new array of toppings in the order they were added
      */
     public static Topping[] values() {
-        return toppings;
+        return registry().values().clone();
     }
 
     /**
      * Resets toppings so the values() method returns an empty toppings array
      */
     public static void resetToppings() {
-        toppings = new Topping[0];
+        if (staged.get() != null) {
+            staged.set(new ToppingRegistry());
+        } else {
+            synchronized (lock) {
+                toppings = new ToppingRegistry();
+            }
+        }
+    }
+
+    /**
+     * Starts building a new set of toppings on the current thread, which replaces the
+     * available toppings when it is published. Until then, toppings created and looked up
+     * on this thread only use the new set, while other threads keep using the current one.
+     * A created topping with the same name and vegan state as a current topping is the
+     * same object as the current topping.
+     */
+    public static void stageToppings() {
+        staged.set(new ToppingRegistry());
+    }
+
+    /**
+     * Replaces the available toppings with the ones staged on the current thread, in a
+     * single step for every thread
+     * @throws IllegalStateException if no toppings are being staged on the current thread
+     */
+    public static void publishStagedToppings() throws IllegalStateException {
+        ToppingRegistry registry = staged.get();
+        if (registry == null) {
+            throw new IllegalStateException("No toppings are staged");
+        }
+        staged.remove();
+        synchronized (lock) {
+            toppings = registry;
+        }
+    }
+
+    /**
+     * Discards the toppings staged on the current thread, leaving the available toppings
+     * unchanged
+     */
+    public static void discardStagedToppings() {
+        staged.remove();
+    }
+
+    /**
+     * Returns a lookup of the toppings the current thread uses, staged or available, which
+     * other threads can use to find the same toppings. Toppings created afterwards may not
+     * be found, so take the lookup once every topping has been created.
+     * @return lookup of the current thread's toppings
+     */
+    public static ToppingLookup lookup() {
+        ToppingRegistry registry = registry();
+        return (name, start, end) -> {
+            if (name == null) {
+                throw new NullPointerException();
+            }
+            return registry.find(name, start, end);
+        };
+    }
+
+    /**
+     * Returns the registry used by the current thread
+     * @return the staged registry if there is one, otherwise the available toppings
+     */
+    private static ToppingRegistry registry() {
+        ToppingRegistry registry = staged.get();
+        return registry != null ? registry : toppings;
     }
 
     /**
@@ -112,4 +275,13 @@ public class Topping {
     public boolean isVegan() {
         return this.vegan;
     }
+
+    /**
+     * Returns a number unique to this topping, which is never given to another topping even
+     * after the toppings are reset. Toppings created later have higher ordinals.
+     * @return ordinal of the topping
+     */
+    public int ordinal() {
+        return this.ordinal;
+    }
 }
\ No newline at end of file
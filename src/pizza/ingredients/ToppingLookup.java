@@ -0,0 +1,18 @@
+package pizza.ingredients;
+
+/**
+ * Finds toppings by name among the toppings one thread could see when the lookup was taken,
+ * see {@link Topping#lookup()}
+ */
+@FunctionalInterface
+public interface ToppingLookup {
+
+    /**
+     * Returns the topping with the name given by a range of characters, ignoring case
+     * @param name characters containing the name of the topping
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the topping with the name, or null if there is none
+     */
+    Topping find(CharSequence name, int start, int end);
+}
@@ -0,0 +1,117 @@
+package pizza.ingredients;
+
+import java.util.Arrays;
+
+/**
+ * Set of topping names that follows the same rules as the toppings created with
+ * {@link Topping#createTopping(String, boolean)}, without creating any toppings. It is for
+ * checking menus without changing the toppings that exist.
+ * <p>
+ * Names are upper case and looked up ignoring case, the same as {@link Topping#valueOf}.
+ */
+public final class ToppingNames {
+
+    /**
+     * Upper case names in the order they were added
+     */
+    private String[] names = new String[16];
+
+    /**
+     * Number of names added
+     */
+    private int size;
+
+    /**
+     * Open addressing hash table of name indexes plus one, with 0 marking an empty slot
+     */
+    private int[] table = new int[names.length * 2];
+
+    /**
+     * Adds a topping name, if a topping could be created with it
+     * @param name name of the topping
+     * @return false if the name is null or blank or has already been added
+     */
+    public boolean add(String name) {
+        if (name == null || name.isBlank()) {
+            return false;
+        }
+        String upperName = ToppingRegistry.upperCase(name);
+        if (contains(upperName, 0, upperName.length())) {
+            return false;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size++] = upperName;
+        // Keep the table at most half full so probe sequences stay short
+        if (size * 2 > table.length) {
+            int[] newTable = new int[table.length * 2];
+            for (int i = 0; i < size; i++) {
+                insert(newTable, i);
+            }
+            table = newTable;
+        } else {
+            insert(table, size - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a topping name given by a range of characters has been added,
+     * ignoring case
+     * @param name characters containing the name
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return true if the name has been added
+     */
+    public boolean contains(CharSequence name, int start, int end) {
+        if (!ToppingRegistry.isAscii(name, start, end)) {
+            String upperName = ToppingRegistry.upperCase(name.subSequence(start, end).toString());
+            return lookup(upperName, 0, upperName.length());
+        }
+        return lookup(name, start, end);
+    }
+
+    /**
+     * Returns whether a name has been added, folding only ASCII letters to upper case
+     * @param name characters containing the name, which are ASCII or already upper case
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return true if the name has been added
+     */
+    private boolean lookup(CharSequence name, int start, int end) {
+        int mask = table.length - 1;
+        int slot = ToppingRegistry.hash(name, start, end) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (ToppingRegistry.matches(names[entry - 1], name, start, end)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of names added
+     * @return number of names
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the index of a name to a hash table
+     * @param into table to add the index to
+     * @param index index of the name
+     */
+    private void insert(int[] into, int index) {
+        String name = names[index];
+        int mask = into.length - 1;
+        int slot = ToppingRegistry.hash(name, 0, name.length()) & mask;
+        while (into[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        into[slot] = index + 1;
+    }
+}
@@ -0,0 +1,255 @@
+package pizza.ingredients;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Hash indexed store of the toppings that have been created, used by {@link Topping}.
+ * <p>
+ * Toppings are kept in an array in the order they were registered, with an open
+ * addressing table of indexes into that array keyed on the upper case topping name.
+ * Lookups are case-insensitive and can be performed on any range of characters, so
+ * callers do not have to create an upper case copy of the name first.
+ * <p>
+ * A registry is not thread safe while toppings are added to it. A registry that other
+ * threads can read is never added to, instead a copy with the new topping replaces it.
+ */
+final class ToppingRegistry {
+
+    /**
+     * Initial capacity of the topping array
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Toppings in the order they were registered, only the first size entries are used
+     */
+    private Topping[] toppings = new Topping[INITIAL_CAPACITY];
+
+    /**
+     * Number of registered toppings
+     */
+    private int size;
+
+    /**
+     * Open addressing table holding (index + 1) into toppings, 0 marks an empty slot
+     */
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Cached copy of the registered toppings, null when it needs to be rebuilt
+     */
+    private volatile Topping[] snapshot;
+
+    /**
+     * Creates an empty registry
+     */
+    ToppingRegistry() {
+    }
+
+    /**
+     * Creates a copy of a registry, which toppings can be added to without changing the
+     * original
+     * @param registry registry to be copied
+     */
+    private ToppingRegistry(ToppingRegistry registry) {
+        this.toppings = registry.toppings.clone();
+        this.size = registry.size;
+        this.table = registry.table.clone();
+        this.snapshot = registry.snapshot;
+    }
+
+    /**
+     * Returns the topping registered with the given name, ignoring case
+     * @param name characters containing the name of the topping
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the topping with the given name, or null if no topping has that name
+     */
+    Topping find(CharSequence name, int start, int end) {
+        if (!isAscii(name, start, end)) {
+            String upperName = upperCase(name.subSequence(start, end).toString());
+            return lookup(upperName, 0, upperName.length());
+        }
+        return lookup(name, start, end);
+    }
+
+    /**
+     * Returns the topping registered with the given name, folding only ASCII letters to
+     * upper case
+     * @param name characters containing the name of the topping, which are ASCII or
+     * already upper case
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the topping with the given name, or null if no topping has that name
+     */
+    private Topping lookup(CharSequence name, int start, int end) {
+        int mask = table.length - 1;
+        int slot = hash(name, start, end) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            Topping topping = toppings[entry - 1];
+            if (matches(topping.toString(), name, start, end)) {
+                return topping;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a topping to the registry, the caller must check that the name is not
+     * already registered
+     * @param topping topping to be added
+     */
+    void add(Topping topping) {
+        if (size == toppings.length) {
+            toppings = Arrays.copyOf(toppings, size * 2);
+        }
+        toppings[size++] = topping;
+        // Keep the table at most half full so probe sequences stay short
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(table, size - 1);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Returns a copy of this registry with a topping added, leaving this registry unchanged
+     * so other threads can keep reading it. The caller must check that the name is not
+     * already registered.
+     * @param topping topping to be added
+     * @return new registry holding the toppings of this one and the new topping
+     */
+    ToppingRegistry with(Topping topping) {
+        ToppingRegistry copy = new ToppingRegistry(this);
+        copy.add(topping);
+        return copy;
+    }
+
+    /**
+     * Returns the registered toppings in the order they were added
+     * @return shared array of the toppings, which must not be modified
+     */
+    Topping[] values() {
+        Topping[] values = snapshot;
+        if (values == null) {
+            values = Arrays.copyOf(toppings, size);
+            snapshot = values;
+        }
+        return values;
+    }
+
+    /**
+     * Returns the number of registered toppings
+     * @return number of toppings
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Rebuilds the index table with the given capacity
+     * @param capacity new table capacity, must be a power of two
+     */
+    private void rehash(int capacity) {
+        int[] newTable = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            insert(newTable, i);
+        }
+        table = newTable;
+    }
+
+    /**
+     * Inserts the topping at the given index into an index table
+     * @param into table to insert into
+     * @param index index of the topping in the topping array
+     */
+    private void insert(int[] into, int index) {
+        String name = toppings[index].toString();
+        int mask = into.length - 1;
+        int slot = hash(name, 0, name.length()) & mask;
+        while (into[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        into[slot] = index + 1;
+    }
+
+    /**
+     * Returns the upper case form a topping name is stored under. Names are folded the
+     * same way whatever the default locale is, so lookups can fold ASCII letters one
+     * character at a time and only need to create a string for other names.
+     * @param name name of the topping
+     * @return upper case name
+     */
+    static String upperCase(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns whether a range of characters only contains ASCII characters, which fold
+     * to upper case one character at a time the same as {@link #upperCase(String)}
+     * @param name characters to check
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return true if every character is ASCII
+     */
+    static boolean isAscii(CharSequence name, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (name.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash of the characters in the given range with ASCII letters folded to
+     * upper case
+     * @param name characters to hash
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return hash of the characters
+     */
+    static int hash(CharSequence name, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + toUpperCase(name.charAt(i));
+        }
+        // Spread the higher bits down as the table is indexed with the low bits
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns whether an upper case topping name matches a range of characters, with
+     * ASCII letters in the range folded to upper case
+     * @param upperName upper case name of a topping
+     * @param name characters to compare against
+     * @param start index of the first character
+     * @param end index after the last character
+     * @return true if the names are the same ignoring case
+     */
+    static boolean matches(String upperName, CharSequence name, int start, int end) {
+        if (upperName.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (upperName.charAt(i - start) != toUpperCase(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the upper case form of an ASCII letter, leaving every other character
+     * unchanged
+     * @param c character to convert
+     * @return upper case character
+     */
+    private static char toUpperCase(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,165 @@
+package server;
+
+import io.MenuLoader;
+import menu.Menu;
+import menu.MenuItem;
+import menu.OrderService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark that places orders with an {@link OrderServer} running in the same process and
+ * reports the latency of each order.
+ * <p>
+ * Usage: {@code LoadGenerator [clients] [orders] [delay millis]}. Up to {@code clients}
+ * orders are in flight at once, each from its own connection, and each client waits
+ * {@code delay millis} between sending its headers and its body, to act like a slow mobile
+ * client holding a connection open.
+ */
+public final class LoadGenerator {
+
+    /**
+     * Prevents instances, as all methods are static
+     */
+    private LoadGenerator() {
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args optionally the number of concurrent clients, the number of orders and the
+     * delay of each client in milliseconds
+     * @throws IOException if the server can't be started
+     * @throws InterruptedException if interrupted while waiting for the orders
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        long delayMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        MenuLoader.loadCompiled("PizzaMenu.txt");
+        List<MenuItem> items = Menu.getInstance().getItems();
+        if (items.isEmpty()) {
+            System.out.println("The menu is empty");
+            return;
+        }
+        String body = "customer Load Test\n"
+                + "menu LARGE BBQ MOZZARELLA " + items.get(0).getName() + "\n"
+                + "custom SMALL TOMATO VEGAN\n";
+
+        try (OrderServer server = OrderServer.start(new InetSocketAddress("localhost", 0),
+                new OrderService())) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+            // Warm up the server before measuring
+            run(server.getPort(), bytes, clients, Math.min(count, 2000), 0);
+            long start = System.nanoTime();
+            long[] latencies = run(server.getPort(), bytes, clients, count, delayMillis);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("clients=%d orders=%d delay=%dms%n", clients, count, delayMillis);
+            System.out.printf("throughput: %.0f orders/s%n", count / seconds);
+            System.out.printf("p50: %.2f ms%n", percentile(latencies, 50) / 1e6);
+            System.out.printf("p99: %.2f ms%n", percentile(latencies, 99) / 1e6);
+            System.out.printf("max: %.2f ms%n", latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    /**
+     * Places orders with up to a number of them in flight at once, each from its own client
+     * connection
+     * @param port port the server is listening on
+     * @param body order to be placed
+     * @param clients most orders in flight at once
+     * @param count number of orders to place
+     * @param delayMillis time each client waits between sending its headers and its body
+     * @return latency of each order in nanoseconds, measured from when it connected
+     * @throws InterruptedException if interrupted while waiting for the orders
+     */
+    private static long[] run(int port, byte[] body, int clients, int count, long delayMillis)
+            throws InterruptedException {
+        byte[] headers = ("POST /orders HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Connection: close\r\n"
+                + "Content-Length: " + body.length + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        long[] latencies = new long[count];
+        Semaphore inFlight = new Semaphore(clients);
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = OrderServer.newRequestExecutor();
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            int index = i;
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    if (!placeOrder(port, headers, body, delayMillis)) {
+                        failures.incrementAndGet();
+                    }
+                } catch (IOException | InterruptedException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - start;
+                    inFlight.release();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        if (failures.get() > 0) {
+            System.out.println(failures.get() + " orders failed");
+        }
+        return latencies;
+    }
+
+    /**
+     * Places one order like a slow client, sending the headers and then the body after a
+     * delay
+     * @param port port the server is listening on
+     * @param headers request line and headers
+     * @param body order to be placed
+     * @param delayMillis time to wait between the headers and the body
+     * @return true if the order was confirmed
+     * @throws IOException if the order couldn't be sent or the response read
+     * @throws InterruptedException if interrupted while waiting to send the body
+     */
+    private static boolean placeOrder(int port, byte[] headers, byte[] body, long delayMillis)
+            throws IOException, InterruptedException {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(headers);
+            out.flush();
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            out.write(body);
+            out.flush();
+            InputStream in = socket.getInputStream();
+            byte[] status = in.readNBytes("HTTP/1.1 201".length());
+            in.transferTo(OutputStream.nullOutputStream());
+            return new String(status, StandardCharsets.US_ASCII).endsWith(" 201");
+        }
+    }
+
+    /**
+     * Returns a percentile of sorted values, using the nearest rank
+     * @param sorted values in ascending order
+     * @param percent percentile to be returned
+     * @return the value at that percentile
+     */
+    static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,452 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.TooManyToppingsException;
+import io.MenuLoader;
+import io.OrderJournal;
+import menu.CoarseClock;
+import menu.Menu;
+import menu.MenuItemView;
+import menu.Order;
+import menu.OrderService;
+import pizza.MenuPizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server that takes orders from phone apps and kiosks into the same
+ * {@link OrderService} the GUI uses.
+ * <p>
+ * {@code GET /menu} returns one line per menu item: its name, its toppings separated by
+ * commas and its small, medium and large prices, separated by tabs.
+ * <p>
+ * {@code POST /orders} takes one line per instruction and returns the priced receipt:
+ * <pre>
+ * customer Alice
+ * menu LARGE BBQ VEGAN Margherita
+ * custom SMALL TOMATO NONE HAM, PINEAPPLE
+ * </pre>
+ * A {@code customer} line names the customer. A {@code menu} line adds the named menu pizza
+ * and a {@code custom} line adds a custom pizza with the toppings listed after the cheese,
+ * each with the given size, sauce and cheese. Orders that can't be made are rejected with
+ * status 400 and a message, and nothing is confirmed.
+ * <p>
+ * Each request is handled on its own virtual thread when the runtime has them, so slow
+ * clients only tie up a cheap thread. Older runtimes use a cached pool of platform threads.
+ */
+public final class OrderServer implements Closeable {
+
+    /**
+     * Port used when none is given
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Connections waiting to be accepted before new ones are refused
+     */
+    static final int BACKLOG = 4096;
+
+    /**
+     * Largest order body accepted, in bytes
+     */
+    static final int MAX_BODY_SIZE = 64 * 1024;
+
+    /**
+     * The HTTP server
+     */
+    private final HttpServer server;
+
+    /**
+     * Runs each request
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Takes the orders
+     */
+    private final OrderService orders;
+
+    /**
+     * Menu text returned by GET /menu, with the views it was made from
+     */
+    private volatile MenuText menuText;
+
+    /**
+     * Text of the menu, which is only made again once the menu has changed
+     */
+    private static final class MenuText {
+
+        /**
+         * Views the text was made from
+         */
+        private final List<MenuItemView> views;
+
+        /**
+         * UTF-8 encoded text
+         */
+        private final byte[] bytes;
+
+        /**
+         * Creates the text of a menu
+         * @param views views the text was made from
+         * @param bytes UTF-8 encoded text
+         */
+        private MenuText(List<MenuItemView> views, byte[] bytes) {
+            this.views = views;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Creates a server that has not been started
+     * @param server HTTP server bound to its address
+     * @param orders takes the orders
+     */
+    private OrderServer(HttpServer server, OrderService orders) {
+        this.server = server;
+        this.orders = orders;
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/menu", this::handleMenu);
+        server.createContext("/orders", this::handleOrder);
+    }
+
+    /**
+     * Starts a server on an address
+     * @param address address to listen on, with port 0 for any free port
+     * @param orders takes the orders
+     * @return the started server
+     * @throws IllegalArgumentException if the address or service is null
+     * @throws IOException if the server can't listen on the address
+     */
+    public static OrderServer start(InetSocketAddress address, OrderService orders)
+            throws IllegalArgumentException, IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Address was null");
+        } else if (orders == null) {
+            throw new IllegalArgumentException("Order service was null");
+        }
+        OrderServer orderServer = new OrderServer(HttpServer.create(address, BACKLOG), orders);
+        orderServer.server.start();
+        return orderServer;
+    }
+
+    /**
+     * Loads the menu, restores the orders in the order journal and serves orders until
+     * stopped. Confirmed orders are appended to the journal the GUI uses, see
+     * {@link OrderJournal#getDefaultPath()}.
+     * @param args optionally the port to listen on, which defaults to {@link #DEFAULT_PORT}
+     * @throws IOException if the server can't listen on the port
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        MenuLoader.loadCompiled("PizzaMenu.txt");
+        // Orders only need timestamps to the millisecond, so don't read the clock per order
+        Order.setClock(CoarseClock.start(Duration.ofMillis(1)));
+        OrderJournal journal = openJournal();
+        OrderService orderService;
+        if (journal == null) {
+            orderService = new OrderService();
+        } else {
+            orderService = new OrderService(order ->
+                    journal.append(order).exceptionally(error -> {
+                        System.out.println("Order " + order.getUUID() + " could not be saved");
+                        return null;
+                    }));
+            orderService.restore(journal.recoveredOrders());
+        }
+        OrderServer orderServer = start(new InetSocketAddress(port), orderService);
+        System.out.println("Taking orders on port " + orderServer.getPort());
+    }
+
+    /**
+     * Opens the order journal, which is synced when the server exits
+     * @return the journal, or null if it couldn't be opened and orders will not be saved
+     */
+    private static OrderJournal openJournal() {
+        try {
+            Path path = OrderJournal.getDefaultPath();
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            OrderJournal opened = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    opened.close();
+                } catch (IOException e) {
+                    System.out.println("Some orders could not be saved");
+                }
+            }));
+            return opened;
+        } catch (IOException e) {
+            System.out.println("Orders will not be saved");
+            return null;
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on
+     * @return port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops taking requests, and stops the request threads once current requests finish
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread, or on a cached pool of
+     * platform threads if the runtime has no virtual threads
+     * @return executor for requests
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "order-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Handles GET /menu
+     * @param exchange the request
+     * @throws IOException if the response can't be sent
+     */
+    private void handleMenu(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                send(exchange, 405, "Method not allowed");
+                return;
+            }
+            send(exchange, 200, menuText());
+        }
+    }
+
+    /**
+     * Handles POST /orders
+     * @param exchange the request
+     * @throws IOException if the request can't be read or the response sent
+     */
+    private void handleOrder(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "Method not allowed");
+                return;
+            }
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+            if (body.length > MAX_BODY_SIZE) {
+                send(exchange, 413, "Order is too large");
+                return;
+            }
+            StringBuilder receipt = new StringBuilder();
+            try {
+                placeOrder(new String(body, StandardCharsets.UTF_8), receipt);
+            } catch (IllegalArgumentException | TooManyToppingsException e) {
+                send(exchange, 400, e.getMessage() == null ? "Invalid order" : e.getMessage());
+                return;
+            }
+            send(exchange, 201, receipt.toString());
+        }
+    }
+
+    /**
+     * Makes and confirms an order, cancelling it if any line can't be added
+     * @param text lines of the order
+     * @param receipt where the receipt of the confirmed order is written
+     * @throws IllegalArgumentException if a line is invalid
+     * @throws TooManyToppingsException if a custom pizza has too many toppings
+     * @throws IOException if the receipt can't be written
+     */
+    void placeOrder(String text, StringBuilder receipt)
+            throws IllegalArgumentException, TooManyToppingsException, IOException {
+        String[] lines = text.split("\r?\n");
+        String customer = null;
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = lines[i].strip();
+            String line = lines[i];
+            if (line.startsWith("customer ")) {
+                customer = line.substring("customer ".length()).strip();
+            }
+        }
+        UUID id = orders.create(customer);
+        boolean confirmed = false;
+        try {
+            int pizzas = 0;
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i];
+                if (line.isEmpty() || line.startsWith("customer ")) {
+                    continue;
+                }
+                addPizza(id, line, i + 1);
+                pizzas++;
+            }
+            if (pizzas == 0) {
+                throw new IllegalArgumentException("Order has no pizzas");
+            }
+            orders.confirm(id).appendTo(receipt);
+            confirmed = true;
+        } finally {
+            if (!confirmed) {
+                orders.cancel(id);
+            }
+        }
+    }
+
+    /**
+     * Adds the pizza given by a menu or custom line to an order
+     * @param id UUID of the order
+     * @param line the line
+     * @param lineNum number of the line, for error messages
+     * @throws IllegalArgumentException if the line is invalid
+     * @throws TooManyToppingsException if a custom pizza has too many toppings
+     */
+    private void addPizza(UUID id, String line, int lineNum)
+            throws IllegalArgumentException, TooManyToppingsException {
+        String[] fields = line.split(" +", 5);
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("Line " + lineNum
+                    + " needs a size, sauce and cheese");
+        }
+        Bases.BaseSize size = option(Bases.BaseSize.class, fields[1], lineNum);
+        Sauces.Sauce sauce = option(Sauces.Sauce.class, fields[2], lineNum);
+        Cheeses.Cheese cheese = option(Cheeses.Cheese.class, fields[3], lineNum);
+        String rest = fields.length == 5 ? fields[4] : "";
+        if ("menu".equals(fields[0])) {
+            orders.addMenuPizza(id, rest, size, sauce, cheese);
+        } else if ("custom".equals(fields[0])) {
+            orders.addCustomPizza(id, size, sauce, cheese, toppings(rest, lineNum));
+        } else {
+            throw new IllegalArgumentException("Line " + lineNum + " is not a customer, menu "
+                    + "or custom line");
+        }
+    }
+
+    /**
+     * Returns the toppings named in a comma separated list
+     * @param names topping names, which may be empty
+     * @param lineNum number of the line, for error messages
+     * @return the toppings
+     * @throws IllegalArgumentException if a topping doesn't exist
+     */
+    private static List<Topping> toppings(String names, int lineNum)
+            throws IllegalArgumentException {
+        List<Topping> toppings = new ArrayList<>();
+        if (names.isBlank()) {
+            return toppings;
+        }
+        for (String name : names.split(",")) {
+            try {
+                toppings.add(Topping.valueOf(name.strip().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNum + " has no topping called "
+                        + name.strip(), e);
+            }
+        }
+        return toppings;
+    }
+
+    /**
+     * Returns the constant of a size, sauce or cheese with a given name
+     * @param type enum of the option
+     * @param name name of the constant, in any case
+     * @param lineNum number of the line, for error messages
+     * @param <E> type of the option
+     * @return the constant
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    private static <E extends Enum<E>> E option(Class<E> type, String name, int lineNum)
+            throws IllegalArgumentException {
+        try {
+            return Enum.valueOf(type, name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + lineNum + " has no "
+                    + type.getSimpleName().toLowerCase(Locale.ROOT) + " called " + name, e);
+        }
+    }
+
+    /**
+     * Returns the text of the menu pizzas, making it again only if the menu has changed. Other
+     * items registered with the menu, such as custom pizzas, can't be ordered by name so
+     * aren't listed.
+     * @return UTF-8 encoded menu text
+     */
+    private byte[] menuText() {
+        List<MenuItemView> views = Menu.getInstance().getViews();
+        MenuText current = menuText;
+        if (current == null || current.views != views) {
+            StringBuilder text = new StringBuilder();
+            for (MenuItemView view : views) {
+                if (!(view.getItem() instanceof MenuPizza)) {
+                    continue;
+                }
+                text.append(view.getName()).append('\t').append(view.getToppingsLabel());
+                for (Bases.BaseSize size : Bases.BaseSize.values()) {
+                    text.append('\t').append(view.getPriceLabel(size));
+                }
+                text.append('\n');
+            }
+            current = new MenuText(views, text.toString().getBytes(StandardCharsets.UTF_8));
+            menuText = current;
+        }
+        return current.bytes;
+    }
+
+    /**
+     * Sends a plain text response
+     * @param exchange the request
+     * @param status HTTP status code
+     * @param text text of the response
+     * @throws IOException if the response can't be sent
+     */
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        send(exchange, status, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a plain text response
+     * @param exchange the request
+     * @param status HTTP status code
+     * @param body UTF-8 encoded text of the response
+     * @throws IOException if the response can't be sent
+     */
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package gui;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NewestFirstListModelTest {
+
+    @Test
+    public void testAdd() {
+        NewestFirstListModel<String> model = new NewestFirstListModel<>();
+        model.add("first");
+        model.add("second");
+        model.add("third");
+
+        assertEquals(3, model.getSize());
+        assertEquals("third", model.getElementAt(0));
+        assertEquals("second", model.getElementAt(1));
+        assertEquals("first", model.getElementAt(2));
+    }
+
+    @Test
+    public void testClear() {
+        NewestFirstListModel<String> model = new NewestFirstListModel<>();
+        model.add("first");
+        model.clear();
+        assertEquals(0, model.getSize());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetElementOutOfBounds() {
+        NewestFirstListModel<String> model = new NewestFirstListModel<>();
+        model.add("first");
+        model.getElementAt(1);
+    }
+}
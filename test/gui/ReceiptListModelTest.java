@@ -0,0 +1,130 @@
+package gui;
+import menu.Menu;
+import menu.Order;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.CustomPizza;
+import pizza.ingredients.Topping;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReceiptListModelTest {
+
+    private ReceiptListModel model;
+    private List<ListDataEvent> events;
+
+    @Before
+    public void setUp() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        model = new ReceiptListModel();
+        events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    private static Order order(int pizzas) {
+        Order order = new Order();
+        for (int i = 0; i < pizzas; i++) {
+            order.add(new CustomPizza());
+        }
+        return order;
+    }
+
+    @Test
+    public void testRender() {
+        Order order = order(2);
+        String[] lines = ReceiptListModel.render(order);
+        assertEquals(order.toString(),
+                String.join(System.lineSeparator(), lines) + System.lineSeparator());
+        assertTrue(lines[lines.length - 1].startsWith("Total: $"));
+    }
+
+    @Test
+    public void testAdd() {
+        Order first = order(1);
+        Order second = order(4);
+        String[] firstLines = ReceiptListModel.render(first);
+        String[] secondLines = ReceiptListModel.render(second);
+        model.add(first, firstLines);
+        model.add(second, secondLines);
+
+        assertEquals(firstLines.length + secondLines.length + 4, model.getSize());
+        assertEquals(2, model.getOrderCount());
+        assertEquals(firstLines[0], model.getElementAt(0));
+        assertEquals("", model.getElementAt(firstLines.length));
+        assertEquals("", model.getElementAt(firstLines.length + 1));
+        assertEquals(secondLines[0], model.getElementAt(firstLines.length + 2));
+        assertSame(first, model.getOrderAt(firstLines.length + 1));
+        assertSame(second, model.getOrderAt(model.getSize() - 1));
+
+        // Each add only reports its own rows
+        assertEquals(2, events.size());
+        assertEquals(ListDataEvent.INTERVAL_ADDED, events.get(1).getType());
+        assertEquals(firstLines.length + 2, events.get(1).getIndex0());
+        assertEquals(model.getSize() - 1, events.get(1).getIndex1());
+    }
+
+    @Test
+    public void testManyOrders() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Order order = order(i % 7);
+            orders.add(order);
+            model.add(order, ReceiptListModel.render(order));
+        }
+        int row = 0;
+        for (Order order : orders) {
+            String[] lines = ReceiptListModel.render(order);
+            for (String line : lines) {
+                assertEquals(line, model.getElementAt(row));
+                assertSame(order, model.getOrderAt(row));
+                row++;
+            }
+            row += 2;
+        }
+        assertEquals(row, model.getSize());
+    }
+
+    @Test
+    public void testClear() {
+        model.add(null, new String[] {"Placeholder"});
+        assertNull(model.getOrderAt(0));
+        model.clear();
+        assertEquals(0, model.getSize());
+        assertEquals(0, model.getOrderCount());
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, events.get(1).getType());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetElementOutOfBounds() {
+        model.add(null, new String[] {"Line"});
+        model.getElementAt(3);
+    }
+}
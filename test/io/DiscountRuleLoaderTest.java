@@ -0,0 +1,86 @@
+package io;
+import exceptions.PizzaFormatException;
+import menu.DiscountRule;
+import menu.DiscountRules;
+import menu.Menu;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Topping;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DiscountRuleLoaderTest {
+
+    @Before
+    public void setUp() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Ham", false);
+        Topping.createTopping("Pineapple", true);
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    private static DiscountRules read(String text) throws IOException, PizzaFormatException {
+        return DiscountRuleLoader.read(new BufferedReader(new StringReader(text)));
+    }
+
+    private static void assertInvalid(String text, String message) throws IOException {
+        try {
+            read(text);
+            fail("Expected PizzaFormatException");
+        } catch (PizzaFormatException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRead() throws IOException, PizzaFormatException {
+        List<DiscountRule> rules = read("# Promotions\n"
+                + "Multi item discount | pizzas=3 | percent=10\n"
+                + "\n"
+                + "Large pair | pizzas=2 | size=large | cents=500\n"
+                + "Hawaiian bundle | toppings=ham, Pineapple | percent=5\n"
+                + "Happy hour | pizzas=1 | times=16:00-18:30 | percent=20 | cents=100\n")
+                .getRules();
+        assertEquals(4, rules.size());
+        assertEquals("Multi item discount", rules.get(0).getName());
+        assertEquals(3, rules.get(0).getMinPizzas());
+        assertEquals(10, rules.get(0).getPercentOff());
+        assertEquals(Bases.BaseSize.LARGE, rules.get(1).getSize());
+        assertEquals(500, rules.get(1).getCentsOff());
+        assertEquals(List.of(Topping.valueOf("HAM"), Topping.valueOf("PINEAPPLE")),
+                rules.get(2).getToppings());
+        assertEquals(0, rules.get(2).getMinPizzas());
+        assertEquals(LocalTime.of(16, 0), rules.get(3).getStart());
+        assertEquals(LocalTime.of(18, 30), rules.get(3).getEnd());
+        assertEquals(20, rules.get(3).getPercentOff());
+        assertEquals(100, rules.get(3).getCentsOff());
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        assertInvalid("Rule | pizzas=2\n | percent=5\n", "Missing rule name at 2");
+        assertInvalid("Rule | pizzas\n", "Missing = in rule field at 1");
+        assertInvalid("Rule | percent=5 | percent=6\n", "Repeated rule field percent at 1");
+        assertInvalid("Rule | colour=red\n", "Unknown rule field colour at 1");
+        assertInvalid("Rule | percent=101\n", "Invalid rule number 101 at 1");
+        assertInvalid("Rule | cents=-1\n", "Invalid rule number -1 at 1");
+        assertInvalid("Rule | size=huge\n", "Invalid rule size huge at 1");
+        assertInvalid("Rule | toppings=ham, beef\n", "Invalid topping name at 1");
+        assertInvalid("Rule | times=16:00\n", "Invalid rule times at 1");
+        assertInvalid("Rule | times=16:00-late\n", "Invalid rule times at 1");
+    }
+}
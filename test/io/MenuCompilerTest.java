@@ -0,0 +1,140 @@
+package io;
+import exceptions.PizzaFormatException;
+import menu.Menu;
+import menu.MenuItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.Pizza;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class MenuCompilerTest {
+
+    private static final String MENU = "PizzaMenu 2\n\nbacon, ham\nolives, jalape\u00f1o\n\n"
+            + "Hawaiian [ham, bacon]\nVeggie [olives, Jalape\u00f1o]\n";
+
+    private Path directory;
+    private Path source;
+    private Path compiled;
+
+    @Before
+    public void setUp() throws IOException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        directory = Files.createTempDirectory("MenuCompilerTest");
+        source = directory.resolve("PizzaMenu.txt");
+        compiled = MenuCompiler.compiledPath(source);
+        Files.write(source, MENU.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testCompiledPath() {
+        assertEquals(directory.resolve("PizzaMenu.bin"), compiled);
+    }
+
+    @Test
+    public void testLoadCompiled() throws Exception {
+        MenuCompiler.compile(source, compiled);
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+
+        List<MenuItem> items = CompiledMenuLoader.load(source, compiled).getItems();
+        assertEquals(2, items.size());
+        assertEquals("Hawaiian", items.get(0).getName());
+        assertEquals("[HAM, BACON]", ((Pizza) items.get(0)).getToppings().toString());
+        assertEquals("Veggie", items.get(1).getName());
+        assertEquals("[OLIVES, JALAPE\u00d1O]", ((Pizza) items.get(1)).getToppings().toString());
+        assertEquals(4, Topping.values().length);
+        assertFalse(Topping.valueOf("bacon").isVegan());
+        assertTrue(Topping.valueOf("jalape\u00f1o").isVegan());
+    }
+
+    @Test
+    public void testLoadMissing() throws Exception {
+        assertNull(CompiledMenuLoader.load(source, compiled));
+    }
+
+    @Test
+    public void testLoadModifiedSource() throws Exception {
+        MenuCompiler.compile(source, compiled);
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Files.setLastModifiedTime(source,
+                FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 1000));
+
+        assertNull(CompiledMenuLoader.load(source, compiled));
+        assertTrue(Menu.getInstance().getItems().isEmpty());
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testLoadDamaged() throws Exception {
+        MenuCompiler.compile(source, compiled);
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        byte[] bytes = Files.readAllBytes(compiled);
+        bytes[MenuCompiler.HEADER_SIZE + 6] ^= 1;
+        Files.write(compiled, bytes);
+
+        assertNull(CompiledMenuLoader.load(source, compiled));
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testLoadTruncated() throws Exception {
+        MenuCompiler.compile(source, compiled);
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        byte[] bytes = Files.readAllBytes(compiled);
+        Files.write(compiled, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertNull(CompiledMenuLoader.load(source, compiled));
+    }
+
+    @Test
+    public void testCachePath() {
+        Path cached = MenuCompiler.cachePath(source, directory.resolve("cache"));
+        assertEquals(directory.resolve("cache"), cached.getParent());
+        assertTrue(cached.getFileName().toString().startsWith("PizzaMenu-"));
+        assertTrue(cached.getFileName().toString().endsWith(MenuCompiler.EXTENSION));
+        assertNotEquals(cached, MenuCompiler.cachePath(directory.resolve("other/PizzaMenu.txt"),
+                directory.resolve("cache")));
+    }
+
+    @Test
+    public void testLoadDuplicateToppingLine() throws Exception {
+        MenuCompiler.compile(source, compiled);
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Olives", true);
+        try {
+            CompiledMenuLoader.load(source, compiled);
+            fail("Expected PizzaFormatException");
+        } catch (PizzaFormatException e) {
+            assertEquals("Null or duplicate topping name at 4", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package io;
+import exceptions.PizzaFormatException;
+import exceptions.StackTraces;
+import exceptions.TooManyToppingsException;
+import exceptions.ValidationError;
+import exceptions.ValidationResult;
+import menu.Menu;
+import menu.MenuItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.Pizza;
+import pizza.ingredients.Topping;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class MenuLoaderTest {
+
+    private static final String HEADER = "bacon, ham\nolives, pineapple\n\n";
+
+    @Before
+    public void setUp() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    @Test
+    public void testGetMenu() throws Exception {
+        Menu menu = load("PizzaMenu 2\n\n" + HEADER
+                + "Hawaiian [ham, Pineapple]\r\nVeggie [olives]\n");
+
+        List<MenuItem> items = menu.getItems();
+        assertEquals(2, items.size());
+        assertEquals("Hawaiian", items.get(0).getName());
+        assertEquals("[HAM, PINEAPPLE]", ((Pizza) items.get(0)).getToppings().toString());
+        assertEquals("Veggie", items.get(1).getName());
+        assertFalse(Topping.valueOf("bacon").isVegan());
+        assertTrue(Topping.valueOf("olives").isVegan());
+    }
+
+    @Test
+    public void testLoadMapped() throws Exception {
+        Path file = Files.createTempFile("PizzaMenu", ".txt");
+        try {
+            Files.write(file, ("PizzaMenu 2\n\n" + HEADER
+                    + "Hawaiian [ham, Pineapple]\r\nVeggie [olives]\n").getBytes(StandardCharsets.UTF_8));
+            List<MenuItem> items = MenuLoader.loadMapped(file).getItems();
+
+            assertEquals(2, items.size());
+            assertEquals("Hawaiian", items.get(0).getName());
+            assertEquals("[HAM, PINEAPPLE]", ((Pizza) items.get(0)).getToppings().toString());
+            assertEquals("Veggie", items.get(1).getName());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadParallel() throws Exception {
+        Path file = Files.createTempFile("PizzaMenu", ".txt");
+        try {
+            Files.write(file, ("PizzaMenu 3\n\n" + HEADER + "Hawaiian [ham, Pineapple]\r\n"
+                    + "Veggie [olives]\rMeat [bacon, ham]").getBytes(StandardCharsets.UTF_8));
+            List<MenuItem> items = MenuLoader.loadParallel(file).getItems();
+
+            assertEquals(3, items.size());
+            assertEquals("Hawaiian", items.get(0).getName());
+            assertEquals("Veggie", items.get(1).getName());
+            assertEquals("Meat", items.get(2).getName());
+            assertEquals("[BACON, HAM]", ((Pizza) items.get(2)).getToppings().toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadParallelStaged() throws Exception {
+        Path file = Files.createTempFile("PizzaMenu", ".txt");
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Topping.stageToppings();
+        Menu.getInstance().stage();
+        Files.write(file, ("PizzaMenu 2\n\n" + HEADER + "Hawaiian [ham, Pineapple]\n"
+                + "Veggie [olives]\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<MenuItem> items = ParallelMenuLoader.getMenu(channel, pool).getItems();
+
+            assertEquals(2, items.size());
+            assertSame(Topping.valueOf("olives"), ((Pizza) items.get(1)).getToppings().get(0));
+        } finally {
+            Topping.discardStagedToppings();
+            Menu.getInstance().discardStaged();
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadParallelInvalidLine() throws Exception {
+        Path file = Files.createTempFile("PizzaMenu", ".txt");
+        try {
+            Files.write(file, ("PizzaMenu 2\n\n" + HEADER + "Hawaiian [ham, Pineapple]\n"
+                    + "Veggie [olive]\n").getBytes(StandardCharsets.UTF_8));
+
+            assertNull(MenuLoader.loadParallel(file));
+            assertTrue(Menu.getInstance().getItems().isEmpty());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testGetMenuBytesMatchesReader() throws Exception {
+        String text = "PizzaMenu 1\n\n" + HEADER + "Ham [ham, bacon";
+        String readerMessage = null;
+        String bytesMessage = null;
+        try {
+            load(text);
+        } catch (PizzaFormatException e) {
+            readerMessage = e.getMessage();
+        }
+        setUp();
+        try {
+            MenuLoader.getMenu(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (PizzaFormatException e) {
+            bytesMessage = e.getMessage();
+        }
+        assertEquals("Toppings list doesn't end with a square bracket at 6", readerMessage);
+        assertEquals(readerMessage, bytesMessage);
+    }
+
+    @Test
+    public void testGetMenuMissingKeyword() {
+        assertFormatError("File does not start with PizzaMenu at 1", "Menu 1\n\n" + HEADER);
+    }
+
+    @Test
+    public void testGetMenuMissingSpace() {
+        assertFormatError("Missing Space at 1", "PizzaMenu\n\n" + HEADER);
+    }
+
+    @Test
+    public void testGetMenuIncorrectKeyword() {
+        assertFormatError("Initial Keyword is incorrect at 1", "PizzaMenus 1\n\n" + HEADER);
+    }
+
+    @Test
+    public void testGetMenuMissingNumber() {
+        assertFormatError("Missing number of Pizzas at 1", "PizzaMenu one\n\n" + HEADER);
+    }
+
+    @Test
+    public void testGetMenuLineNotEmpty() {
+        assertFormatError("Line should be empty at 2", "PizzaMenu 1\nx\n" + HEADER);
+    }
+
+    @Test
+    public void testGetMenuDuplicateTopping() {
+        assertFormatError("Null or duplicate topping name at 4",
+                "PizzaMenu 0\n\nbacon\nBACON\n\n");
+    }
+
+    @Test
+    public void testGetMenuIncorrectSpacing() {
+        assertFormatError("Incorrect spacing at 6", "PizzaMenu 1\n\n" + HEADER + "Ham[ham]");
+    }
+
+    @Test
+    public void testGetMenuMissingBracket() {
+        assertFormatError("Toppings list doesn't end with a square bracket at 6",
+                "PizzaMenu 1\n\n" + HEADER + "Ham [ham");
+    }
+
+    @Test
+    public void testGetMenuInvalidTopping() {
+        assertFormatError("Invalid topping name at 7",
+                "PizzaMenu 2\n\n" + HEADER + "Ham [ham]\nBeef [beef]");
+    }
+
+    @Test(expected = TooManyToppingsException.class)
+    public void testGetMenuTooManyToppings() throws Exception {
+        load("PizzaMenu 1\n\n" + HEADER + "Ham [ham, ham, ham, ham, ham, ham]");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetMenuTooFewPizzas() throws Exception {
+        load("PizzaMenu 2\n\n" + HEADER + "Ham [ham]");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetMenuTooManyPizzas() throws Exception {
+        load("PizzaMenu 1\n\n" + HEADER + "Ham [ham]\nBacon [bacon]");
+    }
+
+    @Test
+    public void testValidate() throws IOException {
+        assertSame(ValidationResult.VALID, validate("PizzaMenu 2\n\n" + HEADER
+                + "Hawaiian [ham, Pineapple]\r\nVeggie [olives]\n"));
+        assertTrue(Menu.getInstance().getItems().isEmpty());
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testValidateErrors() throws IOException {
+        assertEquals(ValidationResult.of(ValidationError.NOT_READY, 0).getMessage(),
+                validate("").getMessage());
+        ValidationResult result = validate("PizzaMenu 2\n\n" + HEADER + "Ham [ham]\nBeef [beef]");
+        assertEquals(ValidationError.INVALID_TOPPING_NAME, result.getError());
+        assertEquals(7, result.getLineNum());
+        assertEquals("Invalid topping name at 7", result.getMessage());
+        assertEquals(ValidationError.TOO_MANY_TOPPINGS, validate("PizzaMenu 1\n\n" + HEADER
+                + "Ham [ham, ham, ham, ham, ham, ham]").getError());
+        assertEquals(ValidationError.TOO_FEW_PIZZAS,
+                validate("PizzaMenu 2\n\n" + HEADER + "Ham [ham]").getError());
+        assertEquals(ValidationError.INVALID_TOPPING_LINE,
+                validate("PizzaMenu 0\n\nbacon\nBACON\n\n").getError());
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testValidateKeepsStaging() throws IOException {
+        Topping.stageToppings();
+        try {
+            Topping.createTopping("Anchovy", false);
+            assertSame(ValidationResult.VALID, validate("PizzaMenu 1\n\n" + HEADER
+                    + "Hawaiian [ham, Pineapple]\n"));
+            Topping.publishStagedToppings();
+        } finally {
+            Topping.discardStagedToppings();
+        }
+        assertEquals(1, Topping.values().length);
+        assertFalse(Topping.valueOf("ANCHOVY").isVegan());
+    }
+
+    @Test
+    public void testParseCount() {
+        assertEquals(12, MenuLoader.parseCount("x12", 1, 3));
+        assertEquals(7, MenuLoader.parseCount("+7", 0, 2));
+        assertEquals(0, MenuLoader.parseCount("-0", 0, 2));
+        assertEquals(Integer.MAX_VALUE, MenuLoader.parseCount("2147483647", 0, 10));
+        assertEquals(-1, MenuLoader.parseCount("2147483648", 0, 10));
+        assertEquals(-1, MenuLoader.parseCount("-1", 0, 2));
+        assertEquals(-1, MenuLoader.parseCount("+", 0, 1));
+        assertEquals(-1, MenuLoader.parseCount("1 ", 0, 2));
+        assertEquals(-1, MenuLoader.parseCount("", 0, 0));
+    }
+
+    @Test
+    public void testStacklessExceptions() {
+        StackTraces.setEnabled(false);
+        try {
+            load("PizzaMenu 1\n\n" + HEADER + "Ham[ham]");
+            fail("Expected PizzaFormatException");
+        } catch (PizzaFormatException e) {
+            assertEquals("Incorrect spacing at 6", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+        } catch (TooManyToppingsException | IOException e) {
+            fail(e.toString());
+        } finally {
+            StackTraces.setEnabled(true);
+        }
+        assertTrue(new TooManyToppingsException("Too many").getStackTrace().length > 0);
+    }
+
+    @Test
+    public void testValidateAll() throws IOException {
+        List<ValidationResult> errors = validateAll("PizzaMenu 3\n\n"
+                + "bacon, ham, BACON\nolives, pineapple\n\n"
+                + "Ham [ham]\nBeef [beef, ham, lamb]\nHam[ham]\n [ham, ham, ham, ham, ham, ham]\n",
+                100);
+        assertEquals(List.of(
+                "Null or duplicate topping name at 3, column 13",
+                "Invalid topping name at 7, column 7",
+                "Invalid topping name at 7, column 18",
+                "Incorrect spacing at 8, column 4",
+                "Listed number of pizzas doesn't match pizza list at 9, column 1",
+                "Too many toppings to add at 9, column 28",
+                "Invalid topping name at 9, column 1"), errors.stream()
+                .map(ValidationResult::toString).collect(Collectors.toList()));
+        assertTrue(Menu.getInstance().getItems().isEmpty());
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testValidateAllMaxErrors() throws IOException {
+        String text = "PizzaMenu 3\n\n" + HEADER + "A [a]\nB [b]\nC [c]\n";
+        assertEquals(3, validateAll(text, 100).size());
+        List<ValidationResult> errors = validateAll(text, 2);
+        assertEquals(2, errors.size());
+        assertEquals(7, errors.get(1).getLineNum());
+        assertTrue(validateAll("PizzaMenu 1\n\n" + HEADER + "Ham [ham]\n", 1).isEmpty());
+        assertEquals(ValidationError.NO_LINES, validateAll("", 5).get(0).getError());
+    }
+
+    @Test
+    public void testValidateAllMatchesLoad() throws IOException {
+        String[] menus = {
+                "PizzaMenus 1\n\n" + HEADER,
+                "Pizza\n",
+                "PizzaMenu one\n\n" + HEADER,
+                "PizzaMenu 1\nx\n" + HEADER,
+                "PizzaMenu 1\n",
+                "PizzaMenu 0\n\nbacon\nBACON\n\n",
+                "PizzaMenu 0\n\nbacon\n",
+                "PizzaMenu 1\n\n" + HEADER + "Ham[ham]",
+                "PizzaMenu 1\n\n" + HEADER + "Ham [ham",
+                "PizzaMenu 2\n\n" + HEADER + "Ham [ham]\nBeef [beef]",
+                "PizzaMenu 1\n\n" + HEADER + "Ham [ham, ham, ham, ham, ham, ham]",
+                "PizzaMenu 1\n\n" + HEADER + " [ham]",
+                "PizzaMenu 2\n\n" + HEADER + "Ham [ham]",
+                "PizzaMenu 1\n\n" + HEADER + "Ham [ham]\nBacon [beef]",
+        };
+        for (String menu : menus) {
+            ValidationResult first = validate(menu);
+            List<ValidationResult> errors = validateAll(menu, 1);
+            assertEquals(menu, 1, errors.size());
+            assertEquals(menu, first.getError(), errors.get(0).getError());
+            assertEquals(menu, first.getLineNum(), errors.get(0).getLineNum());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidateAllNoErrors() throws IOException {
+        MenuLoader.validateAll(new BufferedReader(new StringReader("PizzaMenu 0\n")), 0);
+    }
+
+    private static List<ValidationResult> validateAll(String text, int maxErrors)
+            throws IOException {
+        return MenuLoader.validateAll(new BufferedReader(new StringReader(text)), maxErrors);
+    }
+
+    private static ValidationResult validate(String text) throws IOException {
+        Path file = Files.createTempFile("PizzaMenu", ".txt");
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            return MenuLoader.validate(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Menu load(String text)
+            throws PizzaFormatException, TooManyToppingsException, IOException {
+        return MenuLoader.getMenu(new BufferedReader(new StringReader(text)));
+    }
+
+    private static void assertFormatError(String message, String text) {
+        try {
+            load(text);
+            fail("Expected PizzaFormatException");
+        } catch (PizzaFormatException e) {
+            assertEquals(message, e.getMessage());
+        } catch (TooManyToppingsException | IOException e) {
+            fail(e.toString());
+        }
+    }
+}
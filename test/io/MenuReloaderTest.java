@@ -0,0 +1,110 @@
+package io;
+import exceptions.PizzaFormatException;
+import menu.Menu;
+import menu.MenuItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.Pizza;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MenuReloaderTest {
+
+    private static final String HEADER = "bacon, ham\nolives, pineapple\n\n";
+
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        directory = Files.createTempDirectory("MenuReloaderTest");
+        file = directory.resolve("PizzaMenu.txt");
+        write("PizzaMenu 2\n\n" + HEADER + "Hawaiian [ham, pineapple]\nVeggie [olives]\n");
+        MenuLoader.loadMapped(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testReloadKeepsUnchangedPizzas() throws Exception {
+        List<MenuItem> before = Menu.getInstance().getItems();
+        Topping ham = Topping.valueOf("ham");
+        write("PizzaMenu 2\n\n" + HEADER + "Hawaiian [ham, pineapple]\nMeat [bacon, ham]\n");
+
+        List<MenuItem> after = MenuReloader.reload(file).getItems();
+        assertEquals(2, after.size());
+        assertSame(before.get(0), after.get(0));
+        assertEquals("Meat", after.get(1).getName());
+        assertSame(ham, Topping.valueOf("ham"));
+        assertFalse(Menu.getInstance().findByName("Veggie").isPresent());
+    }
+
+    @Test
+    public void testReloadChangedTopping() throws Exception {
+        List<MenuItem> before = Menu.getInstance().getItems();
+        Topping olives = Topping.valueOf("olives");
+        write("PizzaMenu 2\n\nbacon, ham, olives\npineapple\n\n"
+                + "Hawaiian [ham, pineapple]\nVeggie [olives]\n");
+
+        List<MenuItem> after = MenuReloader.reload(file).getItems();
+        assertSame(before.get(0), after.get(0));
+        assertNotSame(before.get(1), after.get(1));
+        assertFalse(Topping.valueOf("olives").isVegan());
+        // Pizzas taken from the old menu still have the old topping
+        assertSame(olives, ((Pizza) before.get(1)).getToppings().get(0));
+        assertTrue(olives.isVegan());
+    }
+
+    @Test
+    public void testReloadInvalidKeepsMenu() throws Exception {
+        List<MenuItem> before = Menu.getInstance().getItems();
+        write("PizzaMenu 2\n\nbacon, ham, cheese\nolives, pineapple\n\n"
+                + "Hawaiian [ham, pineapple]\nVeggie [olive]\n");
+
+        try {
+            MenuReloader.reload(file);
+            fail("Expected PizzaFormatException");
+        } catch (PizzaFormatException e) {
+            assertEquals("Invalid topping name at 7", e.getMessage());
+        }
+        assertEquals(before, Menu.getInstance().getItems());
+        assertEquals(4, Topping.values().length);
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        CountDownLatch reloaded = new CountDownLatch(1);
+        MenuReloader reloader = MenuReloader.watch(file, reloaded::countDown);
+        try {
+            write("PizzaMenu 1\n\n" + HEADER + "Meat [bacon, ham]\n");
+
+            assertTrue(reloaded.await(10, TimeUnit.SECONDS));
+            assertEquals(1, Menu.getInstance().getItems().size());
+            assertEquals("Meat", Menu.getInstance().get(0).getName());
+        } finally {
+            reloader.close();
+        }
+    }
+
+    private void write(String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
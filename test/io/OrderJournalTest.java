@@ -0,0 +1,320 @@
+package io;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import menu.Order;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.CustomPizza;
+import pizza.MenuPizza;
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class OrderJournalTest {
+
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Topping 1", false);
+        Topping.createTopping("Topping 2", true);
+        path = Files.createTempFile("orders", ".journal");
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Files.deleteIfExists(path);
+    }
+
+    private static Order order(String name) throws TooManyToppingsException {
+        Order order = new Order();
+        order.setName(name);
+        order.setDate(LocalDate.of(2024, 2, 29));
+        order.setTime(LocalTime.of(12, 30, 15));
+        CustomPizza pizza = new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.BBQ,
+                Cheeses.Cheese.VEGAN);
+        pizza.add(Topping.valueOf("TOPPING 2"));
+        order.add(pizza);
+        order.add(new CustomPizza());
+        return order;
+    }
+
+    private List<Order> write(OrderJournal.SyncPolicy policy, int count)
+            throws IOException, TooManyToppingsException {
+        List<Order> orders = new ArrayList<>();
+        try (OrderJournal journal = OrderJournal.open(path, policy)) {
+            for (int i = 0; i < count; i++) {
+                Order order = order("Customer " + i);
+                orders.add(order);
+                journal.append(order);
+            }
+        }
+        return orders;
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            assertTrue(journal.recoveredOrders().isEmpty());
+        }
+        assertEquals(OrderJournal.HEADER_SIZE, Files.size(path));
+        assertTrue(OrderJournal.replay(path).isEmpty());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException, TooManyToppingsException {
+        for (OrderJournal.SyncPolicy policy : OrderJournal.SyncPolicy.values()) {
+            Files.deleteIfExists(path);
+            List<Order> written = write(policy, 3);
+            try (OrderJournal journal = OrderJournal.open(path, policy)) {
+                List<Order> read = journal.recoveredOrders();
+                assertEquals(written.size(), read.size());
+                for (int i = 0; i < written.size(); i++) {
+                    assertEquals(written.get(i).getUUID(), read.get(i).getUUID());
+                    assertEquals(written.get(i).getPizzas(), read.get(i).getPizzas());
+                    assertEquals(written.get(i).toString(), read.get(i).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNullFields() throws IOException {
+        Order order = new Order();
+        order.setName(null);
+        order.setUUID(null);
+        order.setDate(null);
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.NO_SYNC)) {
+            journal.append(order);
+        }
+        Order read = OrderJournal.replay(path).get(0);
+        assertNull(read.getName());
+        assertNull(read.getUUID());
+        assertNull(read.getDate());
+        assertEquals(order.getTime(), read.getTime());
+    }
+
+    @Test
+    public void testMenuPizzaShared() throws IOException, TooManyToppingsException {
+        MenuPizza menuPizza = new MenuPizza("Special", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("TOPPING 1")));
+        Order order = new Order();
+        order.add(menuPizza.with(Bases.BaseSize.SMALL, Sauces.Sauce.GARLIC, Cheeses.Cheese.NONE));
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.NO_SYNC)) {
+            journal.append(order);
+        }
+        Pizza read = OrderJournal.replay(path).get(0).getPizzas().get(0);
+        assertTrue(read instanceof MenuPizza);
+        assertEquals("Special", read.getName());
+        assertEquals(menuPizza.getToppings(), read.getToppings());
+        assertEquals(Bases.BaseSize.SMALL, read.getBaseSize());
+    }
+
+    @Test
+    public void testMenuChanged() throws IOException, TooManyToppingsException {
+        MenuPizza menuPizza = new MenuPizza("Special", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("TOPPING 2")));
+        Order order = new Order();
+        order.add(menuPizza);
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.NO_SYNC)) {
+            journal.append(order);
+        }
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+
+        Pizza read = OrderJournal.replay(path).get(0).getPizzas().get(0);
+        assertEquals("Special", read.getName());
+        assertEquals(menuPizza.totalCents(), read.totalCents());
+        assertEquals("TOPPING 2", read.getToppings().get(0).toString());
+        assertTrue(read.getToppings().get(0).isVegan());
+        // Retired toppings are kept by the orders, not made available again
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testRetiredToppingShared() throws IOException, TooManyToppingsException {
+        write(OrderJournal.SyncPolicy.NO_SYNC, 2);
+        Topping.resetToppings();
+        Topping.createTopping("Topping 2", false);
+
+        List<Order> read = OrderJournal.replay(path);
+        Topping first = read.get(0).getPizzas().get(0).getToppings().get(0);
+        Topping second = read.get(1).getPizzas().get(0).getToppings().get(0);
+        assertSame(first, second);
+        assertTrue(first.isVegan());
+        assertNotSame(Topping.valueOf("TOPPING 2"), first);
+        assertEquals(1, Topping.values().length);
+    }
+
+    @Test
+    public void testTornRecordTruncated() throws IOException, TooManyToppingsException {
+        write(OrderJournal.SyncPolicy.GROUP_COMMIT, 2);
+        long size = Files.size(path);
+        // Half of a third record, as if the application crashed while writing it
+        byte[] record = OrderJournal.encode(order("Torn")).array();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(size);
+            file.write(record, 0, record.length / 2);
+        }
+
+        assertEquals(2, OrderJournal.replay(path).size());
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            assertEquals(2, journal.recoveredOrders().size());
+            assertEquals(size, Files.size(path));
+            journal.append(order("After"));
+        }
+        List<Order> read = OrderJournal.replay(path);
+        assertEquals(3, read.size());
+        assertEquals("After", read.get(2).getName());
+    }
+
+    @Test
+    public void testCorruptRecordTruncated() throws IOException, TooManyToppingsException {
+        write(OrderJournal.SyncPolicy.GROUP_COMMIT, 3);
+        List<Order> before = OrderJournal.replay(path);
+        int second = OrderJournal.HEADER_SIZE + OrderJournal.encode(before.get(0)).capacity();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(second + 10);
+            int value = file.read();
+            file.seek(second + 10);
+            file.write(value ^ 0xFF);
+        }
+
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            assertEquals(1, journal.recoveredOrders().size());
+            assertEquals(before.get(0).getUUID(), journal.recoveredOrders().get(0).getUUID());
+        }
+        assertEquals(second, Files.size(path));
+    }
+
+    @Test
+    public void testDefaultPath() {
+        String previous = System.getProperty(OrderJournal.PATH_PROPERTY);
+        try {
+            System.clearProperty(OrderJournal.PATH_PROPERTY);
+            assertEquals(Path.of(System.getProperty("user.home")),
+                    OrderJournal.getDefaultPath().getParent().getParent());
+            System.setProperty(OrderJournal.PATH_PROPERTY, path.toString());
+            assertEquals(path, OrderJournal.getDefaultPath());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(OrderJournal.PATH_PROPERTY);
+            } else {
+                System.setProperty(OrderJournal.PATH_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAJournal() throws IOException {
+        Files.write(path, "not a journal".getBytes());
+        OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT);
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        int threads = 4;
+        int perThread = 50;
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            List<Thread> appenders = new ArrayList<>();
+            List<CompletableFuture<Void>> written = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<Order> orders = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    orders.add(order("Thread " + t));
+                }
+                Thread appender = new Thread(() -> {
+                    for (Order order : orders) {
+                        CompletableFuture<Void> future = journal.append(order);
+                        synchronized (written) {
+                            written.add(future);
+                        }
+                    }
+                });
+                appenders.add(appender);
+                appender.start();
+            }
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            for (CompletableFuture<Void> future : written) {
+                future.get();
+            }
+        }
+        List<Order> read = OrderJournal.replay(path);
+        assertEquals(threads * perThread, read.size());
+        assertEquals(threads * perThread, read.stream().map(Order::getUUID).distinct().count());
+    }
+
+    @Test
+    public void testClear() throws IOException, TooManyToppingsException {
+        write(OrderJournal.SyncPolicy.GROUP_COMMIT, 2);
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            assertEquals(2, journal.recoveredOrders().size());
+            journal.clear().join();
+        }
+        assertTrue(OrderJournal.replay(path).isEmpty());
+
+        Order kept = order("Kept");
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            assertTrue(journal.recoveredOrders().isEmpty());
+            journal.append(kept);
+        }
+        List<Order> read = OrderJournal.replay(path);
+        assertEquals(1, read.size());
+        assertEquals("Kept", read.get(0).getName());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClearAfterClose() throws IOException {
+        OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.NO_SYNC);
+        journal.close();
+        journal.clear();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppendAfterClose() throws IOException, TooManyToppingsException {
+        OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT);
+        journal.close();
+        journal.append(order("Late"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppendNull() throws IOException {
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.GROUP_COMMIT)) {
+            journal.append(null);
+        }
+    }
+
+    @Test
+    public void testUuidPreserved() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        Order order = new Order();
+        order.setUUID(uuid);
+        try (OrderJournal journal = OrderJournal.open(path, OrderJournal.SyncPolicy.EACH_RECORD)) {
+            journal.append(order).join();
+        }
+        assertEquals(uuid, OrderJournal.replay(path).get(0).getUUID());
+    }
+}
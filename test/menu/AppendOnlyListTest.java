@@ -0,0 +1,68 @@
+package menu;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AppendOnlyListTest {
+
+    @Test
+    public void testAddAcrossSegments() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+        assertEquals(1000, list.toList().size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPastEnd() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        list.add(1);
+        list.get(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        new AppendOnlyList<Integer>().add(null);
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        int threads = 8;
+        int perThread = 10000;
+        List<Thread> appenders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            Thread appender = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    list.add(first + i);
+                }
+            });
+            appenders.add(appender);
+            appender.start();
+        }
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+        assertEquals(threads * perThread, list.size());
+        boolean[] seen = new boolean[threads * perThread];
+        int[] last = new int[threads];
+        Arrays.fill(last, -1);
+        for (Integer value : list.toList()) {
+            assertFalse(seen[value]);
+            seen[value] = true;
+            // Each thread's elements keep the order they were added in
+            assertTrue(value > last[value / perThread]);
+            last[value / perThread] = value;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package menu;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.*;
+
+public class CoarseClockTest {
+
+    private static final ZoneId ZONE = ZoneOffset.ofHours(10);
+
+    /**
+     * Clock that is moved by hand
+     */
+    private static final class SettableClock extends Clock {
+
+        private Instant instant;
+
+        private SettableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Order.setClock(Clock.systemDefaultZone());
+        Menu.getInstance().clear();
+    }
+
+    @Test
+    public void testManualTicks() {
+        SettableClock source = new SettableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        CoarseClock clock = CoarseClock.manual(source);
+        assertEquals(source.instant, clock.instant());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), clock.localDateTime());
+
+        source.instant = source.instant.plusSeconds(90);
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), clock.instant());
+        clock.tick();
+        assertEquals(source.instant, clock.instant());
+        assertEquals(source.instant.toEpochMilli(), clock.millis());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 1, 30), clock.localDateTime());
+        assertEquals(ZONE, clock.getZone());
+    }
+
+    @Test
+    public void testWithZone() {
+        CoarseClock clock = CoarseClock.manual(Clock.fixed(Instant.EPOCH, ZONE));
+        assertSame(clock, clock.withZone(ZONE));
+        Clock utc = clock.withZone(ZoneOffset.UTC);
+        assertEquals(ZoneOffset.UTC, utc.getZone());
+        assertEquals(Instant.EPOCH, utc.instant());
+    }
+
+    @Test
+    public void testTicker() throws InterruptedException {
+        try (CoarseClock clock = CoarseClock.start(Duration.ofMillis(1))) {
+            Instant first = clock.instant();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (clock.instant().equals(first) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(clock.instant().isAfter(first));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroResolution() {
+        CoarseClock.start(Duration.ZERO);
+    }
+
+    @Test
+    public void testOrderUsesClock() {
+        // One reading gives the date and time, so they agree even just before midnight
+        Instant beforeMidnight = LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_999_999)
+                .atZone(ZONE).toInstant();
+        Order.setClock(Clock.fixed(beforeMidnight, ZONE));
+        Order order = new Order();
+        assertEquals(LocalDate.of(2024, 2, 29), order.getDate());
+        assertEquals(LocalTime.of(23, 59, 59, 999_999_999), order.getTime());
+
+        Order.setClock(CoarseClock.manual(Clock.fixed(beforeMidnight.plusNanos(1), ZONE)));
+        order.stamp();
+        assertEquals(LocalDate.of(2024, 3, 1), order.getDate());
+        assertEquals(LocalTime.MIDNIGHT, order.getTime());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNullClock() {
+        Order.setClock(null);
+    }
+}
@@ -0,0 +1,297 @@
+package menu;
+import exceptions.TooManyToppingsException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.CustomPizza;
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DiscountRulesTest {
+
+    private static final LocalTime NOON = LocalTime.of(12, 0);
+
+    private Topping topping1;
+    private Topping topping2;
+
+    @Before
+    public void setUp() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Topping 1", false);
+        Topping.createTopping("Topping 2", true);
+        topping1 = Topping.valueOf("Topping 1");
+        topping2 = Topping.valueOf("Topping 2");
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    private static List<Pizza> pizzas(int count, Bases.BaseSize size) {
+        List<Pizza> pizzas = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pizzas.add(new CustomPizza(size, Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA));
+        }
+        return pizzas;
+    }
+
+    private static long total(List<Pizza> pizzas) {
+        long total = 0;
+        for (Pizza pizza : pizzas) {
+            total += pizza.totalCents();
+        }
+        return total;
+    }
+
+    @Test
+    public void testDefaultTiers() {
+        for (int count = 0; count <= 8; count++) {
+            List<Pizza> pizzas = pizzas(count, Bases.BaseSize.MEDIUM);
+            long total = total(pizzas);
+            long expected = count >= 6 ? total / 4 : count >= 3 ? total / 10 : 0;
+            assertEquals(expected, DiscountRules.DEFAULT.discountCents(pizzas, total, NOON));
+        }
+    }
+
+    @Test
+    public void testNoRules() {
+        DiscountRules rules = DiscountRules.compile(List.of());
+        List<Pizza> pizzas = pizzas(10, Bases.BaseSize.LARGE);
+        assertEquals(0, rules.discountCents(pizzas, total(pizzas), NOON));
+        assertNull(rules.bestRuleFor(pizzas, total(pizzas), NOON));
+    }
+
+    @Test
+    public void testSize() {
+        DiscountRule large = DiscountRule.centsOff("Two large", 2, 300)
+                .withSize(Bases.BaseSize.LARGE);
+        DiscountRules rules = DiscountRules.compile(List.of(large));
+
+        List<Pizza> pizzas = pizzas(1, Bases.BaseSize.LARGE);
+        pizzas.addAll(pizzas(3, Bases.BaseSize.SMALL));
+        assertEquals(0, rules.discountCents(pizzas, total(pizzas), NOON));
+
+        pizzas.addAll(pizzas(1, Bases.BaseSize.LARGE));
+        assertEquals(300, rules.discountCents(pizzas, total(pizzas), NOON));
+    }
+
+    @Test
+    public void testToppingBundle() throws TooManyToppingsException {
+        DiscountRule bundle = DiscountRule.percentOff("Bundle", 1, 50)
+                .withToppings(Arrays.asList(topping1, topping2));
+        DiscountRules rules = DiscountRules.compile(List.of(bundle));
+
+        CustomPizza first = new CustomPizza();
+        first.add(topping1);
+        List<Pizza> pizzas = new ArrayList<>(List.of(first));
+        assertEquals(0, rules.discountCents(pizzas, total(pizzas), NOON));
+
+        // The bundle can be spread over several pizzas
+        CustomPizza second = new CustomPizza();
+        second.add(topping2);
+        pizzas.add(second);
+        assertEquals(total(pizzas) / 2, rules.discountCents(pizzas, total(pizzas), NOON));
+    }
+
+    @Test
+    public void testManyBundledToppings() throws TooManyToppingsException {
+        List<DiscountRule> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Topping.createTopping("Extra " + i, false);
+            list.add(DiscountRule.centsOff("Extra " + i, 1, i + 1)
+                    .withToppings(List.of(Topping.valueOf("Extra " + i))));
+        }
+        DiscountRules rules = DiscountRules.compile(list);
+
+        CustomPizza pizza = new CustomPizza();
+        pizza.add(Topping.valueOf("Extra 3"));
+        pizza.add(Topping.valueOf("Extra 90"));
+        List<Pizza> pizzas = List.of(pizza);
+        assertSame(list.get(90), rules.bestRuleFor(pizzas, total(pizzas), NOON));
+    }
+
+    @Test
+    public void testTimes() {
+        DiscountRule lunch = DiscountRule.percentOff("Lunch", 1, 20)
+                .withTimes(LocalTime.of(11, 0), LocalTime.of(14, 0));
+        DiscountRules rules = DiscountRules.compile(List.of(lunch));
+        List<Pizza> pizzas = pizzas(1, Bases.BaseSize.MEDIUM);
+
+        assertEquals(0, rules.discountCents(pizzas, 500, LocalTime.of(10, 59)));
+        assertEquals(100, rules.discountCents(pizzas, 500, LocalTime.of(11, 0)));
+        assertEquals(100, rules.discountCents(pizzas, 500, LocalTime.of(13, 59)));
+        assertEquals(0, rules.discountCents(pizzas, 500, LocalTime.of(14, 0)));
+    }
+
+    @Test
+    public void testTimesPastMidnight() {
+        DiscountRule late = DiscountRule.percentOff("Late", 1, 20)
+                .withTimes(LocalTime.of(22, 0), LocalTime.of(2, 0));
+        DiscountRules rules = DiscountRules.compile(List.of(late));
+        List<Pizza> pizzas = pizzas(1, Bases.BaseSize.MEDIUM);
+
+        assertEquals(100, rules.discountCents(pizzas, 500, LocalTime.of(23, 30)));
+        assertEquals(100, rules.discountCents(pizzas, 500, LocalTime.of(1, 0)));
+        assertEquals(0, rules.discountCents(pizzas, 500, NOON));
+    }
+
+    @Test
+    public void testCentsOffCapped() {
+        DiscountRules rules = DiscountRules.compile(
+                List.of(DiscountRule.centsOff("Free", 0, 10000)));
+        List<Pizza> pizzas = pizzas(1, Bases.BaseSize.SMALL);
+        assertEquals(300, rules.discountCents(pizzas, 300, NOON));
+    }
+
+    @Test
+    public void testBestRule() {
+        DiscountRule percent = DiscountRule.percentOff("Percent", 2, 10);
+        DiscountRule cents = DiscountRule.centsOff("Cents", 2, 200);
+        DiscountRules rules = DiscountRules.compile(List.of(percent, cents));
+
+        List<Pizza> pizzas = pizzas(2, Bases.BaseSize.SMALL);
+        assertSame(cents, rules.bestRuleFor(pizzas, total(pizzas), NOON));
+
+        pizzas = pizzas(4, Bases.BaseSize.LARGE);
+        pizzas.addAll(pizzas(4, Bases.BaseSize.LARGE));
+        assertSame(percent, rules.bestRuleFor(pizzas, total(pizzas), NOON));
+    }
+
+    @Test
+    public void testRounding() {
+        DiscountRules rules = DiscountRules.compile(
+                List.of(DiscountRule.percentOff("Quarter", 0, 25)));
+        // 25% off $0.50 is $0.375, which rounds up to a new total of $0.38
+        assertEquals(12, rules.discountCents(List.of(), 50, NOON));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileNullRule() {
+        DiscountRules.compile(Arrays.asList(DiscountRule.percentOff("Rule", 1, 10), null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentOutOfRange() {
+        DiscountRule.percentOff("Rule", 1, 101);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlankName() {
+        DiscountRule.centsOff(" ", 1, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullTopping() {
+        DiscountRule.centsOff("Rule", 1, 100).withToppings(Arrays.asList(topping1, null));
+    }
+
+    @Test
+    public void testOrderUsesRules() {
+        Order order = new Order();
+        order.setTime(NOON);
+        order.add(new CustomPizza());
+        order.setDiscountRules(DiscountRules.compile(
+                List.of(DiscountRule.centsOff("Single", 1, 100))));
+        assertTrue(order.toString().contains("new Total: $4.00"));
+        assertEquals("Single", order.getDiscountRule().getName());
+    }
+
+    @Test
+    public void testReceiptNamesWinningRule() {
+        Order order = new Order();
+        order.setTime(NOON);
+        order.add(new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA));
+        order.add(new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA));
+        order.setDiscountRules(DiscountRules.compile(List.of(
+                DiscountRule.percentOff("Multi item discount", 2, 10),
+                DiscountRule.centsOff("Large pair", 2, 500).withSize(Bases.BaseSize.LARGE))));
+        assertTrue(order.toString().contains("Large pair applied of $14.00 applied, "
+                + "new Total: $9.00"));
+        assertFalse(order.toString().contains("Multi item discount"));
+    }
+
+    @Test
+    public void testMatchesCheckingEveryRule() throws TooManyToppingsException {
+        Random random = new Random(42);
+        Topping[] toppings = {topping1, topping2};
+        Bases.BaseSize[] sizes = Bases.BaseSize.values();
+        for (int round = 0; round < 200; round++) {
+            List<DiscountRule> rules = new ArrayList<>();
+            for (int i = random.nextInt(80); i > 0; i--) {
+                DiscountRule rule = random.nextBoolean()
+                        ? DiscountRule.percentOff("Rule " + i, random.nextInt(5),
+                                random.nextInt(4) * 10)
+                        : DiscountRule.centsOff("Rule " + i, random.nextInt(5),
+                                random.nextInt(4) * 100);
+                if (random.nextInt(3) == 0) {
+                    rule = rule.withSize(sizes[random.nextInt(sizes.length)]);
+                }
+                if (random.nextInt(3) == 0) {
+                    rule = rule.withToppings(List.of(toppings[random.nextInt(2)]));
+                }
+                if (random.nextInt(3) == 0) {
+                    rule = rule.withTimes(LocalTime.of(random.nextInt(24), 0),
+                            LocalTime.of(random.nextInt(24), 0));
+                }
+                rules.add(rule);
+            }
+            List<Pizza> pizzas = new ArrayList<>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                CustomPizza pizza = new CustomPizza(sizes[random.nextInt(sizes.length)],
+                        Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+                if (random.nextBoolean()) {
+                    pizza.add(toppings[random.nextInt(2)]);
+                }
+                pizzas.add(pizza);
+            }
+            LocalTime time = LocalTime.of(random.nextInt(24), random.nextInt(60));
+            long total = total(pizzas);
+            assertSame(checkEveryRule(rules, pizzas, total, time),
+                    DiscountRules.compile(rules).bestRuleFor(pizzas, total, time));
+        }
+    }
+
+    private static DiscountRule checkEveryRule(List<DiscountRule> rules, List<Pizza> pizzas,
+                                               long total, LocalTime time) {
+        DiscountRule best = null;
+        long bestCents = 0;
+        for (DiscountRule rule : rules) {
+            long counted = pizzas.stream()
+                    .filter(pizza -> rule.getSize() == null
+                            || pizza.getBaseSize() == rule.getSize())
+                    .count();
+            boolean hasBundle = rule.getToppings().stream().allMatch(topping ->
+                    pizzas.stream().anyMatch(pizza -> pizza.getToppings().contains(topping)));
+            boolean inTime = rule.getStart() == null
+                    || (rule.getStart().isAfter(rule.getEnd())
+                    ? !time.isBefore(rule.getStart()) || time.isBefore(rule.getEnd())
+                    : !time.isBefore(rule.getStart()) && time.isBefore(rule.getEnd()));
+            if (counted < rule.getMinPizzas() || !hasBundle || !inTime) {
+                continue;
+            }
+            long cents = Math.min(total, total - (total * (100 - rule.getPercentOff()) + 50) / 100
+                    + rule.getCentsOff());
+            if (best == null || cents > bestCents) {
+                best = rule;
+                bestCents = cents;
+            }
+        }
+        return best;
+    }
+}
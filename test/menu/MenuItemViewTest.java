@@ -0,0 +1,72 @@
+package menu;
+import exceptions.TooManyToppingsException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.MenuPizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MenuItemViewTest {
+
+    private MenuPizza pizza;
+
+    @Before
+    public void setUp() throws TooManyToppingsException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Topping 1", true);
+        Topping.createTopping("Topping 2", false);
+        pizza = new MenuPizza("Odd: $name [x]", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA,
+                List.of(Topping.valueOf("Topping 1"), Topping.valueOf("Topping 2")));
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    @Test
+    public void testView() {
+        MenuItemView view = new MenuItemView(pizza);
+
+        assertSame(pizza, view.getItem());
+        assertEquals("Odd: $name [x]", view.getName());
+        assertEquals("Odd: $name [x]", view.toString());
+        assertEquals(List.of("TOPPING 1", "TOPPING 2"), view.getToppingLabels());
+        assertEquals("TOPPING 1, TOPPING 2", view.getToppingsLabel());
+        assertFalse(view.hasVeganToppings());
+    }
+
+    @Test
+    public void testSizePrices() {
+        MenuItemView view = new MenuItemView(pizza);
+
+        for (Bases.BaseSize size : Bases.BaseSize.values()) {
+            MenuPizza sized = pizza.with(size, Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+            assertEquals(sized.totalCents(), view.getCents(size));
+            assertEquals(sized.getPriceLabel(), view.getPriceLabel(size));
+        }
+        assertEquals("$7.00", view.getPriceLabel(Bases.BaseSize.SMALL));
+    }
+
+    @Test
+    public void testVegan() throws TooManyToppingsException {
+        MenuPizza vegan = new MenuPizza("Vegan", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("Topping 1")));
+        assertTrue(new MenuItemView(vegan).hasVeganToppings());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullItem() {
+        new MenuItemView(null);
+    }
+}
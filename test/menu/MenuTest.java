@@ -0,0 +1,248 @@
+package menu;
+import exceptions.TooManyToppingsException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.CustomPizza;
+import pizza.MenuPizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class MenuTest {
+
+    private static final int THREADS = 8;
+    private static final int PIZZAS_PER_THREAD = 500;
+
+    private Menu menu;
+
+    @Before
+    public void setUp() {
+        Topping.resetToppings();
+        menu = Menu.getInstance();
+        menu.clear();
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        menu.discardStaged();
+        menu.clear();
+    }
+
+    @Test
+    public void testRegisterDuplicate() {
+        CustomPizza pizza1 = new CustomPizza();
+        CustomPizza pizza2 = new CustomPizza();
+
+        assertEquals(1, menu.getItems().size());
+        assertSame(pizza1, menu.get(0));
+    }
+
+    @Test
+    public void testRegisterOrder() throws TooManyToppingsException {
+        Topping.createTopping("Topping 1", false);
+        Topping.createTopping("Topping 2", false);
+        MenuPizza pizza1 = createPizza("Topping 1");
+        MenuPizza pizza2 = createPizza("Topping 2");
+
+        List<MenuItem> items = new ArrayList<>();
+        items.add(pizza1);
+        items.add(pizza2);
+        assertEquals(items, menu.getItems());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        new CustomPizza();
+        menu.get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetNegative() {
+        new CustomPizza();
+        menu.get(-1);
+    }
+
+    @Test
+    public void testClear() {
+        new CustomPizza();
+        menu.clear();
+        assertTrue(menu.getItems().isEmpty());
+    }
+
+    @Test
+    public void testStagedMenu() throws Exception {
+        CustomPizza current = new CustomPizza();
+        menu.stage();
+        CustomPizza staged = new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA);
+        AtomicReference<MenuItem> seen = new AtomicReference<>();
+        Thread reader = new Thread(() -> seen.set(menu.get(0)));
+        reader.start();
+        reader.join();
+        assertSame(current, seen.get());
+        assertSame(staged, menu.get(0));
+
+        menu.publishStaged();
+        assertEquals(1, menu.getItems().size());
+        assertSame(staged, menu.get(0));
+    }
+
+    @Test
+    public void testDiscardStagedMenu() {
+        CustomPizza current = new CustomPizza();
+        menu.stage();
+        new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+        menu.discardStaged();
+
+        assertEquals(1, menu.getItems().size());
+        assertSame(current, menu.get(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPublishNotStaged() {
+        menu.publishStaged();
+    }
+
+    @Test
+    public void testFindByName() throws TooManyToppingsException {
+        Topping.createTopping("Topping 1", false);
+        MenuPizza pizza = new MenuPizza("Pizza 1", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("Topping 1")));
+
+        assertSame(pizza, menu.findByName("Pizza 1").get());
+    }
+
+    @Test
+    public void testFindByNameRenamed() {
+        CustomPizza pizza = new CustomPizza();
+        pizza.setName("Pizza 1");
+        pizza.setName("Pizza 2");
+
+        assertFalse(menu.findByName("Pizza 1").isPresent());
+        assertSame(pizza, menu.findByName("Pizza 2").get());
+    }
+
+    @Test
+    public void testFindByNameRenamedDuplicate() {
+        CustomPizza first = new CustomPizza();
+        CustomPizza second = new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.BBQ,
+                Cheeses.Cheese.VEGAN);
+        assertSame(first, menu.findByName("Custom Pizza").get());
+
+        first.setName("Renamed");
+        assertSame(second, menu.findByName("Custom Pizza").get());
+        assertSame(first, menu.findByName("Renamed").get());
+
+        second.setName("Renamed Too");
+        assertFalse(menu.findByName("Custom Pizza").isPresent());
+        first.setName("Custom Pizza");
+        assertSame(first, menu.findByName("Custom Pizza").get());
+        assertFalse(menu.findByName("Renamed").isPresent());
+    }
+
+    @Test
+    public void testFindByNameRenamedAfterToppingsChanged() throws TooManyToppingsException {
+        Topping.createTopping("Ham", false);
+        CustomPizza pizza = new CustomPizza();
+        pizza.add(Topping.valueOf("HAM"));
+        pizza.setName("Hammy");
+        assertSame(pizza, menu.findByName("Hammy").get());
+        assertFalse(menu.findByName("Custom Pizza").isPresent());
+    }
+
+    @Test
+    public void testFindByNameMissing() {
+        new CustomPizza();
+        assertFalse(menu.findByName("No Pizza").isPresent());
+        assertFalse(menu.findByName(null).isPresent());
+    }
+
+    @Test
+    public void testConcurrentRegister() throws Exception {
+        Topping.createTopping("Shared", false);
+        for (int t = 0; t < THREADS; t++) {
+            Topping.createTopping("Thread " + t, false);
+        }
+        for (int i = 0; i < PIZZAS_PER_THREAD; i++) {
+            Topping.createTopping("Pizza " + i, false);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String threadTopping = "Thread " + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < PIZZAS_PER_THREAD; i++) {
+                    createPizza(threadTopping, "Pizza " + i);
+                    // Every thread also creates the same pizza, which should only be added once
+                    createPizza("Shared");
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        List<MenuItem> items = menu.getItems();
+        assertEquals(THREADS * PIZZAS_PER_THREAD + 1, items.size());
+        assertEquals(items.size(), new HashSet<>(items).size());
+        for (int i = 0; i < items.size(); i++) {
+            assertSame(items.get(i), menu.get(i));
+        }
+    }
+
+    private static MenuPizza createPizza(String... toppingNames) throws TooManyToppingsException {
+        List<Topping> toppings = new ArrayList<>();
+        for (String name : toppingNames) {
+            toppings.add(Topping.valueOf(name));
+        }
+        return new MenuPizza(Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, toppings);
+    }
+
+    @Test
+    public void testGetViews() throws TooManyToppingsException {
+        Topping.createTopping("Topping 1", true);
+        MenuPizza pizza1 = new MenuPizza("Pizza 1", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("Topping 1")));
+        List<MenuItemView> views = menu.getViews();
+
+        assertEquals(1, views.size());
+        assertSame(pizza1, views.get(0).getItem());
+        assertSame(views, menu.getViews());
+
+        MenuPizza pizza2 = new MenuPizza("Pizza 2", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of());
+        List<MenuItemView> grown = menu.getViews();
+        assertEquals(2, grown.size());
+        assertSame(views.get(0), grown.get(0));
+        assertSame(pizza2, grown.get(1).getItem());
+    }
+
+    @Test
+    public void testGetViewsAfterRename() {
+        CustomPizza pizza = new CustomPizza();
+        assertEquals("Custom Pizza", menu.getViews().get(0).getName());
+        pizza.setName("Renamed");
+        assertEquals("Renamed", menu.getViews().get(0).getName());
+    }
+}
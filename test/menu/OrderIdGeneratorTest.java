@@ -0,0 +1,99 @@
+package menu;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class OrderIdGeneratorTest {
+
+    @After
+    public void tearDown() {
+        Order.setIdGenerator(OrderIdGenerator.timeOrdered());
+        Menu.getInstance().clear();
+    }
+
+    @Test
+    public void testTimeOrderedFormat() {
+        long before = System.currentTimeMillis();
+        UUID uuid = OrderIdGenerator.timeOrdered().nextId();
+        long after = System.currentTimeMillis();
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long millis = TimeOrderedIdGenerator.millisOf(uuid);
+        assertTrue(millis >= before && millis <= after);
+        assertEquals(uuid, UUID.fromString(uuid.toString()));
+    }
+
+    @Test
+    public void testMonotonicWithinMillisecond() {
+        UUID last = TimeOrderedIdGenerator.INSTANCE.nextId(1000);
+        // More than the counter can hold, so the time is carried forward
+        for (int i = 0; i < 10000; i++) {
+            UUID next = TimeOrderedIdGenerator.INSTANCE.nextId(1000);
+            assertTrue(Long.compareUnsigned(last.getMostSignificantBits(),
+                    next.getMostSignificantBits()) < 0);
+            last = next;
+        }
+    }
+
+    @Test
+    public void testClockGoingBack() {
+        UUID later = TimeOrderedIdGenerator.INSTANCE.nextId(5000);
+        UUID earlier = TimeOrderedIdGenerator.INSTANCE.nextId(4000);
+        assertTrue(Long.compareUnsigned(later.getMostSignificantBits(),
+                earlier.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    public void testUniqueAcrossThreads() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20000;
+        List<Set<UUID>> made = new ArrayList<>();
+        List<Thread> makers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Set<UUID> ids = new HashSet<>();
+            made.add(ids);
+            Thread maker = new Thread(() -> {
+                OrderIdGenerator generator = OrderIdGenerator.timeOrdered();
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            makers.add(maker);
+            maker.start();
+        }
+        Set<UUID> all = new HashSet<>();
+        for (int t = 0; t < threads; t++) {
+            makers.get(t).join();
+            all.addAll(made.get(t));
+        }
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    public void testRandom() {
+        UUID uuid = OrderIdGenerator.random().nextId();
+        assertEquals(4, uuid.version());
+        assertNotEquals(uuid, OrderIdGenerator.random().nextId());
+    }
+
+    @Test
+    public void testOrderUsesGenerator() {
+        UUID fixed = new UUID(1, 2);
+        Order.setIdGenerator(() -> fixed);
+        assertSame(fixed, new Order().getUUID());
+        Order.setIdGenerator(OrderIdGenerator.timeOrdered());
+        assertEquals(7, new Order().getUUID().version());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNullGenerator() {
+        Order.setIdGenerator(null);
+    }
+}
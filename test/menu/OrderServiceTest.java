@@ -0,0 +1,236 @@
+package menu;
+import exceptions.TooManyToppingsException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.MenuPizza;
+import pizza.Pizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class OrderServiceTest {
+
+    private MenuPizza special;
+    private List<Order> heard;
+    private OrderService service;
+
+    @Before
+    public void setUp() throws TooManyToppingsException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Topping 1", false);
+        special = new MenuPizza("Special", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("TOPPING 1")));
+        heard = new ArrayList<>();
+        service = new OrderService(heard::add);
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    @Test
+    public void testCreateAndConfirm() throws TooManyToppingsException {
+        UUID id = service.create("Alice");
+        Pizza menuPizza = service.addMenuPizza(id, "Special", Bases.BaseSize.LARGE,
+                Sauces.Sauce.BBQ, Cheeses.Cheese.VEGAN);
+        assertEquals("Special", menuPizza.getName());
+        assertEquals(special.getToppings(), menuPizza.getToppings());
+        service.addCustomPizza(id, Bases.BaseSize.SMALL, Sauces.Sauce.GARLIC,
+                Cheeses.Cheese.NONE, List.of(Topping.valueOf("TOPPING 1")));
+        assertEquals(2, service.itemCount(id));
+        assertEquals(900 + 500, service.totalCents(id));
+        assertEquals(1, service.openCount());
+
+        Order order = service.confirm(id);
+        assertEquals(id, order.getUUID());
+        assertEquals("Alice", order.getName());
+        assertEquals(2, order.itemCount());
+        assertEquals(List.of(order), heard);
+        assertEquals(List.of(order), service.getConfirmedOrders());
+        assertEquals(0, service.openCount());
+    }
+
+    @Test
+    public void testCustomPizzaNotOnMenu() throws TooManyToppingsException {
+        int items = Menu.getInstance().getItems().size();
+        UUID id = service.create("Alice");
+        for (int i = 0; i < 10; i++) {
+            service.addCustomPizza(id, Bases.BaseSize.SMALL, Sauces.Sauce.GARLIC,
+                    Cheeses.Cheese.NONE, List.of(Topping.valueOf("TOPPING 1")));
+        }
+        service.confirm(id);
+        assertEquals(items, Menu.getInstance().getItems().size());
+    }
+
+    @Test
+    public void testDefaultName() {
+        assertEquals("Not Given", service.confirm(service.create(null)).getName());
+    }
+
+    @Test
+    public void testCancel() {
+        UUID id = service.create("Bob");
+        assertTrue(service.cancel(id));
+        assertFalse(service.cancel(id));
+        assertTrue(heard.isEmpty());
+        assertTrue(service.getConfirmedOrders().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddAfterConfirm() {
+        UUID id = service.create("Carol");
+        service.confirm(id);
+        service.addMenuPizza(id, "Special", Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfirmTwice() {
+        UUID id = service.create("Dan");
+        service.confirm(id);
+        service.confirm(id);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownMenuPizza() {
+        service.addMenuPizza(service.create("Eve"), "Missing", Bases.BaseSize.SMALL,
+                Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+    }
+
+    @Test
+    public void testAddMenuPizzaNotOnMenu() throws TooManyToppingsException {
+        MenuPizza renamed = new MenuPizza("Renamed", Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(Topping.valueOf("TOPPING 1")));
+        Menu.getInstance().clear();
+        UUID id = service.create("Eve");
+        Pizza pizza = service.addMenuPizza(id, renamed, Bases.BaseSize.LARGE,
+                Sauces.Sauce.BBQ, Cheeses.Cheese.VEGAN);
+        assertEquals("Renamed", pizza.getName());
+        assertEquals(renamed.getToppings(), pizza.getToppings());
+        assertEquals(900, service.totalCents(id));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullMenuPizza() {
+        service.addMenuPizza(service.create("Eve"), (MenuPizza) null, Bases.BaseSize.SMALL,
+                Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+    }
+
+    @Test(expected = TooManyToppingsException.class)
+    public void testTooManyToppings() throws TooManyToppingsException {
+        Topping topping = Topping.valueOf("TOPPING 1");
+        service.addCustomPizza(service.create("Fay"), Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(topping, topping, topping, topping, topping,
+                        topping));
+    }
+
+    @Test
+    public void testAppendReceipt() throws IOException {
+        UUID id = service.create("Gus");
+        service.addMenuPizza(id, "Special", Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA);
+        StringBuilder receipt = new StringBuilder();
+        service.appendReceipt(id, receipt);
+        assertEquals(service.confirm(id).toString(), receipt.toString());
+    }
+
+    @Test
+    public void testRestoreAndClear() {
+        Order old = new Order();
+        service.restore(List.of(old));
+        assertEquals(List.of(old), service.getConfirmedOrders());
+        assertTrue(heard.isEmpty());
+        service.clearConfirmed();
+        assertTrue(service.getConfirmedOrders().isEmpty());
+    }
+
+    @Test
+    public void testDrainConfirmed() {
+        Order first = service.confirm(service.create("Hal"));
+        Order second = service.confirm(service.create("Ivy"));
+        assertEquals(List.of(first, second), service.drainConfirmed());
+        assertTrue(service.getConfirmedOrders().isEmpty());
+        assertEquals(List.of(first, second), heard);
+    }
+
+    @Test
+    public void testMaxConfirmed() {
+        OrderService limited = new OrderService(heard::add, 2, Duration.ofHours(1));
+        limited.confirm(limited.create("Jo"));
+        Order second = limited.confirm(limited.create("Kim"));
+        Order third = limited.confirm(limited.create("Lee"));
+        assertEquals(List.of(second, third), limited.getConfirmedOrders());
+        assertEquals(3, heard.size());
+    }
+
+    @Test
+    public void testExpireOpenOrders() {
+        UUID id = service.create("Max");
+        assertEquals(0, service.expireOpenOrders(Duration.ofHours(1)));
+        assertEquals(1, service.openCount());
+        assertEquals(1, service.expireOpenOrders(Duration.ZERO));
+        assertEquals(0, service.openCount());
+        assertFalse(service.cancel(id));
+        assertTrue(heard.isEmpty());
+    }
+
+    @Test
+    public void testOpenOrdersExpireOnCreate() {
+        OrderService expiring = new OrderService(heard::add, 10, Duration.ofNanos(1));
+        for (int i = 0; i < OrderService.EXPIRY_INTERVAL; i++) {
+            expiring.create("Ned");
+        }
+        assertTrue(expiring.openCount() < OrderService.EXPIRY_INTERVAL);
+    }
+
+    @Test
+    public void testConcurrentOrders() throws Exception {
+        ConcurrentLinkedQueue<Order> confirmed = new ConcurrentLinkedQueue<>();
+        OrderService concurrent = new OrderService(confirmed::add);
+        int orders = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UUID>> results = new ArrayList<>();
+            for (int i = 0; i < orders; i++) {
+                String name = "Customer " + i;
+                results.add(executor.submit(() -> {
+                    UUID id = concurrent.create(name);
+                    concurrent.addMenuPizza(id, "Special", Bases.BaseSize.SMALL,
+                            Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+                    concurrent.addMenuPizza(id, "Special", Bases.BaseSize.LARGE,
+                            Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+                    concurrent.confirm(id);
+                    return id;
+                }));
+            }
+            for (Future<UUID> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(orders, confirmed.size());
+        assertEquals(orders, concurrent.getConfirmedOrders().size());
+        assertEquals(0, concurrent.openCount());
+        for (Order order : concurrent.getConfirmedOrders()) {
+            assertEquals(2, order.itemCount());
+        }
+    }
+}
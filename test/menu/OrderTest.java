@@ -0,0 +1,138 @@
+package menu;
+import exceptions.TooManyToppingsException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.CustomPizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OrderTest {
+
+    private Order order;
+
+    @Before
+    public void setUp() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Topping 1", false);
+        order = new Order();
+        order.setTime(LocalTime.of(12, 0));
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    private void addPizzas(int count) {
+        for (int i = 0; i < count; i++) {
+            order.add(new CustomPizza());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, order.itemCount());
+        assertEquals(0, order.subtotalCents());
+        assertEquals(0, order.discountCents());
+        assertEquals(0, order.totalCents());
+    }
+
+    @Test
+    public void testAdd() throws TooManyToppingsException {
+        CustomPizza pizza = new CustomPizza(Bases.BaseSize.LARGE, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA);
+        pizza.add(Topping.valueOf("Topping 1"));
+        order.add(pizza);
+        order.add(new CustomPizza());
+
+        assertEquals(2, order.itemCount());
+        assertEquals(1400, order.subtotalCents());
+        assertEquals(0, order.discountCents());
+        assertEquals(1400, order.totalCents());
+    }
+
+    @Test
+    public void testPizzaChangedAfterAdd() throws TooManyToppingsException {
+        CustomPizza pizza = new CustomPizza();
+        order.add(pizza);
+        addPizzas(2);
+        assertEquals(1500, order.subtotalCents());
+
+        pizza.add(Topping.valueOf("Topping 1"));
+        pizza.set(Bases.BaseSize.LARGE);
+        assertEquals(900 + 500 + 500, order.subtotalCents());
+        assertEquals(190, order.discountCents());
+        assertEquals(1710, order.totalCents());
+        String receipt = order.toString();
+        assertTrue(receipt.contains("$9.00"));
+        assertTrue(receipt.endsWith("applied of $19.00 applied, new Total: $17.10"
+                + System.lineSeparator()));
+    }
+
+    @Test
+    public void testDiscountTiers() {
+        addPizzas(2);
+        assertEquals(0, order.discountCents());
+        addPizzas(1);
+        assertEquals(1500, order.subtotalCents());
+        assertEquals(150, order.discountCents());
+        assertEquals(1350, order.totalCents());
+        addPizzas(3);
+        assertEquals(3000, order.subtotalCents());
+        assertEquals(750, order.discountCents());
+        assertEquals(2250, order.totalCents());
+    }
+
+    @Test
+    public void testSetDiscountRules() {
+        addPizzas(1);
+        order.setDiscountRules(DiscountRules.compile(List.of(
+                DiscountRule.centsOff("Lunch", 1, 100)
+                        .withTimes(LocalTime.of(11, 0), LocalTime.of(14, 0)))));
+        assertEquals(100, order.discountCents());
+
+        order.setTime(LocalTime.of(18, 0));
+        assertEquals(0, order.discountCents());
+        assertEquals(500, order.totalCents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetDiscountRulesNull() {
+        order.setDiscountRules(null);
+    }
+
+    @Test
+    public void testToStringMatchesQuote() {
+        addPizzas(3);
+        String receipt = order.toString();
+        assertTrue(receipt.contains("applied of $15.00 applied, new Total: $13.50"));
+
+        order = new Order();
+        addPizzas(1);
+        assertTrue(order.toString().contains("Total: $5.00"));
+    }
+
+    @Test
+    public void testAppendTo() throws IOException, TooManyToppingsException {
+        CustomPizza pizza = new CustomPizza();
+        pizza.add(Topping.valueOf("Topping 1"));
+        order.add(pizza);
+        addPizzas(2);
+        CharBuffer buffer = CharBuffer.allocate(4096);
+        order.appendTo(buffer);
+        buffer.flip();
+        assertEquals(order.toString(), buffer.toString());
+    }
+}
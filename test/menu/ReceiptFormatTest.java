@@ -0,0 +1,82 @@
+package menu;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ReceiptFormatTest {
+
+    private final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+
+    private final StringBuilder out = new StringBuilder();
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(Locale.Category.FORMAT, locale);
+    }
+
+    @Test
+    public void testAppendMoney() throws IOException {
+        Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+        for (long cents : new long[] {0, 5, 99, 100, 1234, 100005, -250}) {
+            out.setLength(0);
+            ReceiptFormat.appendMoney(out, cents);
+            assertEquals(String.format("%.2f", cents / 100.0), out.toString());
+        }
+    }
+
+    @Test
+    public void testAppendMoneyLocale() throws IOException {
+        Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+        ReceiptFormat.appendMoney(out, 1234);
+        assertEquals(String.format("%.2f", 12.34), out.toString());
+        assertEquals("12,34", out.toString());
+    }
+
+    @Test
+    public void testAppendNumber() throws IOException {
+        ReceiptFormat.appendNumber(out, 0);
+        out.append(' ');
+        ReceiptFormat.appendNumber(out, 1203);
+        out.append(' ');
+        ReceiptFormat.appendNumber(out, -7);
+        out.append(' ');
+        ReceiptFormat.appendNumber(out, Long.MIN_VALUE);
+        assertEquals("0 1203 -7 " + Long.MIN_VALUE, out.toString());
+    }
+
+    @Test
+    public void testAppendDate() throws IOException {
+        for (LocalDate date : new LocalDate[] {LocalDate.of(2024, 3, 9),
+                LocalDate.of(7, 12, 31), LocalDate.of(12345, 1, 1), LocalDate.of(-5, 6, 1)}) {
+            out.setLength(0);
+            ReceiptFormat.appendDate(out, date);
+            assertEquals(date.toString(), out.toString());
+        }
+    }
+
+    @Test
+    public void testAppendTime() throws IOException {
+        ReceiptFormat.appendTime(out, LocalTime.of(9, 5, 59));
+        assertEquals("09:05", out.toString());
+    }
+
+    @Test
+    public void testAppendUUID() throws IOException {
+        UUID uuid = UUID.fromString("0123abcd-0004-f005-8006-00000000beef");
+        ReceiptFormat.appendUUID(out, uuid);
+        assertEquals(uuid.toString(), out.toString());
+        for (int i = 0; i < 100; i++) {
+            uuid = UUID.randomUUID();
+            out.setLength(0);
+            ReceiptFormat.appendUUID(out, uuid);
+            assertEquals(uuid.toString(), out.toString());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package pizza;
 import exceptions.TooManyToppingsException;
+import exceptions.ValidationError;
+import exceptions.ValidationResult;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -9,6 +11,7 @@ import pizza.ingredients.Sauces;
 import pizza.ingredients.Topping;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -153,4 +156,91 @@ public class CustomPizzaTest {
 
         assertEquals(toppings, pizza1.getToppings());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEqualsAfterAdd() throws TooManyToppingsException {
+        CustomPizza pizza2 = new CustomPizza();
+        pizza1.add(topping1);
+        pizza1.add(topping2);
+        pizza2.add(topping2);
+        assertNotEquals(pizza1, pizza2);
+
+        pizza2.add(topping1);
+        assertEquals(pizza1, pizza2);
+        assertEquals(pizza1.hashCode(), pizza2.hashCode());
+        assertTrue(pizza2.contains(topping1));
+
+        pizza2.remove(topping1);
+        assertFalse(pizza2.contains(topping1));
+    }
+
+    @Test
+    public void testTotalCents() throws TooManyToppingsException {
+        assertEquals(500, pizza1.totalCents());
+        pizza1.add(topping1);
+        pizza1.add(topping2);
+        assertEquals(900, pizza1.totalCents());
+
+        pizza1.set(Bases.BaseSize.LARGE);
+        assertEquals(1100, pizza1.totalCents());
+        pizza1.remove(topping1);
+        assertEquals(900, pizza1.totalCents());
+        assertEquals(9.0, pizza1.getTotalPrice(), 0);
+    }
+
+    @Test
+    public void testDescriptionCached() {
+        assertSame(pizza1.toString(), pizza1.toString());
+        assertSame(pizza1.getPriceLabel(), pizza1.getPriceLabel());
+    }
+
+    @Test
+    public void testDescriptionAfterChanges() throws TooManyToppingsException {
+        String description = pizza1.toString();
+        assertEquals("$5.00", pizza1.getPriceLabel());
+
+        pizza1.add(topping1);
+        assertNotEquals(description, pizza1.toString());
+        assertTrue(pizza1.toString().endsWith("Toppings: [TOPPING 1] $7.00"));
+        assertEquals("$7.00", pizza1.getPriceLabel());
+
+        pizza1.remove(topping1);
+        assertEquals(description, pizza1.toString());
+
+        pizza1.set(Bases.BaseSize.LARGE);
+        assertEquals("$7.00", pizza1.getPriceLabel());
+        pizza1.set(Sauces.Sauce.BBQ);
+        pizza1.set(Cheeses.Cheese.VEGAN);
+        pizza1.setName("Renamed");
+        assertEquals("Renamed: is a 'LARGE' sized base with 'BBQ' sauce and 'VEGAN' cheese $7.00",
+                pizza1.toString());
+    }
+
+    @Test
+    public void testTryAdd() {
+        assertSame(ValidationResult.VALID, pizza1.tryAdd(List.of(topping1, topping2)));
+        assertEquals(List.of(topping1, topping2), pizza1.getToppings());
+        assertEquals(ValidationError.NULL_TOPPING,
+                pizza1.tryAdd(Arrays.asList(topping3, null)).getError());
+        assertEquals(ValidationError.TOO_MANY_TOPPINGS,
+                pizza1.tryAdd(List.of(topping1, topping2, topping3, topping1)).getError());
+        assertEquals(List.of(topping1, topping2), pizza1.getToppings());
+
+        assertSame(ValidationResult.VALID, pizza1.tryAdd(List.of(topping3, topping1, topping2)));
+        ValidationResult result = pizza1.tryAdd(topping3);
+        assertEquals(ValidationError.TOPPING_LIMIT_REACHED, result.getError());
+        assertEquals("Adding topping exceeds 5 total toppings", result.getMessage());
+        assertEquals(5, pizza1.getToppings().size());
+    }
+
+    @Test
+    public void testValidate() {
+        assertTrue(Pizza.validate(Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(topping1)).isValid());
+        assertEquals(ValidationError.NULL_OPTION, Pizza.validate(null, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of()).getError());
+        assertEquals(ValidationError.TOO_MANY_TOPPINGS, Pizza.validate(Bases.BaseSize.SMALL,
+                Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA,
+                List.of(topping1, topping1, topping1, topping1, topping1, topping1)).getError());
+    }
+}
@@ -0,0 +1,154 @@
+package pizza;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MenuPizzaTest {
+
+    private MenuPizza pizza;
+    private List<Topping> toppings;
+
+    @Before
+    public void setUp() throws TooManyToppingsException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Topping 1", false);
+        Topping.createTopping("Topping 2", true);
+        toppings = new ArrayList<>();
+        toppings.add(Topping.valueOf("Topping 1"));
+        toppings.add(Topping.valueOf("Topping 2"));
+        pizza = new MenuPizza("Pizza 1", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, toppings);
+    }
+
+    @After
+    public void tearDown() {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    @Test
+    public void testConstructorName() {
+        assertEquals("Pizza 1", pizza.getName());
+        assertSame(pizza, Menu.getInstance().findByName("Pizza 1").get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorBlankName() throws TooManyToppingsException {
+        new MenuPizza(" ", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, toppings);
+    }
+
+    @Test
+    public void testConstructorCopiesToppings() {
+        toppings.clear();
+        assertEquals(2, pizza.getToppings().size());
+    }
+
+    @Test
+    public void testWith() {
+        MenuPizza large = pizza.with(Bases.BaseSize.LARGE, Sauces.Sauce.BBQ, Cheeses.Cheese.VEGAN);
+
+        assertEquals(Bases.BaseSize.LARGE, large.getBaseSize());
+        assertEquals(Sauces.Sauce.BBQ, large.getSauce());
+        assertEquals(Cheeses.Cheese.VEGAN, large.getCheese());
+        assertEquals("Pizza 1", large.getName());
+        assertSame(pizza.accessToppings(), large.accessToppings());
+        assertEquals(Bases.BaseSize.MEDIUM, pizza.getBaseSize());
+        assertEquals(1, Menu.getInstance().getItems().size());
+    }
+
+    @Test
+    public void testWithTotalCents() {
+        assertEquals(900, pizza.totalCents());
+        assertEquals(700, pizza.with(Bases.BaseSize.SMALL, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA).totalCents());
+    }
+
+    @Test
+    public void testWithSameOptions() {
+        assertSame(pizza,
+                pizza.with(Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithNull() {
+        pizza.with(null, Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetSize() {
+        pizza.set(Bases.BaseSize.LARGE);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetName() {
+        pizza.setName("Pizza 2");
+    }
+
+    @Test
+    public void testEqualsToppingOrder() throws TooManyToppingsException {
+        MenuPizza reversed = new MenuPizza(Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(toppings.get(1), toppings.get(0)));
+
+        assertEquals(pizza, reversed);
+        assertEquals(reversed, pizza);
+        assertEquals(pizza.hashCode(), reversed.hashCode());
+    }
+
+    @Test
+    public void testEqualsDuplicateToppings() throws TooManyToppingsException {
+        Topping topping1 = toppings.get(0);
+        MenuPizza doubled = new MenuPizza(Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(topping1, topping1));
+
+        assertNotEquals(pizza, doubled);
+        assertNotEquals(doubled, pizza);
+    }
+
+    @Test
+    public void testEqualsOptions() {
+        assertNotEquals(pizza,
+                pizza.with(Bases.BaseSize.LARGE, Sauces.Sauce.TOMATO, Cheeses.Cheese.MOZZARELLA));
+        assertNotEquals(pizza, "Pizza 1");
+    }
+
+    @Test
+    public void testContains() {
+        assertTrue(pizza.contains(Topping.valueOf("Topping 2")));
+        Topping.createTopping("Topping 3", false);
+        assertFalse(pizza.contains(Topping.valueOf("Topping 3")));
+        assertFalse(pizza.contains(null));
+    }
+
+    @Test
+    public void testHasVeganToppings() throws TooManyToppingsException {
+        assertFalse(pizza.hasVeganToppings());
+        MenuPizza vegan = new MenuPizza(Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, List.of(toppings.get(1)));
+        assertTrue(vegan.hasVeganToppings());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNullTopping() throws TooManyToppingsException {
+        toppings.add(null);
+        new MenuPizza(Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA, toppings);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testToppingsUnmodifiable() {
+        pizza.accessToppings().clear();
+    }
+}
@@ -2,6 +2,9 @@ package pizza.ingredients;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.Assert.*;
 
 public class ToppingTest {
@@ -92,6 +95,36 @@ public class ToppingTest {
         assertArrayEquals(toppings, Topping.values());
     }
 
+    @Test
+    public void testValuesIsCopy() {
+        Topping.createTopping("T1", true);
+        Topping.values()[0] = null;
+
+        assertEquals(Topping.valueOf("T1"), Topping.values()[0]);
+    }
+
+    @Test
+    public void testValuesAfterCreate() {
+        Topping.createTopping("T1", true);
+        Topping.values();
+        Topping.createTopping("T2", false);
+
+        assertEquals(2, Topping.values().length);
+    }
+
+    @Test
+    public void testValueOfManyToppings() {
+        for (int i = 0; i < 1000; i++) {
+            Topping.createTopping("Topping " + i, i % 2 == 0);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Topping topping = Topping.valueOf("topping " + i);
+            assertEquals("TOPPING " + i, topping.toString());
+            assertEquals(i % 2 == 0, topping.isVegan());
+        }
+        assertEquals(1000, Topping.values().length);
+    }
+
     @Test
     public void testResetToppings() {
         Topping.createTopping("Test Topping", false);
@@ -101,6 +134,22 @@ public class ToppingTest {
         assertArrayEquals(toppings, Topping.values());
     }
 
+    @Test
+    public void testDetached() {
+        Topping topping = Topping.detached("Old Topping", true);
+        assertEquals("OLD TOPPING", topping.toString());
+        assertTrue(topping.isVegan());
+        assertNull(Topping.find("Old Topping", 0, 11));
+        assertEquals(0, Topping.values().length);
+        assertTrue(Topping.tryCreateTopping("Old Topping", true));
+        assertNotSame(topping, Topping.valueOf("Old Topping"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDetachedBlank() {
+        Topping.detached(" ", false);
+    }
+
     @Test
     public void testToString() {
         Topping.createTopping("Test Topping", false);
@@ -115,4 +164,74 @@ public class ToppingTest {
         assertTrue(topping1.isVegan());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testToppingNames() {
+        ToppingNames names = new ToppingNames();
+        for (int i = 0; i < 40; i++) {
+            assertTrue(names.add("Topping " + i));
+        }
+        assertFalse(names.add("TOPPING 3"));
+        assertFalse(names.add(" "));
+        assertFalse(names.add(null));
+        assertEquals(40, names.size());
+        assertTrue(names.contains("[topping 39]", 1, 11));
+        assertFalse(names.contains("Topping 40", 0, 10));
+        assertEquals(0, Topping.values().length);
+    }
+
+    @Test
+    public void testNonAsciiName() {
+        Topping.createTopping("Stra\u00dfe", false);
+        Topping topping = Topping.valueOf("stra\u00dfe");
+        assertEquals("STRASSE", topping.toString());
+        assertSame(topping, Topping.valueOf("STRASSE"));
+        assertSame(topping, Topping.find("[stra\u00dfe]", 1, 7));
+        assertNull(Topping.find("strase", 0, 6));
+
+        ToppingNames names = new ToppingNames();
+        assertTrue(names.add("Stra\u00dfe"));
+        assertFalse(names.add("STRASSE"));
+        assertTrue(names.contains("[stra\u00dfe]", 1, 7));
+    }
+
+    @Test
+    public void testTurkishLocale() {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            Topping.createTopping("olive", true);
+            Topping olive = Topping.valueOf("olive");
+            assertEquals("OLIVE", olive.toString());
+            assertSame(olive, Topping.valueOf("OLIVE"));
+            ToppingNames names = new ToppingNames();
+            assertTrue(names.add("olive"));
+            assertTrue(names.contains("olive", 0, 5));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    public void testConcurrentCreateAndLookup() throws InterruptedException {
+        Topping.createTopping("T0", false);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 200000; i++) {
+                    Topping.valueOf("T0");
+                    Topping.find("MISSING", 0, 7);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 1; i < 2000; i++) {
+            Topping.createTopping("T" + i, false);
+        }
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(2000, Topping.values().length);
+    }
+}
@@ -0,0 +1,148 @@
+package server;
+import exceptions.TooManyToppingsException;
+import menu.Menu;
+import menu.Order;
+import menu.OrderService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pizza.CustomPizza;
+import pizza.MenuPizza;
+import pizza.ingredients.Bases;
+import pizza.ingredients.Cheeses;
+import pizza.ingredients.Sauces;
+import pizza.ingredients.Topping;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class OrderServerTest {
+
+    private List<Order> confirmed;
+    private OrderServer server;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws IOException, TooManyToppingsException {
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+        Topping.createTopping("Ham", false);
+        Topping.createTopping("Pineapple", true);
+        new MenuPizza("Hawaiian", Bases.BaseSize.MEDIUM, Sauces.Sauce.TOMATO,
+                Cheeses.Cheese.MOZZARELLA,
+                List.of(Topping.valueOf("HAM"), Topping.valueOf("PINEAPPLE")));
+        confirmed = new ArrayList<>();
+        server = OrderServer.start(new InetSocketAddress("localhost", 0),
+                new OrderService(order -> {
+                    synchronized (confirmed) {
+                        confirmed.add(order);
+                    }
+                }));
+        client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        Topping.resetToppings();
+        Menu.getInstance().clear();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+    }
+
+    private HttpResponse<String> order(String body) throws IOException, InterruptedException {
+        return send(request("/orders").POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    @Test
+    public void testMenu() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/menu").GET());
+        assertEquals(200, response.statusCode());
+        assertEquals("Hawaiian\tHAM, PINEAPPLE\t$7.00\t$9.00\t$11.00\n", response.body());
+    }
+
+    @Test
+    public void testMenuOnlyMenuPizzas() throws IOException, InterruptedException {
+        new CustomPizza();
+        assertEquals(201, order("custom SMALL TOMATO NONE ham\n").statusCode());
+        HttpResponse<String> response = send(request("/menu").GET());
+        assertEquals("Hawaiian\tHAM, PINEAPPLE\t$7.00\t$9.00\t$11.00\n", response.body());
+        assertEquals(2, Menu.getInstance().getItems().size());
+    }
+
+    @Test
+    public void testOrder() throws IOException, InterruptedException {
+        HttpResponse<String> response = order("customer Alice\n"
+                + "menu large bbq vegan Hawaiian\n"
+                + "custom SMALL TOMATO NONE ham, Pineapple\n");
+        assertEquals(201, response.statusCode());
+        assertEquals(1, confirmed.size());
+        Order order = confirmed.get(0);
+        assertEquals("Alice", order.getName());
+        assertEquals(2, order.itemCount());
+        assertEquals(1100 + 700, order.totalCents());
+        assertEquals(order.toString(), response.body());
+    }
+
+    @Test
+    public void testIndentedCustomerLine() throws IOException, InterruptedException {
+        HttpResponse<String> response = order("  customer Carol \r\n"
+                + "\tmenu SMALL TOMATO MOZZARELLA Hawaiian\n");
+        assertEquals(201, response.statusCode());
+        assertEquals("Carol", confirmed.get(0).getName());
+        assertEquals(1, confirmed.get(0).itemCount());
+    }
+
+    @Test
+    public void testInvalidOrders() throws IOException, InterruptedException {
+        assertEquals(400, order("customer Bob\n").statusCode());
+        assertEquals(400, order("menu LARGE TOMATO MOZZARELLA Missing\n").statusCode());
+        assertEquals(400, order("menu HUGE TOMATO MOZZARELLA Hawaiian\n").statusCode());
+        assertEquals(400, order("custom SMALL TOMATO NONE Anchovy\n").statusCode());
+        assertEquals(400, order("custom SMALL TOMATO NONE HAM,HAM,HAM,HAM,HAM,HAM\n")
+                .statusCode());
+        HttpResponse<String> response = order("menu SMALL TOMATO\n");
+        assertEquals(400, response.statusCode());
+        assertEquals("Line 1 needs a size, sauce and cheese", response.body());
+        assertTrue(confirmed.isEmpty());
+    }
+
+    @Test
+    public void testWrongMethod() throws IOException, InterruptedException {
+        assertEquals(405, send(request("/orders").GET()).statusCode());
+        assertEquals(405, send(request("/menu").POST(HttpRequest.BodyPublishers.noBody()))
+                .statusCode());
+    }
+
+    @Test
+    public void testConcurrentOrders() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses =
+                new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            responses.add(client.sendAsync(request("/orders")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "menu SMALL TOMATO MOZZARELLA Hawaiian\n")).build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.get().statusCode());
+        }
+        assertEquals(100, confirmed.size());
+    }
+}